@@ -1,6 +1,8 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.UnitOfWork;
 import models.Amenity;
 
 import java.sql.*;
@@ -44,7 +46,10 @@ public class AmenityDAO {
             rs = pstmt.getGeneratedKeys();
 
             if (rs.next()) {
-                return rs.getLong(1);
+                Long amenityId = rs.getLong(1);
+                // The amenities report lists every amenity
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.AMENITIES));
+                return amenityId;
             }
             throw new SQLException("Failed to get amenity ID");
         } finally {
@@ -110,14 +115,7 @@ public class AmenityDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Amenity amenity = new Amenity();
-                amenity.setAmenityId(rs.getLong("amenity_id"));
-                amenity.setName(rs.getString("name"));
-                amenity.setDescription(rs.getString("description"));
-                amenity.setRate(rs.getDouble("rate"));
-                amenity.setAvailability(rs.getString("availability"));
-                amenity.setOverallRating(rs.getDouble("overall_rating"));
-                amenities.add(amenity);
+                amenities.add(mapAmenity(rs));
             }
             return amenities;
         } finally {
@@ -127,6 +125,94 @@ public class AmenityDAO {
         }
     }
 
+    // READ - One keyset page: up to limit amenities with amenity_id > afterAmenityId, in amenity_id order
+    public List<Amenity> getAllAmenities(String availabilityFilter, long afterAmenityId, int limit) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Amenity> amenities = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM amenity WHERE amenity_id > ?";
+
+            boolean filtered = availabilityFilter != null && !availabilityFilter.isEmpty() && !availabilityFilter.equals("All");
+            if (filtered) {
+                sql += " AND availability = ?";
+            }
+            sql += " ORDER BY amenity_id LIMIT ?";
+
+            pstmt = conn.prepareStatement(sql);
+
+            int index = 1;
+            pstmt.setLong(index++, afterAmenityId);
+            if (filtered) {
+                pstmt.setString(index++, availabilityFilter);
+            }
+            pstmt.setInt(index, limit);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                amenities.add(mapAmenity(rs));
+            }
+            return amenities;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - Every amenity matching availabilityFilter, handed to handler one row at a time as MySQL streams them.
+    // Returns the number of rows handled.
+    public long streamAllAmenities(String availabilityFilter, RowHandler<Amenity> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM amenity WHERE 1=1";
+
+            boolean filtered = availabilityFilter != null && !availabilityFilter.isEmpty() && !availabilityFilter.equals("All");
+            if (filtered) {
+                sql += " AND availability = ?";
+            }
+            sql += " ORDER BY amenity_id";
+
+            pstmt = StreamingQuery.prepare(conn, sql);
+
+            if (filtered) {
+                pstmt.setString(1, availabilityFilter);
+            }
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapAmenity(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Amenity mapAmenity(ResultSet rs) throws SQLException {
+        Amenity amenity = new Amenity();
+        amenity.setAmenityId(rs.getLong("amenity_id"));
+        amenity.setName(rs.getString("name"));
+        amenity.setDescription(rs.getString("description"));
+        amenity.setRate(rs.getDouble("rate"));
+        amenity.setAvailability(rs.getString("availability"));
+        amenity.setOverallRating(rs.getDouble("overall_rating"));
+        return amenity;
+    }
+
     // UPDATE
     public boolean updateAmenity(Amenity amenity) throws SQLException {
         Connection conn = null;
@@ -158,7 +244,11 @@ public class AmenityDAO {
             pstmt.setString(4, amenity.getAvailability());
             pstmt.setLong(5, amenity.getAmenityId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.AMENITIES));
+            }
+            return updated;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -192,7 +282,11 @@ public class AmenityDAO {
             pstmt = conn.prepareStatement(deleteSql);
             pstmt.setLong(1, amenityId);
 
-            return pstmt.executeUpdate() > 0;
+            boolean deleted = pstmt.executeUpdate() > 0;
+            if (deleted) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.AMENITIES));
+            }
+            return deleted;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -207,6 +301,8 @@ public class AmenityDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getAmenityById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -245,6 +341,7 @@ public class AmenityDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 }
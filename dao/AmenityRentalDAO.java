@@ -1,6 +1,9 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.TransactionRetry;
+import database.UnitOfWork;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -8,10 +11,24 @@ import java.util.List;
 
 public class AmenityRentalDAO {
 
+    // getActiveRentals; QueryPlanVerifier checks its plan
+    static final String ACTIVE_RENTALS_BY_GUEST_SQL = "SELECT ar.rental_id, a.name, ar.qty, ar.rent_start, ar.rent_end, ar.status " +
+            "FROM amenity_rental ar " +
+            "JOIN amenity a ON ar.amenity_id = a.amenity_id " +
+            "WHERE ar.guest_id = ? AND ar.status = 'active' " +
+            "ORDER BY ar.rent_start DESC";
+
     // TRANSACTION 5: Amenity/Equipment Rental
     public Long processAmenityRental(Long guestId, Long amenityId, Long reservationId,
                                      LocalDateTime rentStart, LocalDateTime rentEnd,
                                      int quantity) throws SQLException {
+        return TransactionRetry.run("processAmenityRental",
+                () -> processAmenityRentalOnce(guestId, amenityId, reservationId, rentStart, rentEnd, quantity));
+    }
+
+    private Long processAmenityRentalOnce(Long guestId, Long amenityId, Long reservationId,
+                                          LocalDateTime rentStart, LocalDateTime rentEnd,
+                                          int quantity) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
@@ -98,7 +115,14 @@ public class AmenityRentalDAO {
             pstmt.executeUpdate();
             pstmt.close();
 
+            // STEP 7: Update dashboard counters
+            DashboardCounters.adjust(conn, DashboardCounters.ACTIVE_RENTALS, 1);
+
+            // STEP 8: A back-dated rental changes a closed month's amenity rollup
+            ReportFacts.markDirty(conn, rentStart.toLocalDate());
+
             conn.commit();
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateMonth(rentStart.toLocalDate(), ReportType.AMENITIES));
             return rentalId;
 
         } catch (SQLException e) {
@@ -128,6 +152,7 @@ public class AmenityRentalDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // Validate rental exists and is active
             String checkSql = "SELECT status FROM amenity_rental WHERE rental_id = ?";
@@ -146,17 +171,37 @@ public class AmenityRentalDAO {
             rs.close();
             pstmt.close();
 
-            // Update status to returned
-            String updateSql = "UPDATE amenity_rental SET status = 'returned' WHERE rental_id = ?";
+            // Update status to returned (only if still active, so a concurrent return can't count twice)
+            String updateSql = "UPDATE amenity_rental SET status = 'returned' WHERE rental_id = ? AND status = 'active'";
             pstmt = conn.prepareStatement(updateSql);
             pstmt.setLong(1, rentalId);
+            boolean returned = pstmt.executeUpdate() > 0;
+            pstmt.close();
+
+            // Update dashboard counters
+            if (returned) {
+                DashboardCounters.adjust(conn, DashboardCounters.ACTIVE_RENTALS, -1);
+            }
 
-            return pstmt.executeUpdate() > 0;
+            conn.commit();
+            return returned;
 
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -169,12 +214,7 @@ public class AmenityRentalDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT ar.rental_id, a.name, ar.qty, ar.rent_start, ar.rent_end, ar.status " +
-                    "FROM amenity_rental ar " +
-                    "JOIN amenity a ON ar.amenity_id = a.amenity_id " +
-                    "WHERE ar.guest_id = ? AND ar.status = 'active' " +
-                    "ORDER BY ar.rent_start DESC";
-            pstmt = conn.prepareStatement(sql);
+            pstmt = conn.prepareStatement(ACTIVE_RENTALS_BY_GUEST_SQL);
             pstmt.setLong(1, guestId);
             rs = pstmt.executeQuery();
 
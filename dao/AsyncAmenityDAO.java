@@ -0,0 +1,65 @@
+package dao;
+
+import models.Amenity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AmenityDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncAmenityDAO {
+    private final AmenityDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncAmenityDAO() {
+        this(new AmenityDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncAmenityDAO(AmenityDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncAmenityDAO withTimeout(Duration timeout) {
+        return new AsyncAmenityDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> addAmenity(Amenity amenity) {
+        return executor.submit(() -> dao.addAmenity(amenity), timeout);
+    }
+
+    public CompletableFuture<Amenity> getAmenityById(Long amenityId) {
+        return executor.submit(() -> dao.getAmenityById(amenityId), timeout);
+    }
+
+    public CompletableFuture<List<Amenity>> getAllAmenities(String availabilityFilter) {
+        return executor.submit(() -> dao.getAllAmenities(availabilityFilter), timeout);
+    }
+
+    public CompletableFuture<List<Amenity>> getAllAmenities(String availabilityFilter, long afterAmenityId, int limit) {
+        return executor.submit(() -> dao.getAllAmenities(availabilityFilter, afterAmenityId, limit), timeout);
+    }
+
+    // handler runs on the executor thread, not the caller's
+    public CompletableFuture<Long> streamAllAmenities(String availabilityFilter, RowHandler<Amenity> handler) {
+        return executor.submit(() -> dao.streamAllAmenities(availabilityFilter, handler), timeout);
+    }
+
+    public CompletableFuture<Boolean> updateAmenity(Amenity amenity) {
+        return executor.submit(() -> dao.updateAmenity(amenity), timeout);
+    }
+
+    public CompletableFuture<Boolean> deleteAmenity(Long amenityId) {
+        return executor.submit(() -> dao.deleteAmenity(amenityId), timeout);
+    }
+
+    public CompletableFuture<String> getAmenityWithGuestRequests(Long amenityId) {
+        return executor.submit(() -> dao.getAmenityWithGuestRequests(amenityId), timeout);
+    }
+}
@@ -0,0 +1,43 @@
+package dao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AmenityRentalDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncAmenityRentalDAO {
+    private final AmenityRentalDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncAmenityRentalDAO() {
+        this(new AmenityRentalDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncAmenityRentalDAO(AmenityRentalDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncAmenityRentalDAO withTimeout(Duration timeout) {
+        return new AsyncAmenityRentalDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> processAmenityRental(Long guestId, Long amenityId, Long reservationId, LocalDateTime rentStart, LocalDateTime rentEnd, int quantity) {
+        return executor.submit(() -> dao.processAmenityRental(guestId, amenityId, reservationId, rentStart, rentEnd, quantity), timeout);
+    }
+
+    public CompletableFuture<Boolean> returnAmenityRental(Long rentalId) {
+        return executor.submit(() -> dao.returnAmenityRental(rentalId), timeout);
+    }
+
+    public CompletableFuture<List<String>> getActiveRentals(Long guestId) {
+        return executor.submit(() -> dao.getActiveRentals(guestId), timeout);
+    }
+}
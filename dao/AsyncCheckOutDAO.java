@@ -0,0 +1,45 @@
+package dao;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CheckOutDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncCheckOutDAO {
+    private final CheckOutDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncCheckOutDAO() {
+        this(new CheckOutDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncCheckOutDAO(CheckOutDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncCheckOutDAO withTimeout(Duration timeout) {
+        return new AsyncCheckOutDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Double> calculateTotalCharges(Long reservationId) {
+        return executor.submit(() -> dao.calculateTotalCharges(reservationId), timeout);
+    }
+
+    public CompletableFuture<Boolean> isTransactionRefUnique(String transactionRef) {
+        return executor.submit(() -> dao.isTransactionRefUnique(transactionRef), timeout);
+    }
+
+    public CompletableFuture<Boolean> processCheckOut(Long reservationId, double amountPaid, String paymentMethod, String transactionRef) {
+        return executor.submit(() -> dao.processCheckOut(reservationId, amountPaid, paymentMethod, transactionRef), timeout);
+    }
+
+    public CompletableFuture<Boolean> addChargeItem(Long reservationId, String description, int qty, double unitPrice) {
+        return executor.submit(() -> dao.addChargeItem(reservationId, description, qty, unitPrice), timeout);
+    }
+}
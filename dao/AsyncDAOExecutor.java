@@ -0,0 +1,125 @@
+package dao;
+
+import database.DatabaseConnection;
+import database.QueryCancellation;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs DAO calls off the calling thread for the Async*DAO facades.
+ * Each call gets a virtual thread when the JVM has them (Java 21+) and a thread from a fixed
+ * daemon pool otherwise. Either way at most as many calls run at once as the connection pool has
+ * connections; the rest wait for a permit instead of queueing inside the pool.
+ * Cancelling a returned future, or letting its timeout expire, cancels the statement the call is
+ * running (see QueryCancellation) and fails any statement it would open next. A call that
+ * hasn't started yet is simply dropped.
+ * Don't wait on one of these futures from inside another call: the outer call holds a permit
+ * the inner one may need.
+ */
+public final class AsyncDAOExecutor {
+
+    // A DAO call to run asynchronously
+    public interface Call<T> {
+        T call() throws SQLException;
+    }
+
+    private static final AsyncDAOExecutor shared = new AsyncDAOExecutor(DatabaseConnection.getMaxPoolSize());
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    AsyncDAOExecutor(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformThreadExecutor(maxConcurrency);
+    }
+
+    public static AsyncDAOExecutor getInstance() {
+        return shared;
+    }
+
+    public boolean usesVirtualThreads() { return virtualThreads; }
+    public int getMaxConcurrency() { return maxConcurrency; }
+
+    public <T> CompletableFuture<T> submit(Call<T> call) {
+        return submit(call, null);
+    }
+
+    // timeout may be null for none; on expiry the future fails with TimeoutException
+    public <T> CompletableFuture<T> submit(Call<T> call, Duration timeout) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        QueryCancellation cancellation = new QueryCancellation();
+        Future<?> task = executor.submit(() -> run(call, future, cancellation));
+
+        future.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                // Interrupt only a call still waiting for a permit; a running one is stopped through its statement
+                if (!cancellation.cancel()) {
+                    task.cancel(true);
+                }
+            }
+        });
+        if (timeout != null) {
+            future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    private <T> void run(Call<T> call, CompletableFuture<T> future, QueryCancellation cancellation) {
+        if (future.isDone()) {
+            return; // cancelled or timed out while queued
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            future.completeExceptionally(new SQLException("Interrupted while waiting to run", e));
+            return;
+        }
+        try {
+            cancellation.bind();
+            try {
+                future.complete(call.call());
+            } finally {
+                cancellation.unbind();
+            }
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when this JVM has it; looked up reflectively so we still build on 17
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // before Java 21 (or 19/20 without --enable-preview)
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "async-dao-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
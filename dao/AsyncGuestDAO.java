@@ -0,0 +1,77 @@
+package dao;
+
+import models.Guest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * GuestDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncGuestDAO {
+    private final GuestDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncGuestDAO() {
+        this(new GuestDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncGuestDAO(GuestDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncGuestDAO withTimeout(Duration timeout) {
+        return new AsyncGuestDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> addGuest(Guest guest) {
+        return executor.submit(() -> dao.addGuest(guest), timeout);
+    }
+
+    public CompletableFuture<Guest> getGuestById(Long guestId) {
+        return executor.submit(() -> dao.getGuestById(guestId), timeout);
+    }
+
+    public CompletableFuture<List<Guest>> getAllGuests(String searchTerm) {
+        return executor.submit(() -> dao.getAllGuests(searchTerm), timeout);
+    }
+
+    public CompletableFuture<List<Guest>> getAllGuests(String searchTerm, long afterGuestId, int limit) {
+        return executor.submit(() -> dao.getAllGuests(searchTerm, afterGuestId, limit), timeout);
+    }
+
+    // handler runs on the executor thread, not the caller's
+    public CompletableFuture<Long> streamAllGuests(String searchTerm, RowHandler<Guest> handler) {
+        return executor.submit(() -> dao.streamAllGuests(searchTerm, handler), timeout);
+    }
+
+    public CompletableFuture<Long> getGuestIdAtOffset(long offset) {
+        return executor.submit(() -> dao.getGuestIdAtOffset(offset), timeout);
+    }
+
+    public CompletableFuture<Long> estimateGuestCount() {
+        return executor.submit(() -> dao.estimateGuestCount(), timeout);
+    }
+
+    public CompletableFuture<Boolean> updateGuest(Guest guest) {
+        return executor.submit(() -> dao.updateGuest(guest), timeout);
+    }
+
+    public CompletableFuture<Boolean> deleteGuest(Long guestId) {
+        return executor.submit(() -> dao.deleteGuest(guestId), timeout);
+    }
+
+    public CompletableFuture<String> getGuestWithPreferences(Long guestId) {
+        return executor.submit(() -> dao.getGuestWithPreferences(guestId), timeout);
+    }
+
+    public CompletableFuture<String> getGuestWithFeedback(Long guestId) {
+        return executor.submit(() -> dao.getGuestWithFeedback(guestId), timeout);
+    }
+}
@@ -0,0 +1,65 @@
+package dao;
+
+import models.InventoryItem;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * InventoryDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncInventoryDAO {
+    private final InventoryDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncInventoryDAO() {
+        this(new InventoryDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncInventoryDAO(InventoryDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncInventoryDAO withTimeout(Duration timeout) {
+        return new AsyncInventoryDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> addInventoryItem(InventoryItem item) {
+        return executor.submit(() -> dao.addInventoryItem(item), timeout);
+    }
+
+    public CompletableFuture<InventoryItem> getInventoryItemById(Long itemId) {
+        return executor.submit(() -> dao.getInventoryItemById(itemId), timeout);
+    }
+
+    public CompletableFuture<List<InventoryItem>> getAllInventoryItems() {
+        return executor.submit(() -> dao.getAllInventoryItems(), timeout);
+    }
+
+    public CompletableFuture<List<InventoryItem>> getAllInventoryItems(long afterItemId, int limit) {
+        return executor.submit(() -> dao.getAllInventoryItems(afterItemId, limit), timeout);
+    }
+
+    // handler runs on the executor thread, not the caller's
+    public CompletableFuture<Long> streamAllInventoryItems(RowHandler<InventoryItem> handler) {
+        return executor.submit(() -> dao.streamAllInventoryItems(handler), timeout);
+    }
+
+    public CompletableFuture<Boolean> updateInventoryItem(InventoryItem item) {
+        return executor.submit(() -> dao.updateInventoryItem(item), timeout);
+    }
+
+    public CompletableFuture<Boolean> deleteInventoryItem(Long itemId) {
+        return executor.submit(() -> dao.deleteInventoryItem(itemId), timeout);
+    }
+
+    public CompletableFuture<String> getInventoryWithRequestCount(Long itemId) {
+        return executor.submit(() -> dao.getInventoryWithRequestCount(itemId), timeout);
+    }
+}
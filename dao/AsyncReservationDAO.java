@@ -0,0 +1,73 @@
+package dao;
+
+import models.Reservation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ReservationDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncReservationDAO {
+    private final ReservationDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncReservationDAO() {
+        this(new ReservationDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncReservationDAO(ReservationDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncReservationDAO withTimeout(Duration timeout) {
+        return new AsyncReservationDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> createReservation(Reservation reservation, List<Long> amenityIds) {
+        return executor.submit(() -> dao.createReservation(reservation, amenityIds), timeout);
+    }
+
+    public CompletableFuture<Boolean> checkInGuest(Long reservationId) {
+        return executor.submit(() -> dao.checkInGuest(reservationId), timeout);
+    }
+
+    public CompletableFuture<Reservation> getReservationById(Long reservationId) {
+        return executor.submit(() -> dao.getReservationById(reservationId), timeout);
+    }
+
+    public CompletableFuture<List<Reservation>> getAllReservations(String statusFilter) {
+        return executor.submit(() -> dao.getAllReservations(statusFilter), timeout);
+    }
+
+    public CompletableFuture<List<Reservation>> getAllReservations(String statusFilter, long afterReservationId, int limit) {
+        return executor.submit(() -> dao.getAllReservations(statusFilter, afterReservationId, limit), timeout);
+    }
+
+    // handler runs on the executor thread, not the caller's
+    public CompletableFuture<Long> streamAllReservations(String statusFilter, RowHandler<Reservation> handler) {
+        return executor.submit(() -> dao.streamAllReservations(statusFilter, handler), timeout);
+    }
+
+    public CompletableFuture<Long> getReservationIdAtOffset(String statusFilter, long offset) {
+        return executor.submit(() -> dao.getReservationIdAtOffset(statusFilter, offset), timeout);
+    }
+
+    public CompletableFuture<Long> estimateReservationCount(String statusFilter) {
+        return executor.submit(() -> dao.estimateReservationCount(statusFilter), timeout);
+    }
+
+    public CompletableFuture<List<Reservation>> getActiveReservationsByGuestId(Long guestId) {
+        return executor.submit(() -> dao.getActiveReservationsByGuestId(guestId), timeout);
+    }
+
+    public CompletableFuture<List<Reservation>> getCheckedInReservationsByGuestId(Long guestId) {
+        return executor.submit(() -> dao.getCheckedInReservationsByGuestId(guestId), timeout);
+    }
+}
@@ -0,0 +1,41 @@
+package dao;
+
+import models.RestockResult;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RestockDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncRestockDAO {
+    private final RestockDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncRestockDAO() {
+        this(new RestockDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncRestockDAO(RestockDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncRestockDAO withTimeout(Duration timeout) {
+        return new AsyncRestockDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<RestockResult> processRestock(Long itemId, String supplier, int quantity, String notes, Date restockDate) {
+        return executor.submit(() -> dao.processRestock(itemId, supplier, quantity, notes, restockDate), timeout);
+    }
+
+    public CompletableFuture<List<String>> getRestockHistory(Long itemId) {
+        return executor.submit(() -> dao.getRestockHistory(itemId), timeout);
+    }
+}
@@ -0,0 +1,83 @@
+package dao;
+
+import models.Room;
+import models.RoomSearchCriteria;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RoomDAO returning CompletableFutures. Threads, the concurrency limit, timeouts and
+ * cancellation are handled by AsyncDAOExecutor.
+ */
+public class AsyncRoomDAO {
+    private final RoomDAO dao;
+    private final AsyncDAOExecutor executor;
+    private final Duration timeout;
+
+    public AsyncRoomDAO() {
+        this(new RoomDAO(), AsyncDAOExecutor.getInstance(), null);
+    }
+
+    public AsyncRoomDAO(RoomDAO dao, AsyncDAOExecutor executor, Duration timeout) {
+        this.dao = dao;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    // Same DAO and executor, but every call is cancelled and fails with TimeoutException after timeout
+    public AsyncRoomDAO withTimeout(Duration timeout) {
+        return new AsyncRoomDAO(dao, executor, timeout);
+    }
+
+    public CompletableFuture<Long> addRoom(Room room) {
+        return executor.submit(() -> dao.addRoom(room), timeout);
+    }
+
+    public CompletableFuture<Room> getRoomById(Long roomId) {
+        return executor.submit(() -> dao.getRoomById(roomId), timeout);
+    }
+
+    public CompletableFuture<List<Room>> getAllRooms(String statusFilter) {
+        return executor.submit(() -> dao.getAllRooms(statusFilter), timeout);
+    }
+
+    public CompletableFuture<List<Room>> getAllRooms(String statusFilter, long afterRoomId, int limit) {
+        return executor.submit(() -> dao.getAllRooms(statusFilter, afterRoomId, limit), timeout);
+    }
+
+    // handler runs on the executor thread, not the caller's
+    public CompletableFuture<Long> streamAllRooms(String statusFilter, RowHandler<Room> handler) {
+        return executor.submit(() -> dao.streamAllRooms(statusFilter, handler), timeout);
+    }
+
+    public CompletableFuture<Boolean> updateRoom(Room room) {
+        return executor.submit(() -> dao.updateRoom(room), timeout);
+    }
+
+    public CompletableFuture<Boolean> deleteRoom(Long roomId) {
+        return executor.submit(() -> dao.deleteRoom(roomId), timeout);
+    }
+
+    public CompletableFuture<String> getRoomWithServiceRequests(Long roomId) {
+        return executor.submit(() -> dao.getRoomWithServiceRequests(roomId), timeout);
+    }
+
+    public CompletableFuture<String> getRoomWithGuestCount(Long roomId) {
+        return executor.submit(() -> dao.getRoomWithGuestCount(roomId), timeout);
+    }
+
+    public CompletableFuture<Boolean> isRoomAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return executor.submit(() -> dao.isRoomAvailable(roomId, checkIn, checkOut), timeout);
+    }
+
+    public CompletableFuture<List<Room>> searchAvailableRooms(RoomSearchCriteria criteria, Room after, int limit) {
+        return executor.submit(() -> dao.searchAvailableRooms(criteria, after, limit), timeout);
+    }
+
+    public CompletableFuture<List<String>> getRoomTypes() {
+        return executor.submit(() -> dao.getRoomTypes(), timeout);
+    }
+}
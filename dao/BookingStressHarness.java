@@ -0,0 +1,197 @@
+package dao;
+
+import database.DatabaseConnection;
+import models.Reservation;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires conflicting bookings at a few rooms from many threads and checks that createReservation
+ * never lets two active stays in one room overlap. Every attempt is a 1-4 night stay inside a
+ * short window 50 years out, so most attempts collide and must be refused.
+ * Prints accepted, refused and failed counts with throughput, checks the rooms for overlapping
+ * stays, then deletes what it booked, restores the rooms' status and reconciles the dashboard
+ * counters. Run against a seeded database (java dao.SyntheticDataSeeder 500).
+ * Usage: java dao.BookingStressHarness [threads] [attempts] [rooms]
+ */
+public class BookingStressHarness {
+
+    private static final int WINDOW_DAYS = 60;
+    private static final int MAX_NIGHTS = 4;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : DatabaseConnection.getMaxPoolSize();
+        int attempts = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int roomCount = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        Map<Long, String> rooms = pickRooms(roomCount);
+        Long guestId = pickGuest();
+        if (rooms.isEmpty() || guestId == null) {
+            System.err.println("No bookable rooms or guests found - seed the database before running the harness.");
+            return;
+        }
+        List<Long> roomIds = new ArrayList<>(rooms.keySet());
+        LocalDate windowStart = LocalDate.now().plusYears(50);
+        LocalDate windowEnd = windowStart.plusDays(WINDOW_DAYS + MAX_NIGHTS);
+
+        System.out.println("===========================================");
+        System.out.println("Double-Booking Stress Harness");
+        System.out.println(attempts + " bookings from " + threads + " threads on " + roomIds.size() + " rooms, "
+                + windowStart + " to " + windowEnd);
+        System.out.println("===========================================\n");
+
+        ReservationDAO dao = new ReservationDAO();
+        Queue<Long> booked = new ConcurrentLinkedQueue<>();
+        AtomicInteger refused = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger next = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (next.getAndIncrement() < attempts) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    LocalDate checkIn = windowStart.plusDays(random.nextInt(WINDOW_DAYS));
+                    Reservation reservation = new Reservation(guestId, roomIds.get(random.nextInt(roomIds.size())),
+                            checkIn, checkIn.plusDays(1 + random.nextInt(MAX_NIGHTS)), "walk-in");
+                    try {
+                        booked.add(dao.createReservation(reservation, null));
+                    } catch (SQLException e) {
+                        if (e.getMessage() != null && e.getMessage().startsWith("Room is already booked")) {
+                            refused.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                            System.err.println("Booking failed: " + e.getMessage());
+                        }
+                    }
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        startGate.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int overlaps = countOverlaps(roomIds, windowStart, windowEnd);
+        System.out.printf("Accepted  %6d%n", booked.size());
+        System.out.printf("Refused   %6d  (room already booked)%n", refused.get());
+        System.out.printf("Failed    %6d  (deadlock, lock wait timeout, ...)%n", failed.get());
+        System.out.printf("Elapsed   %9.2f s%n", seconds);
+        System.out.printf("Throughput %8.1f attempts/s, %.1f bookings/s%n", attempts / seconds, booked.size() / seconds);
+        System.out.printf("%s: %d overlapping stay(s)%n%n", overlaps == 0 ? "PASS" : "FAIL", overlaps);
+
+        cleanUp(new ArrayList<>(booked), rooms);
+        new DashboardDAO().reconcileCounters();
+        System.out.println("Removed " + booked.size() + " test reservations and restored room status.");
+    }
+
+    // The first rooms that can be booked, with their current status so it can be put back afterwards
+    private static Map<Long, String> pickRooms(int count) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            Map<Long, String> rooms = new LinkedHashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT room_id, status FROM room WHERE status <> 'maintenance' ORDER BY room_id LIMIT ?")) {
+                ps.setInt(1, count);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rooms.put(rs.getLong("room_id"), rs.getString("status"));
+                    }
+                }
+            }
+            return rooms;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Long pickGuest() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(guest_id) FROM guest");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long id = rs.getLong(1);
+                return rs.wasNull() ? null : id;
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Pairs of active stays in the same room whose dates intersect
+    private static int countOverlaps(List<Long> roomIds, LocalDate from, LocalDate to) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT COUNT(*) FROM reservation a " +
+                    "JOIN reservation b ON b.room_id = a.room_id AND b.reservation_id > a.reservation_id " +
+                    "AND b.check_in < a.check_out AND a.check_in < b.check_out " +
+                    "AND b.status IN ('confirmed', 'checked-in') " +
+                    "WHERE a.room_id = ? AND a.status IN ('confirmed', 'checked-in') " +
+                    "AND a.check_out > ? AND a.check_in < ?";
+            int overlaps = 0;
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Long roomId : roomIds) {
+                    ps.setLong(1, roomId);
+                    ps.setDate(2, Date.valueOf(from));
+                    ps.setDate(3, Date.valueOf(to));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        overlaps += rs.getInt(1);
+                    }
+                }
+            }
+            return overlaps;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static void cleanUp(List<Long> reservationIds, Map<Long, String> rooms) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM reservation WHERE reservation_id = ?")) {
+                for (Long id : reservationIds) {
+                    ps.setLong(1, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE room SET status = ? WHERE room_id = ?")) {
+                for (Map.Entry<Long, String> room : rooms.entrySet()) {
+                    ps.setString(1, room.getValue());
+                    ps.setLong(2, room.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dao;
+
+import dao.ReportCache.ReportType;
+import models.AmenityReportRow;
+import models.InventoryReportRow;
+import models.OccupancyReportRow;
+import models.ReportResult;
+import models.RevenueReportRow;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * ReportsDAO that answers from the shared ReportCache and only queries the database on a miss.
+ */
+public class CachedReportsDAO extends ReportsDAO {
+    private final ReportCache cache = ReportCache.getInstance();
+
+    @Override
+    public ReportResult<OccupancyReportRow> getRoomOccupancyReport(int year, int month) throws SQLException {
+        return cache.get(ReportType.OCCUPANCY, year, month, () -> super.getRoomOccupancyReport(year, month));
+    }
+
+    @Override
+    public ReportResult<RevenueReportRow> getRevenueReport(int year, int month) throws SQLException {
+        return cache.get(ReportType.REVENUE, year, month, () -> super.getRevenueReport(year, month));
+    }
+
+    @Override
+    public ReportResult<InventoryReportRow> getInventoryReport(int year, int month) throws SQLException {
+        return cache.get(ReportType.INVENTORY, year, month, () -> super.getInventoryReport(year, month));
+    }
+
+    @Override
+    public ReportResult<AmenityReportRow> getAmenitiesReport(int year, int month) throws SQLException {
+        return cache.get(ReportType.AMENITIES, year, month, () -> super.getAmenitiesReport(year, month));
+    }
+
+    // Load all four reports for the last `months` closed months, most recent first.
+    // Returns how many reports were loaded; a report that fails is skipped.
+    public int prewarm(int months) {
+        int loaded = 0;
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i < months; i++) {
+            month = month.minusMonths(1);
+            int year = month.getYear();
+            int monthValue = month.getMonthValue();
+            try {
+                getRoomOccupancyReport(year, monthValue);
+                getRevenueReport(year, monthValue);
+                getInventoryReport(year, monthValue);
+                getAmenitiesReport(year, monthValue);
+                loaded += 4;
+            } catch (SQLException e) {
+                System.err.println("Report cache prewarm failed for " + month + ": " + e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    public ReportCacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -1,10 +1,17 @@
 package dao;
 
 import database.DatabaseConnection;
+import database.TransactionRetry;
+import database.UnitOfWork;
 import java.sql.*;
 
 public class CheckOutDAO {
 
+    // Extra charges in calculateTotalCharges, also EXPLAINed by QueryPlanVerifier
+    static final String ADDITIONAL_CHARGES_SQL = "SELECT SUM(total_price) as additional_charge " +
+            "FROM charge_item " +
+            "WHERE reservation_id = ?";
+
     // Calculate total charges for a reservation
     public double calculateTotalCharges(Long reservationId) throws SQLException {
         Connection conn = null;
@@ -46,10 +53,7 @@ public class CheckOutDAO {
             pstmt.close();
 
             // Get additional charges
-            String additionalChargeSql = "SELECT SUM(total_price) as additional_charge " +
-                    "FROM charge_item " +
-                    "WHERE reservation_id = ?";
-            pstmt = conn.prepareStatement(additionalChargeSql);
+            pstmt = conn.prepareStatement(ADDITIONAL_CHARGES_SQL);
             pstmt.setLong(1, reservationId);
             rs = pstmt.executeQuery();
 
@@ -87,19 +91,27 @@ public class CheckOutDAO {
 
     // TRANSACTION 3: Guest Check-Out and Billing Settlement
     public boolean processCheckOut(Long reservationId, double amountPaid, String paymentMethod, String transactionRef) throws SQLException {
+        return TransactionRetry.run("processCheckOut",
+                () -> processCheckOutOnce(reservationId, amountPaid, paymentMethod, transactionRef));
+    }
+
+    private boolean processCheckOutOnce(Long reservationId, double amountPaid, String paymentMethod, String transactionRef) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
 
+        // calculateTotalCharges below reuses this connection (and sees this transaction)
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            // STEP 1: Retrieve and validate reservation
-            String resSql = "SELECT r.*, rm.room_id " +
+            // STEP 1: Retrieve and validate reservation, locking it and its room (a concurrent check-out
+            // of the same stay waits, then fails validation instead of settling and counting it twice)
+            String resSql = "SELECT r.*, rm.room_id, rm.status as room_status " +
                     "FROM reservation r " +
                     "JOIN room rm ON r.room_id = rm.room_id " +
-                    "WHERE r.reservation_id = ?";
+                    "WHERE r.reservation_id = ? FOR UPDATE";
             pstmt = conn.prepareStatement(resSql);
             pstmt.setLong(1, reservationId);
             rs = pstmt.executeQuery();
@@ -114,6 +126,7 @@ public class CheckOutDAO {
             }
 
             Long roomId = rs.getLong("room_id");
+            String roomStatus = rs.getString("room_status");
             rs.close();
             pstmt.close();
 
@@ -157,6 +170,10 @@ public class CheckOutDAO {
             pstmt.executeUpdate();
             pstmt.close();
 
+            // STEP 7: Update dashboard counters
+            DashboardCounters.moveRoom(conn, roomStatus, "available");
+            DashboardCounters.adjust(conn, DashboardCounters.CHECKED_IN_RESERVATIONS, -1);
+
             conn.commit();
             return true;
 
@@ -176,6 +193,7 @@ public class CheckOutDAO {
                 conn.setAutoCommit(true);
                 DatabaseConnection.closeConnection(conn);
             }
+            unit.close();
         }
     }
 
@@ -0,0 +1,58 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that recomputes dashboard_counter from the base tables and reports drift.
+ * The GUI schedules it at startup; it can also be run once from the command line:
+ * java dao.DashboardCounterReconciler
+ */
+public class DashboardCounterReconciler {
+    private final DashboardDAO dashboardDAO = new DashboardDAO();
+    private ScheduledExecutorService scheduler;
+
+    public static void main(String[] args) throws SQLException {
+        List<String> drift = new DashboardDAO().reconcileCounters();
+        if (drift.isEmpty()) {
+            System.out.println("Dashboard counters are in sync.");
+        } else {
+            System.out.println("Dashboard counters corrected:");
+            drift.forEach(line -> System.out.println("  " + line));
+        }
+    }
+
+    // Run now, then every periodMinutes, on a daemon thread
+    public synchronized void start(long periodMinutes) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dashboard-counter-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runOnce() {
+        try {
+            List<String> drift = dashboardDAO.reconcileCounters();
+            for (String line : drift) {
+                System.err.println("Dashboard counter drift corrected - " + line);
+            }
+        } catch (SQLException e) {
+            System.err.println("Dashboard counter reconciliation failed: " + e.getMessage());
+        }
+    }
+}
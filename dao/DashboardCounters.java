@@ -0,0 +1,60 @@
+package dao;
+
+import java.sql.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Incremental maintenance of the dashboard_counter summary table.
+// Callers adjust counters on the same connection (and transaction) as the write they describe,
+// right before commit so the counter rows stay locked as briefly as possible.
+// Each counter is split over SLOTS rows so concurrent transactions rarely wait on the same row;
+// readers SUM the slots.
+final class DashboardCounters {
+    static final String TOTAL_GUESTS = "total_guests";
+    static final String RESERVED_ROOMS = "reserved_rooms";
+    static final String AVAILABLE_ROOMS = "available_rooms";
+    static final String OCCUPIED_ROOMS = "occupied_rooms";
+    static final String ACTIVE_RENTALS = "active_rentals";
+    static final String INVENTORY_ITEMS = "inventory_items";
+    static final String CHECKED_IN_RESERVATIONS = "checked_in_reservations";
+
+    static final int SLOTS = 8;
+
+    private DashboardCounters() {}
+
+    static void adjust(Connection conn, String counter, long delta) throws SQLException {
+        if (counter == null || delta == 0) {
+            return;
+        }
+        String sql = "INSERT INTO dashboard_counter (counter_name, slot, counter_value) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE counter_value = counter_value + ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, counter);
+            pstmt.setInt(2, ThreadLocalRandom.current().nextInt(SLOTS));
+            pstmt.setLong(3, delta);
+            pstmt.setLong(4, delta);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Move one room from one status bucket to another (e.g. 'available' -> 'reserved')
+    static void moveRoom(Connection conn, String fromStatus, String toStatus) throws SQLException {
+        if (fromStatus != null && fromStatus.equals(toStatus)) {
+            return;
+        }
+        adjust(conn, counterForRoomStatus(fromStatus), -1);
+        adjust(conn, counterForRoomStatus(toStatus), 1);
+    }
+
+    // Rooms in 'maintenance' (or with no status) are not shown on the dashboard
+    static String counterForRoomStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        switch (status) {
+            case "available": return AVAILABLE_ROOMS;
+            case "reserved": return RESERVED_ROOMS;
+            case "occupied": return OCCUPIED_ROOMS;
+            default: return null;
+        }
+    }
+}
@@ -1,11 +1,155 @@
 package dao;
 
 import database.DatabaseConnection;
+import models.DashboardSnapshot;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class DashboardDAO {
 
+    // Today by the server's clock, as [midnight, next midnight), so payment(status, payment_time) is
+    // range-scanned instead of DATE() being evaluated on every payment row
+    private static final String PAID_TODAY = "status = 'paid' " +
+            "AND payment_time >= CURDATE() AND payment_time < CURDATE() + INTERVAL 1 DAY";
+
+    // Single-metric queries, also run through EXPLAIN by QueryPlanVerifier
+    static final String AVAILABLE_ROOMS_SQL = "SELECT COUNT(*) FROM room WHERE status = 'available'";
+    static final String REVENUE_TODAY_SQL = "SELECT COALESCE(SUM(amount), 0) FROM payment WHERE " + PAID_TODAY;
+    static final String AMENITIES_RENTED_SQL = "SELECT COUNT(*) FROM amenity_rental WHERE status = 'active'";
+
+    // All eight dashboard metrics in one statement on one connection.
+    // Counts come from the incrementally maintained dashboard_counter table, so the cost
+    // does not grow with the size of guest/room/reservation/amenity_rental.
+    public DashboardSnapshot getDashboardSnapshot() throws SQLException {
+        String sql = "SELECT " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'total_guests' THEN counter_value END), 0) AS total_guests, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'reserved_rooms' THEN counter_value END), 0) AS reserved_rooms, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'available_rooms' THEN counter_value END), 0) AS available_rooms, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'occupied_rooms' THEN counter_value END), 0) AS occupied_rooms, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'active_rentals' THEN counter_value END), 0) AS amenities_rented, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'inventory_items' THEN counter_value END), 0) AS inventory_items, " +
+                "COALESCE(SUM(CASE WHEN counter_name = 'checked_in_reservations' THEN counter_value END), 0) AS pending_checkouts, " +
+                "(SELECT COALESCE(SUM(amount), 0) FROM payment WHERE " + PAID_TODAY + ") AS revenue_today, " +
+                "NOW() AS taken_at " +
+                "FROM dashboard_counter";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new DashboardSnapshot(
+                        rs.getInt("total_guests"),
+                        rs.getInt("reserved_rooms"),
+                        rs.getInt("available_rooms"),
+                        rs.getDouble("revenue_today"),
+                        rs.getInt("occupied_rooms"),
+                        rs.getInt("amenities_rented"),
+                        rs.getInt("inventory_items"),
+                        rs.getInt("pending_checkouts"),
+                        rs.getTimestamp("taken_at").toLocalDateTime());
+            }
+        }
+    }
+
+    // RECONCILIATION: Recompute every counter from the base tables and fix any drift.
+    // Returns one line per counter that had drifted (empty if everything matched).
+    public List<String> reconcileCounters() throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<String> drift = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // STEP 1: Lock the counter rows so no writer can commit a delta while we recount
+            Map<String, Long> stored = new HashMap<>();
+            String storedSql = "SELECT counter_name, counter_value FROM dashboard_counter FOR UPDATE";
+            pstmt = conn.prepareStatement(storedSql);
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                stored.merge(rs.getString("counter_name"), rs.getLong("counter_value"), Long::sum);
+            }
+            rs.close();
+            pstmt.close();
+
+            // STEP 2: Recompute from the base tables
+            Map<String, Long> actual = new LinkedHashMap<>();
+            String actualSql = "SELECT " +
+                    "(SELECT COUNT(*) FROM guest) AS total_guests, " +
+                    "rm.reserved_rooms, rm.available_rooms, rm.occupied_rooms, " +
+                    "(SELECT COUNT(*) FROM amenity_rental WHERE status = 'active') AS active_rentals, " +
+                    "(SELECT COUNT(*) FROM inventory_item) AS inventory_items, " +
+                    "(SELECT COUNT(*) FROM reservation WHERE status = 'checked-in') AS checked_in_reservations " +
+                    "FROM (SELECT " +
+                    "  COALESCE(SUM(status = 'reserved'), 0) AS reserved_rooms, " +
+                    "  COALESCE(SUM(status = 'available'), 0) AS available_rooms, " +
+                    "  COALESCE(SUM(status = 'occupied'), 0) AS occupied_rooms " +
+                    "  FROM room) rm";
+            pstmt = conn.prepareStatement(actualSql);
+            rs = pstmt.executeQuery();
+            rs.next();
+            for (String counter : new String[]{
+                    DashboardCounters.TOTAL_GUESTS, DashboardCounters.RESERVED_ROOMS,
+                    DashboardCounters.AVAILABLE_ROOMS, DashboardCounters.OCCUPIED_ROOMS,
+                    DashboardCounters.ACTIVE_RENTALS, DashboardCounters.INVENTORY_ITEMS,
+                    DashboardCounters.CHECKED_IN_RESERVATIONS}) {
+                actual.put(counter, rs.getLong(counter));
+            }
+            rs.close();
+            pstmt.close();
+
+            // STEP 3: Rewrite drifted counters as a single slot holding the true value
+            for (Map.Entry<String, Long> entry : actual.entrySet()) {
+                String counter = entry.getKey();
+                long expected = entry.getValue();
+                long current = stored.getOrDefault(counter, 0L);
+                if (current == expected && stored.containsKey(counter)) {
+                    continue;
+                }
+                drift.add(String.format("%s: counter=%d, actual=%d (drift %+d)",
+                        counter, current, expected, current - expected));
+
+                pstmt = conn.prepareStatement("DELETE FROM dashboard_counter WHERE counter_name = ?");
+                pstmt.setString(1, counter);
+                pstmt.executeUpdate();
+                pstmt.close();
+
+                pstmt = conn.prepareStatement(
+                        "INSERT INTO dashboard_counter (counter_name, slot, counter_value) VALUES (?, 0, ?)");
+                pstmt.setString(1, counter);
+                pstmt.setLong(2, expected);
+                pstmt.executeUpdate();
+                pstmt.close();
+            }
+
+            conn.commit();
+            return drift;
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+
     // 1. Total Guests
     public int getTotalGuests() throws SQLException {
         String sql = "SELECT COUNT(*) FROM guest";
@@ -30,9 +174,8 @@ public class DashboardDAO {
 
     // 3. Available Rooms
     public int getAvailableRooms() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM room WHERE status = 'available'";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(AVAILABLE_ROOMS_SQL);
              ResultSet rs = ps.executeQuery()) {
             rs.next();
             return rs.getInt(1);
@@ -41,13 +184,12 @@ public class DashboardDAO {
 
     // 4. Revenue Today
     public double getRevenueToday() throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM payment " +
-                "WHERE DATE(payment_time) = CURDATE() AND status = 'paid'";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            rs.next();
-            return rs.getDouble(1);
+             PreparedStatement ps = conn.prepareStatement(REVENUE_TODAY_SQL)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getDouble(1);
+            }
         }
     }
 
@@ -64,9 +206,8 @@ public class DashboardDAO {
 
     // 6. Amenities Rented
     public int getAmenitiesRented() throws SQLException {
-        String sql = "SELECT COUNT(*) FROM amenity_rental WHERE status = 'active'";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
+             PreparedStatement ps = conn.prepareStatement(AMENITIES_RENTED_SQL);
              ResultSet rs = ps.executeQuery()) {
             rs.next();
             return rs.getInt(1);
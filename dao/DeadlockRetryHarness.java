@@ -0,0 +1,306 @@
+package dao;
+
+import database.DatabaseConnection;
+import database.TransactionRetry;
+import database.UnitOfWork;
+import models.Reservation;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Forces deadlocks between a check-out and a restock and checks that TransactionRetry gets both
+ * through. Each pair runs two transactions (one UnitOfWork each) that take the same two rows in
+ * opposite order, meeting at a barrier in between:
+ *   check-out side: processCheckOut of a stay (locks its room), then processRestock of the hot item
+ *   restock side:   processRestock of the hot item, then createReservation of the same room (50 years
+ *                   out, so it doesn't overlap), whose SELECT ... FOR UPDATE waits for the room
+ * so every pair deadlocks and InnoDB rolls one of them back. Only the first attempt waits at the
+ * barrier; a retry runs straight through.
+ * The round with retry off must record deadlocks; the round with retry on must record retries,
+ * no aborts and no failures. In both rounds the item's quantity must go up by
+ * exactly the number of committed restocks. Test rows are removed afterwards.
+ * Run against a seeded database (java dao.SyntheticDataSeeder 500).
+ * Usage: java dao.DeadlockRetryHarness [pairs]
+ */
+public class DeadlockRetryHarness {
+
+    private static final String SUPPLIER = "Deadlock harness";
+    private static final long BARRIER_TIMEOUT_SECONDS = 30;
+
+    private final ReservationDAO reservationDAO = new ReservationDAO();
+    private final CheckOutDAO checkOutDAO = new CheckOutDAO();
+    private final RestockDAO restockDAO = new RestockDAO();
+    private final List<Long> reservationIds = new ArrayList<>();
+    private final List<Long> roomIds = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        Long guestId = firstId("SELECT MIN(guest_id) FROM guest");
+        Long itemId = firstId("SELECT MIN(item_id) FROM inventory_item");
+        if (guestId == null || itemId == null) {
+            System.err.println("No guests or inventory items found - seed the database before running the harness.");
+            return;
+        }
+
+        System.out.println("===========================================");
+        System.out.println("Deadlock Retry Harness");
+        System.out.println(pairs + " check-out/restock pairs per round, hot item " + itemId);
+        System.out.println("===========================================\n");
+
+        DeadlockRetryHarness harness = new DeadlockRetryHarness();
+        int quantity = harness.readQuantity(itemId);
+        Date lastRestocked = harness.readLastRestocked(itemId);
+        boolean pass = true;
+        try {
+            LocalDate stayStart = LocalDate.now().plusYears(50);
+            pass &= harness.runRound(false, pairs, guestId, itemId, stayStart);
+            pass &= harness.runRound(true, pairs, guestId, itemId, stayStart.plusDays(10));
+        } finally {
+            harness.cleanUp(itemId, quantity, lastRestocked);
+            TransactionRetry.setEnabled(true);
+        }
+        System.out.println(pass ? "PASS" : "FAIL");
+    }
+
+    // One round; returns false if it didn't deadlock as expected or the item quantity doesn't add up
+    private boolean runRound(boolean retry, int pairs, Long guestId, Long itemId, LocalDate stayStart) throws Exception {
+        // STEP 1: Book and check in one stay per free room
+        List<Long[]> stays = new ArrayList<>();
+        for (Long roomId : freeRooms(pairs)) {
+            Long reservationId = reservationDAO.createReservation(
+                    new Reservation(guestId, roomId, stayStart, stayStart.plusDays(2), "walk-in"), null);
+            reservationDAO.checkInGuest(reservationId);
+            reservationIds.add(reservationId);
+            roomIds.add(roomId);
+            stays.add(new Long[]{reservationId, roomId});
+        }
+        if (stays.size() < pairs) {
+            System.out.println("Only " + stays.size() + " free rooms; running " + stays.size() + " pairs.");
+        }
+
+        // STEP 2: Run the pairs one after another, both sides of a pair at once
+        TransactionRetry.setEnabled(retry);
+        TransactionRetry.reset();
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int quantityBefore = readQuantity(itemId);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        long start = System.nanoTime();
+        try {
+            for (Long[] stay : stays) {
+                Long reservationId = stay[0];
+                Long roomId = stay[1];
+                double total = checkOutDAO.calculateTotalCharges(reservationId);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                LocalDate bookingStart = stayStart.plusDays(5);
+
+                Future<Long> checkOutSide = pool.submit(() -> inOrder("checkOutThenRestock", barrier, () -> {
+                    checkOutDAO.processCheckOut(reservationId, total, "cash", "DLH-" + reservationId);
+                }, () -> restock(itemId)));
+                Future<Long> restockSide = pool.submit(() -> inOrder("restockThenBook", barrier, () -> {
+                    restock(itemId);
+                }, () -> reservationDAO.createReservation(
+                        new Reservation(guestId, roomId, bookingStart, bookingStart.plusDays(1), "walk-in"), null)));
+
+                for (Future<Long> side : List.of(checkOutSide, restockSide)) {
+                    try {
+                        side.get();
+                        committed.incrementAndGet();
+                    } catch (ExecutionException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int quantityAfter = readQuantity(itemId);
+
+        // STEP 3: Report. Every committed transaction restocked one unit
+        long deadlocks = TransactionRetry.getDeadlockCount();
+        long retries = TransactionRetry.getRetryCount();
+        long aborts = TransactionRetry.getAbortCount();
+        boolean consistent = quantityAfter - quantityBefore == committed.get();
+        boolean expected = retry ? retries > 0 && aborts == 0 && failed.get() == 0 : deadlocks > 0;
+        System.out.printf("Retry %s: %.2f s%n", retry ? "ON" : "OFF", seconds);
+        System.out.printf("  Transactions %4d committed  %4d failed%n", committed.get(), failed.get());
+        System.out.printf("  Deadlocks    %4d  retries %d  aborts %d (%s)%n", deadlocks, retries, aborts,
+                expected ? "as expected" : retry ? "EXPECTED RETRIES AND NO ABORTS" : "EXPECTED DEADLOCKS");
+        System.out.printf("  Quantity     %d -> %d (%s)%n", quantityBefore, quantityAfter,
+                consistent ? "matches committed restocks" : "LOST OR EXTRA UPDATES");
+        System.out.print(TransactionRetry.getStatsSummary().replaceAll("(?m)^", "  "));
+        System.out.println();
+        return expected && consistent;
+    }
+
+    private interface Step {
+        void run() throws SQLException;
+    }
+
+    private interface LastStep {
+        Long run() throws SQLException;
+    }
+
+    // first, barrier, second as one transaction, retried as a whole; returns the second step's result
+    private Long inOrder(String operation, CyclicBarrier barrier, Step first, LastStep second) throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        return TransactionRetry.run(operation, () -> {
+            UnitOfWork unit = UnitOfWork.beginTransaction(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                first.run();
+                if (attempts.incrementAndGet() == 1) {
+                    awaitPartner(barrier);
+                }
+                Long result = second.run();
+                unit.commit();
+                return result;
+            } finally {
+                unit.close();
+            }
+        });
+    }
+
+    private static void awaitPartner(CyclicBarrier barrier) throws SQLException {
+        try {
+            barrier.await(BARRIER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted at the barrier", e);
+        } catch (BrokenBarrierException | TimeoutException e) {
+            throw new SQLException("The other side of the pair never reached the barrier", e);
+        }
+    }
+
+    private Long restock(Long itemId) throws SQLException {
+        return restockDAO.processRestock(itemId, SUPPLIER, 1, null, Date.valueOf(LocalDate.now())).getRestockId();
+    }
+
+    private List<Long> freeRooms(int count) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            List<Long> rooms = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT room_id FROM room WHERE status = 'available' ORDER BY room_id LIMIT ?")) {
+                ps.setInt(1, count);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rooms.add(rs.getLong(1));
+                    }
+                }
+            }
+            return rooms;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private int readQuantity(Long itemId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT quantity_on_hand FROM inventory_item WHERE item_id = ?")) {
+                ps.setLong(1, itemId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private Date readLastRestocked(Long itemId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT last_restocked FROM inventory_item WHERE item_id = ?")) {
+                ps.setLong(1, itemId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getDate(1);
+                }
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Delete the test stays, bookings and restocks, put the rooms and the item back, resync the dashboard
+    private void cleanUp(Long itemId, int quantity, Date lastRestocked) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            // The restock side's bookings of each room, 50 years out
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "DELETE FROM reservation WHERE room_id = ? AND check_in >= ?")) {
+                for (Long roomId : roomIds) {
+                    ps.setLong(1, roomId);
+                    ps.setDate(2, Date.valueOf(LocalDate.now().plusYears(50)));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            executeForIds(conn, "DELETE FROM reservation WHERE reservation_id = ?", reservationIds);
+            int restocks;
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM restock WHERE supplier = ?")) {
+                ps.setString(1, SUPPLIER);
+                restocks = ps.executeUpdate();
+            }
+            executeForIds(conn, "UPDATE room SET status = 'available' WHERE room_id = ?", roomIds);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE inventory_item SET quantity_on_hand = ?, last_restocked = ? WHERE item_id = ?")) {
+                ps.setInt(1, quantity);
+                ps.setDate(2, lastRestocked);
+                ps.setLong(3, itemId);
+                ps.executeUpdate();
+            }
+            System.out.println("Removed " + reservationIds.size() + " test stays, their bookings and "
+                    + restocks + " test restocks.");
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        new DashboardDAO().reconcileCounters();
+    }
+
+    private static void executeForIds(Connection conn, String sql, List<Long> ids) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Long id : ids) {
+                ps.setLong(1, id);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static Long firstId(String sql) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long id = rs.getLong(1);
+                return rs.wasNull() ? null : id;
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+}
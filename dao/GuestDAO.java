@@ -1,6 +1,8 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.UnitOfWork;
 import models.Guest;
 
 import java.sql.*;
@@ -19,6 +21,7 @@ public class GuestDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION STEP 1: Check if email already exists
             String checkSql = "SELECT guest_id FROM guest WHERE email = ?";
@@ -48,15 +51,32 @@ public class GuestDAO {
             }
 
             rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getLong(1);
-            } else {
+            if (!rs.next()) {
                 throw new SQLException("Creating guest failed, no ID obtained.");
             }
+            Long guestId = rs.getLong(1);
+
+            // STEP 3: Update dashboard counters
+            DashboardCounters.adjust(conn, DashboardCounters.TOTAL_GUESTS, 1);
+
+            conn.commit();
+            return guestId;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -119,14 +139,49 @@ public class GuestDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Guest guest = new Guest();
-                guest.setGuestId(rs.getLong("guest_id"));
-                guest.setFirstName(rs.getString("first_name"));
-                guest.setLastName(rs.getString("last_name"));
-                guest.setPhone(rs.getString("phone"));
-                guest.setEmail(rs.getString("email"));
-                guest.setPassportNo(rs.getString("passport_no"));
-                guests.add(guest);
+                guests.add(mapGuest(rs));
+            }
+            return guests;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - One keyset page: up to limit guests with guest_id > afterGuestId, in guest_id order.
+    // Pass 0 to start from the beginning and the last guest_id of a page to get the next one.
+    public List<Guest> getAllGuests(String searchTerm, long afterGuestId, int limit) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Guest> guests = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM guest WHERE guest_id > ?";
+
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                sql += " AND (first_name LIKE ? OR last_name LIKE ? OR email LIKE ?)";
+            }
+            sql += " ORDER BY guest_id LIMIT ?";
+
+            pstmt = conn.prepareStatement(sql);
+
+            int index = 1;
+            pstmt.setLong(index++, afterGuestId);
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                String pattern = "%" + searchTerm + "%";
+                pstmt.setString(index++, pattern);
+                pstmt.setString(index++, pattern);
+                pstmt.setString(index++, pattern);
+            }
+            pstmt.setInt(index, limit);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                guests.add(mapGuest(rs));
             }
             return guests;
         } finally {
@@ -136,6 +191,89 @@ public class GuestDAO {
         }
     }
 
+    // READ - Every guest matching searchTerm, handed to handler one row at a time as MySQL streams them.
+    // Memory stays flat however many guests there are. Returns the number of rows handled.
+    public long streamAllGuests(String searchTerm, RowHandler<Guest> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM guest WHERE 1=1";
+
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                sql += " AND (first_name LIKE ? OR last_name LIKE ? OR email LIKE ?)";
+            }
+            sql += " ORDER BY guest_id";
+
+            pstmt = StreamingQuery.prepare(conn, sql);
+
+            if (searchTerm != null && !searchTerm.isEmpty()) {
+                String pattern = "%" + searchTerm + "%";
+                pstmt.setString(1, pattern);
+                pstmt.setString(2, pattern);
+                pstmt.setString(3, pattern);
+            }
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapGuest(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - guest_id of the row at the given position in guest_id order (null past the end).
+    // Walks only the primary key, so jumping deep into the list doesn't fetch the skipped rows.
+    public Long getGuestIdAtOffset(long offset) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT guest_id FROM guest ORDER BY guest_id LIMIT 1 OFFSET ?";
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setLong(1, offset);
+            rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong("guest_id") : null;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - Approximate number of guests, for sizing paged tables
+    public long estimateGuestCount() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            return TableStats.estimateRowCount(conn, "guest");
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Guest mapGuest(ResultSet rs) throws SQLException {
+        Guest guest = new Guest();
+        guest.setGuestId(rs.getLong("guest_id"));
+        guest.setFirstName(rs.getString("first_name"));
+        guest.setLastName(rs.getString("last_name"));
+        guest.setPhone(rs.getString("phone"));
+        guest.setEmail(rs.getString("email"));
+        guest.setPassportNo(rs.getString("passport_no"));
+        return guest;
+    }
+
     // UPDATE - Update guest information with validation
     public boolean updateGuest(Guest guest) throws SQLException {
         Connection conn = null;
@@ -185,6 +323,7 @@ public class GuestDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION: Check if guest has active reservations
             String checkSql = "SELECT COUNT(*) FROM reservation WHERE guest_id = ? AND status IN ('confirmed', 'checked-in')";
@@ -198,16 +337,53 @@ public class GuestDAO {
             rs.close();
             pstmt.close();
 
+            // Active rentals are removed by the cascade, so they leave the dashboard count too
+            String rentalSql = "SELECT COUNT(*) FROM amenity_rental WHERE guest_id = ? AND status = 'active'";
+            pstmt = conn.prepareStatement(rentalSql);
+            pstmt.setLong(1, guestId);
+            rs = pstmt.executeQuery();
+            int activeRentals = rs.next() ? rs.getInt(1) : 0;
+            rs.close();
+            pstmt.close();
+
+            // Past stays and rentals are removed by the cascade, so their months' report rollups go stale
+            ReportFacts.markGuestDirty(conn, guestId);
+
             // DELETE if validation passes
             String deleteSql = "DELETE FROM guest WHERE guest_id = ?";
             pstmt = conn.prepareStatement(deleteSql);
             pstmt.setLong(1, guestId);
+            boolean deleted = pstmt.executeUpdate() > 0;
+            pstmt.close();
 
-            return pstmt.executeUpdate() > 0;
+            // Update dashboard counters
+            if (deleted) {
+                DashboardCounters.adjust(conn, DashboardCounters.TOTAL_GUESTS, -1);
+                DashboardCounters.adjust(conn, DashboardCounters.ACTIVE_RENTALS, -activeRentals);
+            }
+
+            conn.commit();
+            if (deleted) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(
+                        ReportType.OCCUPANCY, ReportType.REVENUE, ReportType.AMENITIES));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -218,6 +394,8 @@ public class GuestDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getGuestById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -258,6 +436,7 @@ public class GuestDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 
@@ -268,6 +447,8 @@ public class GuestDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getGuestById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -312,6 +493,7 @@ public class GuestDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 }
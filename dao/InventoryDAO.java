@@ -1,6 +1,8 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.UnitOfWork;
 import models.InventoryItem;
 
 import java.sql.*;
@@ -19,6 +21,7 @@ public class InventoryDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION: Check if item name exists
             String checkSql = "SELECT item_id FROM inventory_item WHERE name = ?";
@@ -42,14 +45,34 @@ public class InventoryDAO {
             pstmt.executeUpdate();
             rs = pstmt.getGeneratedKeys();
 
-            if (rs.next()) {
-                return rs.getLong(1);
+            if (!rs.next()) {
+                throw new SQLException("Failed to get item ID");
+            }
+            Long itemId = rs.getLong(1);
+
+            // Update dashboard counters
+            DashboardCounters.adjust(conn, DashboardCounters.INVENTORY_ITEMS, 1);
+
+            conn.commit();
+            // The inventory report lists every item
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.INVENTORY));
+            return itemId;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
             }
-            throw new SQLException("Failed to get item ID");
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -100,16 +123,33 @@ public class InventoryDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                InventoryItem item = new InventoryItem();
-                item.setItemId(rs.getLong("item_id"));
-                item.setName(rs.getString("name"));
-                item.setQuantityOnHand(rs.getInt("quantity_on_hand"));
-                item.setSupplier(rs.getString("supplier"));
-                Date lastRestocked = rs.getDate("last_restocked");
-                if (lastRestocked != null) {
-                    item.setLastRestocked(lastRestocked.toLocalDate());
-                }
-                items.add(item);
+                items.add(mapInventoryItem(rs));
+            }
+            return items;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - One keyset page: up to limit items with item_id > afterItemId, in item_id order
+    public List<InventoryItem> getAllInventoryItems(long afterItemId, int limit) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<InventoryItem> items = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM inventory_item WHERE item_id > ? ORDER BY item_id LIMIT ?";
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setLong(1, afterItemId);
+            pstmt.setInt(2, limit);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                items.add(mapInventoryItem(rs));
             }
             return items;
         } finally {
@@ -119,6 +159,45 @@ public class InventoryDAO {
         }
     }
 
+    // READ - Every inventory item, handed to handler one row at a time as MySQL streams them.
+    // Returns the number of rows handled.
+    public long streamAllInventoryItems(RowHandler<InventoryItem> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM inventory_item ORDER BY item_id";
+            pstmt = StreamingQuery.prepare(conn, sql);
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapInventoryItem(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static InventoryItem mapInventoryItem(ResultSet rs) throws SQLException {
+        InventoryItem item = new InventoryItem();
+        item.setItemId(rs.getLong("item_id"));
+        item.setName(rs.getString("name"));
+        item.setQuantityOnHand(rs.getInt("quantity_on_hand"));
+        item.setSupplier(rs.getString("supplier"));
+        Date lastRestocked = rs.getDate("last_restocked");
+        if (lastRestocked != null) {
+            item.setLastRestocked(lastRestocked.toLocalDate());
+        }
+        return item;
+    }
+
     // UPDATE
     public boolean updateInventoryItem(InventoryItem item) throws SQLException {
         Connection conn = null;
@@ -149,7 +228,11 @@ public class InventoryDAO {
             pstmt.setString(3, item.getSupplier());
             pstmt.setLong(4, item.getItemId());
 
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.INVENTORY));
+            }
+            return updated;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -164,16 +247,40 @@ public class InventoryDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // Can delete inventory items freely (restocking history is cascade deleted)
             String deleteSql = "DELETE FROM inventory_item WHERE item_id = ?";
             pstmt = conn.prepareStatement(deleteSql);
             pstmt.setLong(1, itemId);
+            boolean deleted = pstmt.executeUpdate() > 0;
+            pstmt.close();
+
+            // Update dashboard counters
+            if (deleted) {
+                DashboardCounters.adjust(conn, DashboardCounters.INVENTORY_ITEMS, -1);
+            }
 
-            return pstmt.executeUpdate() > 0;
+            conn.commit();
+            if (deleted) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.INVENTORY));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -184,6 +291,8 @@ public class InventoryDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getInventoryItemById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -218,6 +327,7 @@ public class InventoryDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 }
@@ -0,0 +1,215 @@
+package dao;
+
+import dao.ReportCache.ReportType;
+import database.QueryCancellation;
+import models.MonthEndReportPack;
+import models.MonthEndReportPack.Section;
+import models.MonthEndReportPack.Status;
+import models.ReportResult;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs the four monthly reports for one month at the same time, each on its own thread (and so its
+ * own pooled connection), so the whole pack takes about as long as the slowest report.
+ * A batch has an overall deadline; any report still running then is marked timed out, and each
+ * report can also be cancelled on its own. Either way its running query is cancelled on the server
+ * (see QueryCancellation), so the connection goes back to the pool straight away.
+ */
+public class MonthEndReportRunner {
+    private static final ReportType[] REPORTS = ReportType.values();
+
+    private final ReportsDAO reportsDAO;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService deadlines;
+
+    public MonthEndReportRunner(ReportsDAO reportsDAO) {
+        this.reportsDAO = reportsDAO;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(REPORTS.length, r -> {
+            Thread t = new Thread(r, "month-end-report-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "month-end-report-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static String titleOf(ReportType type) {
+        switch (type) {
+            case OCCUPANCY: return "Room Occupancy Report";
+            case REVENUE: return "Revenue Report";
+            case INVENTORY: return "Inventory Report";
+            default: return "Amenities Report";
+        }
+    }
+
+    public static String[] columnsOf(ReportType type) {
+        switch (type) {
+            case OCCUPANCY: return new String[]{"Room Code", "Room Type", "Days Reserved"};
+            case REVENUE: return new String[]{"Room Code", "Room Type", "Rate/Night", "Total Revenue"};
+            case INVENTORY: return new String[]{"Item Name", "Supplier", "Total Restocked", "Current Quantity"};
+            default: return new String[]{"Amenity Name", "Rate", "Times Rented", "Total Quantity", "Total Revenue"};
+        }
+    }
+
+    // Run the whole pack and wait for it (at most timeoutMillis)
+    public MonthEndReportPack run(int year, int month, long timeoutMillis) throws InterruptedException {
+        return start(year, month, timeoutMillis, null).await();
+    }
+
+    // Start all four reports; listener (may be null) is called on a worker thread as each one finishes
+    public Batch start(int year, int month, long timeoutMillis, Consumer<Section> listener) {
+        Batch batch = new Batch(year, month, listener);
+        synchronized (batch) {
+            for (ReportType type : REPORTS) {
+                batch.futures.put(type, workers.submit(() -> batch.runReport(type)));
+            }
+        }
+        batch.deadline = deadlines.schedule(batch::timeOut, timeoutMillis, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+        deadlines.shutdownNow();
+    }
+
+    private ReportResult<?> fetch(ReportType type, int year, int month) throws SQLException {
+        switch (type) {
+            case OCCUPANCY: return reportsDAO.getRoomOccupancyReport(year, month);
+            case REVENUE: return reportsDAO.getRevenueReport(year, month);
+            case INVENTORY: return reportsDAO.getInventoryReport(year, month);
+            default: return reportsDAO.getAmenitiesReport(year, month);
+        }
+    }
+
+    // One month-end run; finished sections are final, so a late result never replaces a cancellation
+    public final class Batch {
+        private final int year;
+        private final int month;
+        private final Consumer<Section> listener;
+        private final long startNanos = System.nanoTime();
+        private final Map<ReportType, Future<?>> futures = new EnumMap<>(ReportType.class);
+        private final Map<ReportType, QueryCancellation> cancellations = new EnumMap<>(ReportType.class);
+        private final Map<ReportType, Section> sections = new EnumMap<>(ReportType.class);
+        private final CountDownLatch remaining = new CountDownLatch(REPORTS.length);
+        private volatile ScheduledFuture<?> deadline;
+        private long finishedNanos;
+
+        private Batch(int year, int month, Consumer<Section> listener) {
+            this.year = year;
+            this.month = month;
+            this.listener = listener;
+            for (ReportType type : REPORTS) {
+                cancellations.put(type, new QueryCancellation());
+            }
+        }
+
+        public void cancel(ReportType type) {
+            if (finish(type, Status.CANCELLED, null, "Cancelled")) {
+                stop(type);
+            }
+        }
+
+        public void cancelAll() {
+            for (ReportType type : REPORTS) {
+                cancel(type);
+            }
+        }
+
+        public boolean isDone() {
+            return remaining.getCount() == 0;
+        }
+
+        // Wait until every report has completed, failed, been cancelled or timed out
+        public MonthEndReportPack await() throws InterruptedException {
+            remaining.await();
+            List<Section> ordered = new ArrayList<>();
+            long wallClockMillis;
+            synchronized (this) {
+                for (ReportType type : REPORTS) {
+                    ordered.add(sections.get(type));
+                }
+                wallClockMillis = TimeUnit.NANOSECONDS.toMillis(finishedNanos - startNanos);
+            }
+            return new MonthEndReportPack(year, month, ordered, wallClockMillis, LocalDateTime.now());
+        }
+
+        private void runReport(ReportType type) {
+            QueryCancellation cancellation = cancellations.get(type);
+            try {
+                cancellation.bind();
+                try {
+                    finish(type, Status.COMPLETED, fetch(type, year, month), null);
+                } finally {
+                    cancellation.unbind();
+                }
+            } catch (SQLException e) {
+                finish(type, Status.FAILED, null, e.getMessage());
+            } catch (RuntimeException e) {
+                finish(type, Status.FAILED, null, e.toString());
+            }
+        }
+
+        private void timeOut() {
+            for (ReportType type : REPORTS) {
+                if (finish(type, Status.TIMED_OUT, null, "Did not finish before the deadline")) {
+                    stop(type);
+                }
+            }
+        }
+
+        // Kill the report's query so its connection is freed, and interrupt a report still queued
+        // or waiting on another thread's load of the same report
+        private void stop(ReportType type) {
+            cancellations.get(type).cancel();
+            Future<?> future;
+            synchronized (this) {
+                future = futures.get(type);
+            }
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        // Record the section unless the report already finished; true if this call finished it
+        private boolean finish(ReportType type, Status status, ReportResult<?> result, String message) {
+            Section section;
+            synchronized (this) {
+                if (sections.containsKey(type)) {
+                    return false;
+                }
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                section = new Section(titleOf(type), columnsOf(type), result, status, message, elapsedMillis);
+                sections.put(type, section);
+                finishedNanos = System.nanoTime();
+            }
+            remaining.countDown();
+            if (isDone() && deadline != null) {
+                deadline.cancel(false);
+            }
+            if (listener != null) {
+                listener.accept(section);
+            }
+            return true;
+        }
+    }
+}
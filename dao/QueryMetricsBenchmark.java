@@ -0,0 +1,88 @@
+package dao;
+
+import database.QueryMetrics;
+import database.SlowQueryLog;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Measures what QueryMetrics costs on a typical read mix (a point lookup, a short page and a
+ * list) and checks the overhead against the 2% budget. Rounds with metrics off and on are
+ * interleaved so drift in the database or the JIT doesn't favour either side; the median of the
+ * per-round averages is compared. The slow query log is switched with it, since "off" means
+ * statements aren't wrapped at all. Run against a seeded database (java dao.SyntheticDataSeeder 500).
+ * Usage: java dao.QueryMetricsBenchmark [rounds] [callsPerRound]
+ */
+public class QueryMetricsBenchmark {
+
+    private static final int WARMUP_CALLS = 2000;
+    private static final double MAX_OVERHEAD_PERCENT = 2.0;
+
+    public static void main(String[] args) throws SQLException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int calls = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        ReservationDAO reservationDAO = new ReservationDAO();
+        GuestDAO guestDAO = new GuestDAO();
+        RoomDAO roomDAO = new RoomDAO();
+        Long reservationId = reservationDAO.getReservationIdAtOffset(null, 0);
+        if (reservationId == null) {
+            System.err.println("No reservations found - seed the database before running the benchmark.");
+            return;
+        }
+        Runnable workload = () -> {
+            try {
+                reservationDAO.getReservationById(reservationId);
+                guestDAO.getAllGuests(null, 0, 50);
+                roomDAO.getRoomTypes();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        System.out.println("===========================================");
+        System.out.println("Query Metrics Overhead Benchmark");
+        System.out.println(rounds + " rounds of " + calls + " calls, metrics off and on alternately");
+        System.out.println("===========================================\n");
+
+        for (boolean on : new boolean[]{false, true}) {
+            QueryMetrics.setEnabled(on);
+            SlowQueryLog.setEnabled(on);
+            for (int i = 0; i < WARMUP_CALLS; i++) {
+                workload.run();
+            }
+        }
+
+        double[] off = new double[rounds];
+        double[] on = new double[rounds];
+        for (int round = 0; round < rounds; round++) {
+            off[round] = run(workload, calls, false);
+            on[round] = run(workload, calls, true);
+        }
+        Arrays.sort(off);
+        Arrays.sort(on);
+        double offMedian = off[rounds / 2];
+        double onMedian = on[rounds / 2];
+        double overhead = (onMedian - offMedian) / offMedian * 100;
+
+        System.out.printf("Metrics OFF  median=%8.1f us/call  best=%8.1f us/call%n", offMedian, off[0]);
+        System.out.printf("Metrics ON   median=%8.1f us/call  best=%8.1f us/call%n", onMedian, on[0]);
+        System.out.printf("%s: overhead %.2f%% (budget %.1f%%)%n%n", overhead <= MAX_OVERHEAD_PERCENT ? "PASS" : "FAIL",
+                overhead, MAX_OVERHEAD_PERCENT);
+        QueryMetrics.setEnabled(true);
+        SlowQueryLog.setEnabled(true);
+        System.out.print(QueryMetrics.dump());
+    }
+
+    // Average microseconds per workload call
+    private static double run(Runnable workload, int calls, boolean metricsEnabled) {
+        QueryMetrics.setEnabled(metricsEnabled);
+        SlowQueryLog.setEnabled(metricsEnabled);
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            workload.run();
+        }
+        return (System.nanoTime() - start) / 1000.0 / calls;
+    }
+}
@@ -0,0 +1,171 @@
+package dao;
+
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs EXPLAIN on the hot DAO queries and checks each one reads its table through the index
+ * meant for it (any index whose leading columns match is accepted).
+ * The SQL is the DAOs' own (package-private constants), so a change to a query is checked as is.
+ * On tiny tables MySQL may prefer a full scan whatever indexes exist, so run this against a
+ * realistically sized database (see SyntheticDataSeeder).
+ * Usage: java dao.QueryPlanVerifier   (exit code 1 if any check fails)
+ */
+public class QueryPlanVerifier {
+
+    private static final class Check {
+        final String daoMethod;
+        final String sql;
+        final Object[] params;
+        final String tableAlias;
+        final String table;
+        final String[] expectedColumns;
+
+        Check(String daoMethod, String table, String tableAlias, String[] expectedColumns, String sql, Object... params) {
+            this.daoMethod = daoMethod;
+            this.table = table;
+            this.tableAlias = tableAlias;
+            this.expectedColumns = expectedColumns;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    private static final Date SAMPLE_CHECK_IN = Date.valueOf("2025-12-01");
+    private static final Date SAMPLE_CHECK_OUT = Date.valueOf("2025-12-04");
+    private static final Timestamp SAMPLE_CHECK_IN_TIME = Timestamp.valueOf("2025-12-01 00:00:00");
+    private static final Timestamp SAMPLE_CHECK_OUT_TIME = Timestamp.valueOf("2025-12-04 00:00:00");
+    private static final Date SAMPLE_MONTH = Date.valueOf("2025-11-01");
+    private static final Date SAMPLE_NEXT_MONTH = Date.valueOf("2025-12-01");
+    private static final Timestamp SAMPLE_MONTH_START = Timestamp.valueOf("2025-11-01 00:00:00");
+    private static final Timestamp SAMPLE_NEXT_MONTH_START = Timestamp.valueOf("2025-12-01 00:00:00");
+
+    private static final Check[] CHECKS = {
+            new Check("ReservationDAO.createReservation (overlap)",
+                    "reservation", "reservation", cols("room_id", "status"),
+                    ReservationDAO.OVERLAP_CHECK_SQL, 1L, SAMPLE_CHECK_IN, SAMPLE_CHECK_OUT),
+            new Check("RoomDAO.isRoomAvailable (overlap)",
+                    "reservation", "reservation", cols("room_id", "status"),
+                    RoomDAO.AVAILABILITY_OVERLAP_SQL, 1L, SAMPLE_CHECK_IN, SAMPLE_CHECK_OUT),
+            new Check("RoomDAO.searchAvailableRooms (booking anti-join)",
+                    "reservation", "r", cols("room_id", "status"),
+                    RoomDAO.SEARCH_SQL + RoomDAO.SEARCH_NOT_BOOKED_SQL + RoomDAO.SEARCH_NOT_IN_MAINTENANCE_SQL
+                            + RoomDAO.SEARCH_ORDER_SQL,
+                    SAMPLE_CHECK_OUT, SAMPLE_CHECK_IN, SAMPLE_CHECK_OUT_TIME, SAMPLE_CHECK_IN_TIME, 50),
+            new Check("DashboardDAO.getAvailableRooms",
+                    "room", "room", cols("status"),
+                    DashboardDAO.AVAILABLE_ROOMS_SQL),
+            new Check("DashboardDAO.getAmenitiesRented",
+                    "amenity_rental", "amenity_rental", cols("status"),
+                    DashboardDAO.AMENITIES_RENTED_SQL),
+            new Check("AmenityRentalDAO.getActiveRentals",
+                    "amenity_rental", "ar", cols("guest_id", "status"),
+                    AmenityRentalDAO.ACTIVE_RENTALS_BY_GUEST_SQL, 1L),
+            new Check("DashboardDAO.getRevenueToday",
+                    "payment", "payment", cols("status", "payment_time"),
+                    DashboardDAO.REVENUE_TODAY_SQL),
+            new Check("ReportsDAO.getRoomOccupancyReport (reservation join)",
+                    "reservation", "r", cols("room_id", "status"),
+                    ReportsDAO.OCCUPANCY_LIVE_SQL, SAMPLE_NEXT_MONTH, SAMPLE_MONTH, SAMPLE_NEXT_MONTH, SAMPLE_MONTH),
+            new Check("ReportsDAO.getInventoryReport (restock join)",
+                    "restock", "r", cols("item_id", "restock_date"),
+                    ReportsDAO.INVENTORY_LIVE_SQL, SAMPLE_MONTH_START, SAMPLE_NEXT_MONTH_START),
+            new Check("ReportsDAO.getAmenitiesReport (rental join)",
+                    "amenity_rental", "ar", cols("amenity_id", "rent_start"),
+                    ReportsDAO.AMENITIES_LIVE_SQL, SAMPLE_MONTH_START, SAMPLE_NEXT_MONTH_START),
+            new Check("TrendReportDAO.getTrendReport (rollup months)",
+                    "fact_room_month", "f", cols("month_start"),
+                    TrendReportDAO.ROLLUP_AND_LIVE_MONTHS_SQL,
+                    SAMPLE_MONTH, SAMPLE_NEXT_MONTH, SAMPLE_MONTH, SAMPLE_NEXT_MONTH, SAMPLE_MONTH, SAMPLE_NEXT_MONTH),
+            new Check("TrendReportDAO.getTrendReport (live months)",
+                    "reservation", "r", cols("check_out"),
+                    TrendReportDAO.ROLLUP_AND_LIVE_MONTHS_SQL,
+                    SAMPLE_MONTH, SAMPLE_NEXT_MONTH, SAMPLE_MONTH, SAMPLE_NEXT_MONTH, SAMPLE_MONTH, SAMPLE_NEXT_MONTH),
+            new Check("CheckOutDAO.calculateTotalCharges (charge items)",
+                    "charge_item", "charge_item", cols("reservation_id"),
+                    CheckOutDAO.ADDITIONAL_CHARGES_SQL, 1L),
+    };
+
+    public static void main(String[] args) throws SQLException {
+        int failures = 0;
+        Connection conn = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            System.out.println("===========================================");
+            System.out.println("Query Plan Verification");
+            System.out.println("===========================================\n");
+
+            for (Check check : CHECKS) {
+                String key = explainKey(conn, check);
+                List<String> keyColumns = key == null ? List.of() : indexColumns(conn, check.table, key);
+                boolean ok = startsWith(keyColumns, check.expectedColumns);
+                if (!ok) {
+                    failures++;
+                }
+                System.out.printf("%s  %s%n", ok ? "PASS" : "FAIL", check.daoMethod);
+                System.out.printf("      %s: expected index on (%s), used %s%n", check.tableAlias,
+                        String.join(", ", check.expectedColumns),
+                        key == null ? "no index (full scan)" : key + " (" + String.join(", ", keyColumns) + ")");
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        System.out.println();
+        System.out.println(failures == 0 ? "All " + CHECKS.length + " queries use their intended indexes."
+                : failures + " of " + CHECKS.length + " queries do not use their intended indexes.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    // The index EXPLAIN picked for the check's table, or null for a full scan
+    private static String explainKey(Connection conn, Check check) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + check.sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            for (int i = 0; i < check.params.length; i++) {
+                pstmt.setObject(i + 1, check.params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (check.tableAlias.equals(rs.getString("table"))) {
+                        return rs.getString("key");
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<String> indexColumns(Connection conn, String table, String indexName) throws SQLException {
+        String sql = "SELECT COLUMN_NAME FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ? " +
+                "ORDER BY SEQ_IN_INDEX";
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            pstmt.setString(2, indexName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    columns.add(rs.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static boolean startsWith(List<String> columns, String[] expected) {
+        return columns.size() >= expected.length
+                && columns.subList(0, expected.length).stream().map(String::toLowerCase).toList()
+                .equals(Arrays.stream(expected).map(String::toLowerCase).toList());
+    }
+
+    private static String[] cols(String... columns) {
+        return columns;
+    }
+}
@@ -0,0 +1,202 @@
+package dao;
+
+import models.ReportResult;
+import models.ReportRow;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * In-memory cache of report results keyed by (report type, year, month).
+ * Closed months are kept until a write touches them (or they fall out of the LRU bound);
+ * the current and future months expire after OPEN_MONTH_TTL_MILLIS because every booking changes them.
+ * Concurrent requests for the same report share one load. Invalidation is driven by the DAO write
+ * paths after they commit, and by ReportFactRefresher when it rebuilds a month (which also picks up
+ * changes made by other clients).
+ */
+public final class ReportCache {
+    public enum ReportType { OCCUPANCY, REVENUE, INVENTORY, AMENITIES }
+
+    // Reports whose rows list every room / amenity / item, so any change to those tables affects all months
+    static final ReportType[] ROOM_REPORTS = {ReportType.OCCUPANCY, ReportType.REVENUE};
+
+    static final int MAX_ENTRIES = 256;
+    static final long OPEN_MONTH_TTL_MILLIS = 5 * 60 * 1000;
+
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    interface Loader<T extends ReportRow> {
+        ReportResult<T> load() throws SQLException;
+    }
+
+    private static final class Key {
+        final ReportType type;
+        final LocalDate monthStart;
+
+        Key(ReportType type, LocalDate monthStart) {
+            this.type = type;
+            this.monthStart = monthStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && monthStart.equals(other.monthStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, monthStart);
+        }
+    }
+
+    private static final class Entry {
+        final FutureTask<ReportResult<?>> result;
+        // 0 for closed months, which never expire
+        final long expiresAt;
+
+        Entry(FutureTask<ReportResult<?>> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Access order, so the eldest entry is the least recently used
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private long hits;
+    private long misses;
+    private long loadFailures;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    private ReportCache() {}
+
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    // Cached report, loading it (once, however many threads ask) when absent or expired.
+    // ReportResult is immutable, so the same instance is handed to every caller.
+    @SuppressWarnings("unchecked")
+    <T extends ReportRow> ReportResult<T> get(ReportType type, int year, int month, Loader<T> loader) throws SQLException {
+        Key key = new Key(type, LocalDate.of(year, month, 1));
+        Entry entry;
+        boolean load = false;
+
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt != 0 && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations++;
+                entry = null;
+            }
+            if (entry == null) {
+                FutureTask<ReportResult<?>> task = new FutureTask<>(loader::load);
+                long expiresAt = ReportFacts.isClosed(key.monthStart) ? 0 : System.currentTimeMillis() + OPEN_MONTH_TTL_MILLIS;
+                entry = new Entry(task, expiresAt);
+                entries.put(key, entry);
+                misses++;
+                load = true;
+            } else {
+                hits++;
+            }
+        }
+
+        if (load) {
+            entry.result.run();
+        }
+        try {
+            // Each type is only ever loaded by its own ReportsDAO method, so the row type matches
+            return (ReportResult<T>) entry.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for report", e);
+        } catch (ExecutionException e) {
+            // Don't cache failures; the next request tries again
+            synchronized (this) {
+                if (entries.get(key) == entry) {
+                    entries.remove(key);
+                    if (load) {
+                        loadFailures++;
+                    }
+                }
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Report failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    // Drop the given reports (all four when none are named) for every month touched by [from, toExclusive)
+    public synchronized void invalidateMonths(LocalDate from, LocalDate toExclusive, ReportType... types) {
+        LocalDate first = ReportFacts.monthStart(from);
+        LocalDate last = ReportFacts.monthStart(toExclusive.isAfter(from) ? toExclusive.minusDays(1) : from);
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next().getKey();
+            if (!key.monthStart.isBefore(first) && !key.monthStart.isAfter(last) && matches(key.type, types)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public void invalidateMonth(LocalDate day, ReportType... types) {
+        invalidateMonths(day, day.plusDays(1), types);
+    }
+
+    // Drop the given reports for every month, e.g. after a room's rate or an item's stock level changes
+    public synchronized void invalidateType(ReportType... types) {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (matches(it.next().getKey().type, types)) {
+                it.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized ReportCacheStats getStats() {
+        return new ReportCacheStats(entries.size(), MAX_ENTRIES, hits, misses, loadFailures,
+                evictions, expirations, invalidations);
+    }
+
+    private static boolean matches(ReportType type, ReportType[] types) {
+        if (types.length == 0) {
+            return true;
+        }
+        for (ReportType t : types) {
+            if (t == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
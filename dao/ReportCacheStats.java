@@ -0,0 +1,49 @@
+package dao;
+
+/**
+ * Point-in-time snapshot of the report cache counters, used for monitoring.
+ */
+public class ReportCacheStats {
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long loadFailures;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    public ReportCacheStats(int size, int maxSize, long hits, long misses, long loadFailures,
+                            long evictions, long expirations, long invalidations) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.loadFailures = loadFailures;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getLoadFailures() { return loadFailures; }
+    public long getEvictions() { return evictions; }
+    public long getExpirations() { return expirations; }
+    public long getInvalidations() { return invalidations; }
+
+    // Fraction of lookups answered from the cache, 0 when nothing has been looked up yet
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : hits / (double) lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Report cache: %d/%d entries, hits=%d, misses=%d (hit ratio %.1f%%), " +
+                        "load failures=%d, evicted=%d, expired=%d, invalidated=%d",
+                size, maxSize, hits, misses, getHitRatio() * 100, loadFailures, evictions, expirations, invalidations);
+    }
+}
@@ -0,0 +1,249 @@
+package dao;
+
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the monthly report rollups for closed months.
+ * Each run rebuilds only the months that need it: months marked dirty by a write, and closed
+ * months that have never been built (normally just the month that closed since the last run).
+ * The GUI schedules it at startup; it can also be run from the command line:
+ * java dao.ReportFactRefresher [--full]   (--full rebuilds every month, e.g. after a bulk load)
+ */
+public class ReportFactRefresher {
+    private ScheduledExecutorService scheduler;
+
+    public static void main(String[] args) throws SQLException {
+        ReportFactRefresher refresher = new ReportFactRefresher();
+        long start = System.currentTimeMillis();
+        int months = args.length > 0 && args[0].equals("--full") ? refresher.rebuildAll() : refresher.refresh();
+        System.out.printf("Rebuilt report rollups for %d month(s) in %.1f s%n",
+                months, (System.currentTimeMillis() - start) / 1000.0);
+    }
+
+    // Rebuild the months that are dirty or missing; returns how many were rebuilt
+    public int refresh() throws SQLException {
+        Set<LocalDate> months = monthsToBuild();
+        for (LocalDate month : months) {
+            rebuildMonth(month);
+            // A dirty month may have been changed by another client, so drop what this one has cached
+            ReportCache.getInstance().invalidateMonth(month);
+        }
+        return months.size();
+    }
+
+    // Mark every month dirty and rebuild them all; for data loaded without going through the DAOs
+    public int rebuildAll() throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement("UPDATE fact_month_status SET dirty = 1");
+            pstmt.executeUpdate();
+        } finally {
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+        return refresh();
+    }
+
+    // Run now, then every periodMinutes, on a daemon thread
+    public synchronized void start(long periodMinutes) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-fact-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::runOnce, 0, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void runOnce() {
+        try {
+            refresh();
+        } catch (SQLException e) {
+            System.err.println("Report rollup refresh failed: " + e.getMessage());
+        }
+    }
+
+    private Set<LocalDate> monthsToBuild() throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        Set<LocalDate> months = new TreeSet<>();
+        Set<LocalDate> known = new HashSet<>();
+        LocalDate earliest = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+
+            // STEP 1: Months already tracked; dirty ones need a rebuild
+            pstmt = conn.prepareStatement("SELECT month_start, dirty FROM fact_month_status");
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                LocalDate month = rs.getDate("month_start").toLocalDate();
+                known.add(month);
+                if (rs.getBoolean("dirty") && ReportFacts.isClosed(month)) {
+                    months.add(month);
+                }
+                if (earliest == null || month.isBefore(earliest)) {
+                    earliest = month;
+                }
+            }
+            rs.close();
+            pstmt.close();
+
+            // STEP 2: On the first run, start from the oldest month that has any report data
+            if (earliest == null) {
+                pstmt = conn.prepareStatement("SELECT LEAST(" +
+                        "COALESCE((SELECT MIN(check_in) FROM reservation), '9999-12-31'), " +
+                        "COALESCE((SELECT DATE(MIN(restock_date)) FROM restock), '9999-12-31'), " +
+                        "COALESCE((SELECT DATE(MIN(rent_start)) FROM amenity_rental), '9999-12-31'))");
+                rs = pstmt.executeQuery();
+                rs.next();
+                LocalDate oldest = rs.getDate(1).toLocalDate();
+                earliest = oldest.getYear() == 9999 ? null : ReportFacts.monthStart(oldest);
+            }
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        // STEP 3: Closed months never built (usually just the one that closed since the last run)
+        if (earliest != null) {
+            for (LocalDate month = earliest; ReportFacts.isClosed(month); month = month.plusMonths(1)) {
+                if (!known.contains(month)) {
+                    months.add(month);
+                }
+            }
+        }
+        return months;
+    }
+
+    // Recompute one month's rollups in a single transaction
+    private void rebuildMonth(LocalDate month) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        int isolation = Connection.TRANSACTION_REPEATABLE_READ;
+        Date monthStart = Date.valueOf(month);
+        Date nextMonthStart = Date.valueOf(month.plusMonths(1));
+
+        try {
+            conn = DatabaseConnection.getConnection();
+
+            // STEP 1: Make sure the month has a status row to lock
+            pstmt = conn.prepareStatement("INSERT IGNORE INTO fact_month_status (month_start, dirty) VALUES (?, 1)");
+            pstmt.setDate(1, monthStart);
+            pstmt.executeUpdate();
+            pstmt.close();
+
+            // Read committed so the INSERT ... SELECTs below do not share-lock the base rows they read
+            isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            conn.setAutoCommit(false);
+
+            // STEP 2: Lock the status row. A writer still to commit into this month either holds it
+            // already (we wait, then see its rows) or blocks on it until we commit (and re-marks it dirty)
+            pstmt = conn.prepareStatement("SELECT dirty FROM fact_month_status WHERE month_start = ? FOR UPDATE");
+            pstmt.setDate(1, monthStart);
+            rs = pstmt.executeQuery();
+            rs.close();
+            pstmt.close();
+
+            // STEP 3: Drop the month's old rollups
+            for (String table : new String[]{"fact_room_month", "fact_item_month", "fact_amenity_month"}) {
+                pstmt = conn.prepareStatement("DELETE FROM " + table + " WHERE month_start = ?");
+                pstmt.setDate(1, monthStart);
+                pstmt.executeUpdate();
+                pstmt.close();
+            }
+
+            // STEP 4: Nights per room in [month start, next month start); billed nights are the checked-in/out ones
+            String roomSql = "INSERT INTO fact_room_month (month_start, room_id, days_reserved, days_billed) " +
+                    "SELECT ?, room_id, SUM(nights), " +
+                    "  SUM(CASE WHEN status IN ('checked-in', 'checked-out') THEN nights ELSE 0 END) " +
+                    "FROM (SELECT room_id, status, DATEDIFF(LEAST(check_out, ?), GREATEST(check_in, ?)) AS nights " +
+                    "  FROM reservation " +
+                    "  WHERE status IN ('confirmed', 'checked-in', 'checked-out') " +
+                    "  AND check_in < ? AND check_out > ?) stays " +
+                    "GROUP BY room_id";
+            pstmt = conn.prepareStatement(roomSql);
+            pstmt.setDate(1, monthStart);
+            pstmt.setDate(2, nextMonthStart);
+            pstmt.setDate(3, monthStart);
+            pstmt.setDate(4, nextMonthStart);
+            pstmt.setDate(5, monthStart);
+            pstmt.executeUpdate();
+            pstmt.close();
+
+            // STEP 5: Quantity restocked per item
+            String itemSql = "INSERT INTO fact_item_month (month_start, item_id, total_restocked) " +
+                    "SELECT ?, item_id, SUM(quantity) FROM restock " +
+                    "WHERE restock_date >= ? AND restock_date < ? " +
+                    "GROUP BY item_id";
+            pstmt = conn.prepareStatement(itemSql);
+            pstmt.setDate(1, monthStart);
+            pstmt.setTimestamp(2, Timestamp.valueOf(month.atStartOfDay()));
+            pstmt.setTimestamp(3, Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+            pstmt.executeUpdate();
+            pstmt.close();
+
+            // STEP 6: Rentals, quantity and revenue per amenity
+            String amenitySql = "INSERT INTO fact_amenity_month (month_start, amenity_id, times_rented, total_quantity, total_revenue) " +
+                    "SELECT ?, amenity_id, COUNT(*), COALESCE(SUM(qty), 0), COALESCE(SUM(qty * rate_per_unit), 0) " +
+                    "FROM amenity_rental " +
+                    "WHERE rent_start >= ? AND rent_start < ? " +
+                    "GROUP BY amenity_id";
+            pstmt = conn.prepareStatement(amenitySql);
+            pstmt.setDate(1, monthStart);
+            pstmt.setTimestamp(2, Timestamp.valueOf(month.atStartOfDay()));
+            pstmt.setTimestamp(3, Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+            pstmt.executeUpdate();
+            pstmt.close();
+
+            // STEP 7: Mark the month clean
+            pstmt = conn.prepareStatement("UPDATE fact_month_status SET dirty = 0, refreshed_at = NOW() WHERE month_start = ?");
+            pstmt.setDate(1, monthStart);
+            pstmt.executeUpdate();
+            pstmt.close();
+
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+}
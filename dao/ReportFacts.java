@@ -0,0 +1,85 @@
+package dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Bookkeeping for the monthly report rollups (fact_room_month, fact_item_month, fact_amenity_month).
+// fact_month_status has one row per month that has been built or needs rebuilding; a month is read
+// from the rollups only while its row says it is clean. Writers that change a closed month's report
+// figures mark it dirty on the same connection (and transaction) as the write, right before commit,
+// and ReportFactRefresher rebuilds it later. The current month is never rolled up, so everyday
+// bookings never touch this table.
+final class ReportFacts {
+    // A month is rolled up only once it has been closed this long, so a transaction still
+    // committing across midnight on the last day cannot be missed
+    static final long CLOSE_GRACE_HOURS = 1;
+
+    private ReportFacts() {}
+
+    static LocalDate monthStart(LocalDate day) {
+        return day.withDayOfMonth(1);
+    }
+
+    static boolean isClosed(LocalDate monthStart) {
+        return !monthStart.plusMonths(1).atStartOfDay().plusHours(CLOSE_GRACE_HOURS).isAfter(LocalDateTime.now());
+    }
+
+    // True if the month's rollups are built and nothing has changed since
+    static boolean isBuilt(Connection conn, LocalDate monthStart) throws SQLException {
+        String sql = "SELECT dirty FROM fact_month_status WHERE month_start = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setDate(1, Date.valueOf(monthStart));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && !rs.getBoolean("dirty");
+            }
+        }
+    }
+
+    // Mark every past month touched by [from, toExclusive) as needing a rebuild
+    static void markDirty(Connection conn, LocalDate from, LocalDate toExclusive) throws SQLException {
+        LocalDate last = toExclusive.isAfter(from) ? toExclusive.minusDays(1) : from;
+        LocalDate currentMonth = monthStart(LocalDate.now());
+        String sql = "INSERT INTO fact_month_status (month_start, dirty) VALUES (?, 1) " +
+                "ON DUPLICATE KEY UPDATE dirty = 1";
+        PreparedStatement pstmt = null;
+        try {
+            for (LocalDate month = monthStart(from); !month.isAfter(last) && month.isBefore(currentMonth);
+                 month = month.plusMonths(1)) {
+                if (pstmt == null) {
+                    pstmt = conn.prepareStatement(sql);
+                }
+                pstmt.setDate(1, Date.valueOf(month));
+                pstmt.executeUpdate();
+            }
+        } finally {
+            if (pstmt != null) pstmt.close();
+        }
+    }
+
+    static void markDirty(Connection conn, LocalDate day) throws SQLException {
+        markDirty(conn, day, day.plusDays(1));
+    }
+
+    // Before a guest is deleted: their stays and rentals disappear with them (ON DELETE CASCADE)
+    static void markGuestDirty(Connection conn, long guestId) throws SQLException {
+        String stays = "SELECT check_in, check_out FROM reservation WHERE guest_id = ? AND status <> 'cancelled'";
+        try (PreparedStatement pstmt = conn.prepareStatement(stays)) {
+            pstmt.setLong(1, guestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    markDirty(conn, rs.getDate("check_in").toLocalDate(), rs.getDate("check_out").toLocalDate());
+                }
+            }
+        }
+        String rentals = "SELECT rent_start FROM amenity_rental WHERE guest_id = ? AND rent_start IS NOT NULL";
+        try (PreparedStatement pstmt = conn.prepareStatement(rentals)) {
+            pstmt.setLong(1, guestId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    markDirty(conn, rs.getTimestamp("rent_start").toLocalDateTime().toLocalDate());
+                }
+            }
+        }
+    }
+}
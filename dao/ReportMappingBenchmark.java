@@ -0,0 +1,147 @@
+package dao;
+
+import models.ReportFormat;
+import models.ReportRow;
+import models.RevenueReportRow;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the cost of mapping report rows the old way (every cell formatted with String.format
+ * into a String[]) with typed ReportRow objects plus single-pass subtotals and totals, and with
+ * typed rows whose cells are all then formatted through ReportFormat (what rendering every cell costs).
+ * Works on in-memory values shaped like the Revenue Report's result set, so it measures mapping
+ * only and needs no database.
+ * Usage: java dao.ReportMappingBenchmark [rows] [runs]
+ */
+public class ReportMappingBenchmark {
+
+    private static final int WARMUP_RUNS = 200;
+    private static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Suite", "Cottage"};
+
+    private interface Mapper {
+        Object map(int rows);
+    }
+
+    // What the driver hands back for each row
+    private static String[] roomCodes;
+    private static String[] roomTypes;
+    private static BigDecimal[] rates;
+    private static BigDecimal[] revenues;
+
+    // Keeps the JIT from discarding mapping work whose result is never used
+    private static volatile int sink;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        generate(rows);
+
+        System.out.println("===========================================");
+        System.out.println("Report Mapping Benchmark");
+        System.out.println(rows + " revenue rows per run, " + runs + " runs");
+        System.out.println("===========================================\n");
+
+        measure("String[] + String.format    ", runs, rows, ReportMappingBenchmark::mapFormatted);
+        measure("typed rows + totals         ", runs, rows, ReportMappingBenchmark::mapTyped);
+        measure("typed + format every cell   ", runs, rows, ReportMappingBenchmark::mapTypedAndRender);
+    }
+
+    private static void generate(int rows) {
+        Random random = new Random(42);
+        roomCodes = new String[rows];
+        roomTypes = new String[rows];
+        rates = new BigDecimal[rows];
+        revenues = new BigDecimal[rows];
+        for (int i = 0; i < rows; i++) {
+            roomCodes[i] = "R" + (100 + i);
+            roomTypes[i] = ROOM_TYPES[i % ROOM_TYPES.length];
+            rates[i] = BigDecimal.valueOf(150_000 + random.nextInt(1_000_000), 2);
+            revenues[i] = rates[i].multiply(BigDecimal.valueOf(random.nextInt(31)));
+        }
+    }
+
+    // How ReportsDAO used to build rows
+    private static Object mapFormatted(int rows) {
+        List<String[]> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(new String[]{
+                    roomCodes[i],
+                    roomTypes[i],
+                    String.format("₱%.2f", rates[i].doubleValue()),
+                    String.format("₱%.2f", revenues[i].doubleValue())
+            });
+        }
+        return data;
+    }
+
+    // How ReportsDAO builds rows now, including the subtotal and total rows
+    private static Object mapTyped(int rows) {
+        List<RevenueReportRow> data = new ArrayList<>(rows);
+        Map<String, BigDecimal> revenueByType = new LinkedHashMap<>();
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (int i = 0; i < rows; i++) {
+            RevenueReportRow row = new RevenueReportRow(roomCodes[i], roomTypes[i], rates[i], revenues[i]);
+            data.add(row);
+            revenueByType.merge(row.getRoomType(), row.getTotalRevenue(), BigDecimal::add);
+            totalRevenue = totalRevenue.add(row.getTotalRevenue());
+        }
+        data.add(new RevenueReportRow(ReportsDAO.TOTAL, null, null, totalRevenue));
+        return data;
+    }
+
+    // Upper bound for the typed path: every cell also formatted once, as if all were on screen
+    @SuppressWarnings("unchecked")
+    private static Object mapTypedAndRender(int rows) {
+        int chars = 0;
+        for (ReportRow row : (List<ReportRow>) mapTyped(rows)) {
+            for (Object cell : row.toCells()) {
+                chars += ReportFormat.cell(cell).length();
+            }
+        }
+        return chars;
+    }
+
+    private static void measure(String label, int runs, int rows, Mapper mapper) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            sink += mapper.map(rows).hashCode();
+        }
+
+        long[] latencies = new long[runs];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            sink += mapper.map(rows).hashCode();
+            latencies[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+
+        System.out.printf("%s  p50=%7.1f ns/row  p95=%7.1f ns/row  alloc=%s%n",
+                label,
+                percentile(latencies, 0.50) / (double) rows,
+                percentile(latencies, 0.95) / (double) rows,
+                allocated < 0 ? "n/a" : String.format("%.0f B/row", allocated / (double) runs / rows));
+    }
+
+    // Bytes allocated by this thread so far, or -1 when the JVM can't tell us
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,188 @@
+package dao;
+
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Rows examined and latency of the report and dashboard queries, before and after they were rewritten
+ * from YEAR()/MONTH()/DATE()/CONCAT() predicates to half-open [start, end) ranges.
+ * Rows examined is the growth of the session's Handler_read_* counters while the query runs, i.e. every
+ * index or table row the storage engine handed to the server. The "after" queries mirror ReportsDAO and
+ * DashboardDAO; they are repeated here because the counters are per session and the DAOs each borrow
+ * their own connection.
+ * Seed a large data set first, e.g. java dao.SyntheticDataSeeder
+ * Usage: java dao.ReportQueryBenchmark [year month [runs]]   (defaults: last month, 10 runs)
+ */
+public class ReportQueryBenchmark {
+
+    private static final class Case {
+        final String label;
+        final String beforeSql;
+        final Object[] beforeParams;
+        final String afterSql;
+        final Object[] afterParams;
+
+        Case(String label, String beforeSql, Object[] beforeParams, String afterSql, Object[] afterParams) {
+            this.label = label;
+            this.beforeSql = beforeSql;
+            this.beforeParams = beforeParams;
+            this.afterSql = afterSql;
+            this.afterParams = afterParams;
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        int year = args.length > 1 ? Integer.parseInt(args[0]) : lastMonth.getYear();
+        int month = args.length > 1 ? Integer.parseInt(args[1]) : lastMonth.getMonthValue();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        LocalDate start = LocalDate.of(year, month, 1);
+        LocalDate end = start.plusMonths(1);
+        Date startDate = Date.valueOf(start);
+        Date endDate = Date.valueOf(end);
+        Timestamp startTime = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp endTime = Timestamp.valueOf(end.atStartOfDay());
+
+        Case[] cases = {
+                new Case("Room occupancy",
+                        "SELECT rm.room_code, rm.room_type, " +
+                                "COALESCE(SUM(DATEDIFF(LEAST(r.check_out, LAST_DAY(DATE(CONCAT(?, '-', ?, '-01')))), " +
+                                "  GREATEST(r.check_in, DATE(CONCAT(?, '-', ?, '-01'))))), 0) as days_reserved " +
+                                "FROM room rm LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+                                "  AND r.status != 'cancelled' " +
+                                "  AND r.check_in <= LAST_DAY(DATE(CONCAT(?, '-', ?, '-01'))) " +
+                                "  AND r.check_out >= DATE(CONCAT(?, '-', ?, '-01')) " +
+                                "GROUP BY rm.room_id, rm.room_code, rm.room_type ORDER BY rm.room_code",
+                        new Object[]{year, month, year, month, year, month, year, month},
+                        "SELECT rm.room_code, rm.room_type, " +
+                                "COALESCE(SUM(DATEDIFF(LEAST(r.check_out, ?), GREATEST(r.check_in, ?))), 0) as days_reserved " +
+                                "FROM room rm LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+                                "  AND r.status IN ('confirmed', 'checked-in', 'checked-out') " +
+                                "  AND r.check_in < ? AND r.check_out > ? " +
+                                "GROUP BY rm.room_id, rm.room_code, rm.room_type ORDER BY rm.room_code",
+                        new Object[]{endDate, startDate, endDate, startDate}),
+                new Case("Room revenue",
+                        "SELECT rm.room_code, rm.room_type, rm.rate_per_night, " +
+                                "COALESCE(SUM(DATEDIFF(LEAST(r.check_out, LAST_DAY(DATE(CONCAT(?, '-', ?, '-01')))), " +
+                                "  GREATEST(r.check_in, DATE(CONCAT(?, '-', ?, '-01')))) * rm.rate_per_night), 0) as total_revenue " +
+                                "FROM room rm LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+                                "  AND r.status IN ('checked-in', 'checked-out') " +
+                                "  AND r.check_in <= LAST_DAY(DATE(CONCAT(?, '-', ?, '-01'))) " +
+                                "  AND r.check_out >= DATE(CONCAT(?, '-', ?, '-01')) " +
+                                "GROUP BY rm.room_id, rm.room_code, rm.room_type, rm.rate_per_night ORDER BY total_revenue DESC",
+                        new Object[]{year, month, year, month, year, month, year, month},
+                        "SELECT rm.room_code, rm.room_type, rm.rate_per_night, " +
+                                "COALESCE(SUM(DATEDIFF(LEAST(r.check_out, ?), GREATEST(r.check_in, ?)) * rm.rate_per_night), 0) as total_revenue " +
+                                "FROM room rm LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+                                "  AND r.status IN ('checked-in', 'checked-out') " +
+                                "  AND r.check_in < ? AND r.check_out > ? " +
+                                "GROUP BY rm.room_id, rm.room_code, rm.room_type, rm.rate_per_night ORDER BY total_revenue DESC",
+                        new Object[]{endDate, startDate, endDate, startDate}),
+                new Case("Inventory restocks",
+                        "SELECT ii.name, ii.supplier, COALESCE(SUM(r.quantity), 0) as total_restocked, " +
+                                "ii.quantity_on_hand as current_quantity " +
+                                "FROM inventory_item ii LEFT JOIN restock r ON ii.item_id = r.item_id " +
+                                "  AND YEAR(r.restock_date) = ? AND MONTH(r.restock_date) = ? " +
+                                "GROUP BY ii.item_id, ii.name, ii.supplier, ii.quantity_on_hand ORDER BY ii.name",
+                        new Object[]{year, month},
+                        "SELECT ii.name, ii.supplier, COALESCE(SUM(r.quantity), 0) as total_restocked, " +
+                                "ii.quantity_on_hand as current_quantity " +
+                                "FROM inventory_item ii LEFT JOIN restock r ON ii.item_id = r.item_id " +
+                                "  AND r.restock_date >= ? AND r.restock_date < ? " +
+                                "GROUP BY ii.item_id, ii.name, ii.supplier, ii.quantity_on_hand ORDER BY ii.name",
+                        new Object[]{startTime, endTime}),
+                new Case("Amenity rentals",
+                        "SELECT a.name, a.rate, COUNT(ar.rental_id) as times_rented, COALESCE(SUM(ar.qty), 0) as total_quantity, " +
+                                "COALESCE(SUM(ar.qty * ar.rate_per_unit), 0) as total_revenue " +
+                                "FROM amenity a LEFT JOIN amenity_rental ar ON a.amenity_id = ar.amenity_id " +
+                                "  AND YEAR(ar.rent_start) = ? AND MONTH(ar.rent_start) = ? " +
+                                "GROUP BY a.amenity_id, a.name, a.rate ORDER BY times_rented DESC, a.name",
+                        new Object[]{year, month},
+                        "SELECT a.name, a.rate, COUNT(ar.rental_id) as times_rented, COALESCE(SUM(ar.qty), 0) as total_quantity, " +
+                                "COALESCE(SUM(ar.qty * ar.rate_per_unit), 0) as total_revenue " +
+                                "FROM amenity a LEFT JOIN amenity_rental ar ON a.amenity_id = ar.amenity_id " +
+                                "  AND ar.rent_start >= ? AND ar.rent_start < ? " +
+                                "GROUP BY a.amenity_id, a.name, a.rate ORDER BY times_rented DESC, a.name",
+                        new Object[]{startTime, endTime}),
+                new Case("Revenue today",
+                        "SELECT COALESCE(SUM(amount), 0) FROM payment " +
+                                "WHERE DATE(payment_time) = CURDATE() AND status = 'paid'",
+                        new Object[]{},
+                        DashboardDAO.REVENUE_TODAY_SQL,
+                        new Object[]{}),
+        };
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            // SHOW STATUS reads a few handler rows itself; measure that once and subtract it
+            long first = readHandlerRows(conn);
+            long overhead = readHandlerRows(conn) - first;
+
+            System.out.println("===========================================");
+            System.out.println("Report Query Benchmark - " + ReportsDAO.getMonthName(month) + " " + year + ", " + runs + " runs");
+            System.out.println("===========================================\n");
+            System.out.printf("%-20s %15s %15s %9s %12s %12s%n",
+                    "query", "rows before", "rows after", "ratio", "p50 before", "p50 after");
+
+            for (Case c : cases) {
+                long rowsBefore = rowsExamined(conn, c.beforeSql, c.beforeParams, overhead);
+                long rowsAfter = rowsExamined(conn, c.afterSql, c.afterParams, overhead);
+                long p50Before = medianNanos(conn, c.beforeSql, c.beforeParams, runs);
+                long p50After = medianNanos(conn, c.afterSql, c.afterParams, runs);
+                System.out.printf("%-20s %15d %15d %8.1fx %9.2f ms %9.2f ms%n",
+                        c.label, rowsBefore, rowsAfter, rowsBefore / (double) Math.max(1, rowsAfter),
+                        p50Before / 1e6, p50After / 1e6);
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static long rowsExamined(Connection conn, String sql, Object[] params, long overhead) throws SQLException {
+        long before = readHandlerRows(conn);
+        execute(conn, sql, params);
+        return Math.max(0, readHandlerRows(conn) - before - overhead);
+    }
+
+    private static long medianNanos(Connection conn, String sql, Object[] params, int runs) throws SQLException {
+        execute(conn, sql, params); // warm-up
+        long[] latencies = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            execute(conn, sql, params);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies[runs / 2];
+    }
+
+    // Runs the query and reads every row, as the report screens do
+    private static void execute(Connection conn, String sql, Object[] params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getObject(1);
+                }
+            }
+        }
+    }
+
+    private static long readHandlerRows(Connection conn) throws SQLException {
+        long total = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW SESSION STATUS LIKE 'Handler_read%'")) {
+            while (rs.next()) {
+                total += rs.getLong(2);
+            }
+        }
+        return total;
+    }
+}
@@ -1,60 +1,118 @@
 package dao;
 
 import database.DatabaseConnection;
+import models.AmenityReportRow;
+import models.InventoryReportRow;
+import models.OccupancyReportRow;
+import models.ReportResult;
+import models.RevenueReportRow;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReportsDAO {
+    // Labels in the first column of subtotal and total rows
+    public static final String SUBTOTAL = "Subtotal";
+    public static final String TOTAL = "Total";
+
+    // Queries for months without rollups; QueryPlanVerifier checks their plans
+    // Nights in [first of month, first of next month); params: next month, month, next month, month
+    static final String OCCUPANCY_LIVE_SQL = "SELECT rm.room_code, rm.room_type, " +
+            "COALESCE(SUM(DATEDIFF(" +
+            "  LEAST(r.check_out, ?), " +
+            "  GREATEST(r.check_in, ?)" +
+            ")), 0) as days_reserved " +
+            "FROM room rm " +
+            "LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+            "  AND r.status IN ('confirmed', 'checked-in', 'checked-out') " +
+            "  AND r.check_in < ? " +
+            "  AND r.check_out > ? " +
+            "GROUP BY rm.room_id, rm.room_code, rm.room_type " +
+            "ORDER BY rm.room_code";
+    // Params: month start, next month start
+    static final String INVENTORY_LIVE_SQL = "SELECT ii.name, ii.supplier, " +
+            "COALESCE(SUM(r.quantity), 0) as total_restocked, " +
+            "ii.quantity_on_hand as current_quantity " +
+            "FROM inventory_item ii " +
+            "LEFT JOIN restock r ON ii.item_id = r.item_id " +
+            "  AND r.restock_date >= ? " +
+            "  AND r.restock_date < ? " +
+            "GROUP BY ii.item_id, ii.name, ii.supplier, ii.quantity_on_hand " +
+            "ORDER BY ii.name";
+    // Params: month start, next month start
+    static final String AMENITIES_LIVE_SQL = "SELECT a.name, a.rate, " +
+            "COUNT(ar.rental_id) as times_rented, " +
+            "COALESCE(SUM(ar.qty), 0) as total_quantity, " +
+            "COALESCE(SUM(ar.qty * ar.rate_per_unit), 0) as total_revenue " +
+            "FROM amenity a " +
+            "LEFT JOIN amenity_rental ar ON a.amenity_id = ar.amenity_id " +
+            "  AND ar.rent_start >= ? " +
+            "  AND ar.rent_start < ? " +
+            "GROUP BY a.amenity_id, a.name, a.rate " +
+            "ORDER BY times_rented DESC, a.name";
 
     // REPORT 1: Room Occupancy Report - Days reserved per month
     // Assigned to: Charles Andrew Bondoc
-    public List<String[]> getRoomOccupancyReport(int year, int month) throws SQLException {
+    public ReportResult<OccupancyReportRow> getRoomOccupancyReport(int year, int month) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
-        List<String[]> reportData = new ArrayList<>();
+        List<OccupancyReportRow> reportData = new ArrayList<>();
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT rm.room_code, rm.room_type, " +
-                    "COALESCE(SUM(DATEDIFF(" +
-                    "  LEAST(r.check_out, LAST_DAY(DATE(CONCAT(?, '-', ?, '-01')))), " +
-                    "  GREATEST(r.check_in, DATE(CONCAT(?, '-', ?, '-01')))" +
-                    ")), 0) as days_reserved " +
-                    "FROM room rm " +
-                    "LEFT JOIN reservation r ON rm.room_id = r.room_id " +
-                    "  AND r.status != 'cancelled' " +
-                    "  AND r.check_in <= LAST_DAY(DATE(CONCAT(?, '-', ?, '-01'))) " +
-                    "  AND r.check_out >= DATE(CONCAT(?, '-', ?, '-01')) " +
-                    "GROUP BY rm.room_id, rm.room_code, rm.room_type " +
-                    "ORDER BY rm.room_code";
-
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, year);
-            pstmt.setInt(2, month);
-            pstmt.setInt(3, year);
-            pstmt.setInt(4, month);
-            pstmt.setInt(5, year);
-            pstmt.setInt(6, month);
-            pstmt.setInt(7, year);
-            pstmt.setInt(8, month);
+            pstmt = prepareOccupancyReport(conn, year, month, false);
 
             rs = pstmt.executeQuery();
 
+            // Subtotals per room type and the grand total are summed while the rows are read
+            Map<String, Long> daysByType = new LinkedHashMap<>();
+            long totalDays = 0;
             while (rs.next()) {
-                String[] row = {
-                        rs.getString("room_code"),
-                        rs.getString("room_type"),
-                        String.valueOf(rs.getInt("days_reserved"))
-                };
+                OccupancyReportRow row = mapOccupancyRow(rs);
                 reportData.add(row);
+                daysByType.merge(row.getRoomType(), row.getDaysReserved(), Long::sum);
+                totalDays += row.getDaysReserved();
             }
 
-            return reportData;
+            List<OccupancyReportRow> subtotals = new ArrayList<>();
+            for (Map.Entry<String, Long> type : daysByType.entrySet()) {
+                subtotals.add(new OccupancyReportRow(SUBTOTAL, type.getKey(), type.getValue()));
+            }
+            return new ReportResult<>(reportData, subtotals, new OccupancyReportRow(TOTAL, null, totalDays));
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Rows of the occupancy report handed to handler one at a time as MySQL streams them, for exports.
+    // Same rows and order as getRoomOccupancyReport, without subtotals or totals. Returns the number of rows handled.
+    public long streamRoomOccupancyReport(int year, int month, RowHandler<OccupancyReportRow> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = prepareOccupancyReport(conn, year, month, true);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapOccupancyRow(rs));
+                count++;
+            }
+            return count;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -64,50 +122,58 @@ public class ReportsDAO {
 
     // REPORT 2: Revenue Report - Total revenue per room per month
     // Assigned to: Ryan James Malapitan
-    public List<String[]> getRevenueReport(int year, int month) throws SQLException {
+    public ReportResult<RevenueReportRow> getRevenueReport(int year, int month) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
-        List<String[]> reportData = new ArrayList<>();
+        List<RevenueReportRow> reportData = new ArrayList<>();
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT rm.room_code, rm.room_type, rm.rate_per_night, " +
-                    "COALESCE(SUM(DATEDIFF(" +
-                    "  LEAST(r.check_out, LAST_DAY(DATE(CONCAT(?, '-', ?, '-01')))), " +
-                    "  GREATEST(r.check_in, DATE(CONCAT(?, '-', ?, '-01')))" +
-                    ") * rm.rate_per_night), 0) as total_revenue " +
-                    "FROM room rm " +
-                    "LEFT JOIN reservation r ON rm.room_id = r.room_id " +
-                    "  AND r.status IN ('checked-in', 'checked-out') " +
-                    "  AND r.check_in <= LAST_DAY(DATE(CONCAT(?, '-', ?, '-01'))) " +
-                    "  AND r.check_out >= DATE(CONCAT(?, '-', ?, '-01')) " +
-                    "GROUP BY rm.room_id, rm.room_code, rm.room_type, rm.rate_per_night " +
-                    "ORDER BY total_revenue DESC";
-
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, year);
-            pstmt.setInt(2, month);
-            pstmt.setInt(3, year);
-            pstmt.setInt(4, month);
-            pstmt.setInt(5, year);
-            pstmt.setInt(6, month);
-            pstmt.setInt(7, year);
-            pstmt.setInt(8, month);
+            pstmt = prepareRevenueReport(conn, year, month, false);
 
             rs = pstmt.executeQuery();
 
+            Map<String, BigDecimal> revenueByType = new LinkedHashMap<>();
+            BigDecimal totalRevenue = BigDecimal.ZERO;
             while (rs.next()) {
-                String[] row = {
-                        rs.getString("room_code"),
-                        rs.getString("room_type"),
-                        String.format("₱%.2f", rs.getDouble("rate_per_night")),
-                        String.format("₱%.2f", rs.getDouble("total_revenue"))
-                };
+                RevenueReportRow row = mapRevenueRow(rs);
                 reportData.add(row);
+                revenueByType.merge(row.getRoomType(), row.getTotalRevenue(), BigDecimal::add);
+                totalRevenue = totalRevenue.add(row.getTotalRevenue());
             }
 
-            return reportData;
+            List<RevenueReportRow> subtotals = new ArrayList<>();
+            for (Map.Entry<String, BigDecimal> type : revenueByType.entrySet()) {
+                subtotals.add(new RevenueReportRow(SUBTOTAL, type.getKey(), null, type.getValue()));
+            }
+            return new ReportResult<>(reportData, subtotals, new RevenueReportRow(TOTAL, null, null, totalRevenue));
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Rows of the revenue report handed to handler one at a time as MySQL streams them, for exports.
+    // Same rows and order as getRevenueReport, without subtotals or totals. Returns the number of rows handled.
+    public long streamRevenueReport(int year, int month, RowHandler<RevenueReportRow> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = prepareRevenueReport(conn, year, month, true);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapRevenueRow(rs));
+                count++;
+            }
+            return count;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -117,41 +183,63 @@ public class ReportsDAO {
 
     // REPORT 3: Inventory Report - Total items restocked per month
     // Assigned to: Vener Mariano
-    public List<String[]> getInventoryReport(int year, int month) throws SQLException {
+    public ReportResult<InventoryReportRow> getInventoryReport(int year, int month) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
-        List<String[]> reportData = new ArrayList<>();
+        List<InventoryReportRow> reportData = new ArrayList<>();
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT ii.name, ii.supplier, " +
-                    "COALESCE(SUM(r.quantity), 0) as total_restocked, " +
-                    "ii.quantity_on_hand as current_quantity " +
-                    "FROM inventory_item ii " +
-                    "LEFT JOIN restock r ON ii.item_id = r.item_id " +
-                    "  AND YEAR(r.restock_date) = ? " +
-                    "  AND MONTH(r.restock_date) = ? " +
-                    "GROUP BY ii.item_id, ii.name, ii.supplier, ii.quantity_on_hand " +
-                    "ORDER BY ii.name";
-
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, year);
-            pstmt.setInt(2, month);
+            pstmt = prepareInventoryReport(conn, year, month, false);
 
             rs = pstmt.executeQuery();
 
+            // Subtotals per supplier, in the order suppliers first appear
+            Map<String, long[]> bySupplier = new LinkedHashMap<>();
+            long totalRestocked = 0;
+            long totalQuantity = 0;
             while (rs.next()) {
-                String[] row = {
-                        rs.getString("name"),
-                        rs.getString("supplier"),
-                        String.valueOf(rs.getInt("total_restocked")),
-                        String.valueOf(rs.getInt("current_quantity"))
-                };
+                InventoryReportRow row = mapInventoryRow(rs);
                 reportData.add(row);
+                long[] sums = bySupplier.computeIfAbsent(row.getSupplier(), s -> new long[2]);
+                sums[0] += row.getTotalRestocked();
+                sums[1] += row.getCurrentQuantity();
+                totalRestocked += row.getTotalRestocked();
+                totalQuantity += row.getCurrentQuantity();
             }
 
-            return reportData;
+            List<InventoryReportRow> subtotals = new ArrayList<>();
+            for (Map.Entry<String, long[]> supplier : bySupplier.entrySet()) {
+                subtotals.add(new InventoryReportRow(SUBTOTAL, supplier.getKey(), supplier.getValue()[0], supplier.getValue()[1]));
+            }
+            return new ReportResult<>(reportData, subtotals, new InventoryReportRow(TOTAL, null, totalRestocked, totalQuantity));
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Rows of the inventory report handed to handler one at a time as MySQL streams them, for exports.
+    // Same rows and order as getInventoryReport, without subtotals or totals. Returns the number of rows handled.
+    public long streamInventoryReport(int year, int month, RowHandler<InventoryReportRow> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = prepareInventoryReport(conn, year, month, true);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapInventoryRow(rs));
+                count++;
+            }
+            return count;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -161,43 +249,58 @@ public class ReportsDAO {
 
     // REPORT 4: Amenities Report - Times amenities were availed per month
     // Assigned to: Daniel Pamintuan
-    public List<String[]> getAmenitiesReport(int year, int month) throws SQLException {
+    public ReportResult<AmenityReportRow> getAmenitiesReport(int year, int month) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
-        List<String[]> reportData = new ArrayList<>();
+        List<AmenityReportRow> reportData = new ArrayList<>();
 
         try {
             conn = DatabaseConnection.getConnection();
-            String sql = "SELECT a.name, a.rate, " +
-                    "COUNT(ar.rental_id) as times_rented, " +
-                    "COALESCE(SUM(ar.qty), 0) as total_quantity, " +
-                    "COALESCE(SUM(ar.qty * ar.rate_per_unit), 0) as total_revenue " +
-                    "FROM amenity a " +
-                    "LEFT JOIN amenity_rental ar ON a.amenity_id = ar.amenity_id " +
-                    "  AND YEAR(ar.rent_start) = ? " +
-                    "  AND MONTH(ar.rent_start) = ? " +
-                    "GROUP BY a.amenity_id, a.name, a.rate " +
-                    "ORDER BY times_rented DESC, a.name";
-
-            pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, year);
-            pstmt.setInt(2, month);
+            pstmt = prepareAmenitiesReport(conn, year, month, false);
 
             rs = pstmt.executeQuery();
 
+            long totalRented = 0;
+            long totalQuantity = 0;
+            BigDecimal totalRevenue = BigDecimal.ZERO;
             while (rs.next()) {
-                String[] row = {
-                        rs.getString("name"),
-                        String.format("₱%.2f", rs.getDouble("rate")),
-                        String.valueOf(rs.getInt("times_rented")),
-                        String.valueOf(rs.getInt("total_quantity")),
-                        String.format("₱%.2f", rs.getDouble("total_revenue"))
-                };
+                AmenityReportRow row = mapAmenityRow(rs);
                 reportData.add(row);
+                totalRented += row.getTimesRented();
+                totalQuantity += row.getTotalQuantity();
+                totalRevenue = totalRevenue.add(row.getTotalRevenue());
             }
 
-            return reportData;
+            // Amenities have no natural grouping, so only a grand total
+            return new ReportResult<>(reportData, new ArrayList<>(),
+                    new AmenityReportRow(TOTAL, null, totalRented, totalQuantity, totalRevenue));
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Rows of the amenities report handed to handler one at a time as MySQL streams them, for exports.
+    // Same rows and order as getAmenitiesReport, without subtotals or totals. Returns the number of rows handled.
+    public long streamAmenitiesReport(int year, int month, RowHandler<AmenityReportRow> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = prepareAmenitiesReport(conn, year, month, true);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapAmenityRow(rs));
+                count++;
+            }
+            return count;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
@@ -205,6 +308,157 @@ public class ReportsDAO {
         }
     }
 
+    private PreparedStatement prepareOccupancyReport(Connection conn, int year, int month, boolean streaming) throws SQLException {
+        PreparedStatement pstmt;
+        if (ReportFacts.isBuilt(conn, monthStart(year, month))) {
+            // Closed month: read the rollup kept by ReportFactRefresher
+            String sql = "SELECT rm.room_code, rm.room_type, " +
+                    "COALESCE(f.days_reserved, 0) as days_reserved " +
+                    "FROM room rm " +
+                    "LEFT JOIN fact_room_month f ON f.room_id = rm.room_id AND f.month_start = ? " +
+                    "ORDER BY rm.room_code";
+            pstmt = prepare(conn, sql, streaming);
+            pstmt.setDate(1, Date.valueOf(monthStart(year, month)));
+        } else {
+            // Nights in [first of month, first of next month)
+            Date monthStart = Date.valueOf(monthStart(year, month));
+            Date nextMonthStart = Date.valueOf(monthStart(year, month).plusMonths(1));
+
+            pstmt = prepare(conn, OCCUPANCY_LIVE_SQL, streaming);
+            pstmt.setDate(1, nextMonthStart);
+            pstmt.setDate(2, monthStart);
+            pstmt.setDate(3, nextMonthStart);
+            pstmt.setDate(4, monthStart);
+        }
+        return pstmt;
+    }
+
+    private static OccupancyReportRow mapOccupancyRow(ResultSet rs) throws SQLException {
+        return new OccupancyReportRow(
+                rs.getString("room_code"),
+                rs.getString("room_type"),
+                rs.getLong("days_reserved"));
+    }
+
+    private PreparedStatement prepareRevenueReport(Connection conn, int year, int month, boolean streaming) throws SQLException {
+        PreparedStatement pstmt;
+        if (ReportFacts.isBuilt(conn, monthStart(year, month))) {
+            // Closed month: billed nights from the rollup, priced at today's rate like the live query
+            String sql = "SELECT rm.room_code, rm.room_type, rm.rate_per_night, " +
+                    "COALESCE(f.days_billed, 0) * rm.rate_per_night as total_revenue " +
+                    "FROM room rm " +
+                    "LEFT JOIN fact_room_month f ON f.room_id = rm.room_id AND f.month_start = ? " +
+                    "ORDER BY total_revenue DESC";
+            pstmt = prepare(conn, sql, streaming);
+            pstmt.setDate(1, Date.valueOf(monthStart(year, month)));
+        } else {
+            String sql = "SELECT rm.room_code, rm.room_type, rm.rate_per_night, " +
+                    "COALESCE(SUM(DATEDIFF(" +
+                    "  LEAST(r.check_out, ?), " +
+                    "  GREATEST(r.check_in, ?)" +
+                    ") * rm.rate_per_night), 0) as total_revenue " +
+                    "FROM room rm " +
+                    "LEFT JOIN reservation r ON rm.room_id = r.room_id " +
+                    "  AND r.status IN ('checked-in', 'checked-out') " +
+                    "  AND r.check_in < ? " +
+                    "  AND r.check_out > ? " +
+                    "GROUP BY rm.room_id, rm.room_code, rm.room_type, rm.rate_per_night " +
+                    "ORDER BY total_revenue DESC";
+
+            Date monthStart = Date.valueOf(monthStart(year, month));
+            Date nextMonthStart = Date.valueOf(monthStart(year, month).plusMonths(1));
+
+            pstmt = prepare(conn, sql, streaming);
+            pstmt.setDate(1, nextMonthStart);
+            pstmt.setDate(2, monthStart);
+            pstmt.setDate(3, nextMonthStart);
+            pstmt.setDate(4, monthStart);
+        }
+        return pstmt;
+    }
+
+    private static RevenueReportRow mapRevenueRow(ResultSet rs) throws SQLException {
+        return new RevenueReportRow(
+                rs.getString("room_code"),
+                rs.getString("room_type"),
+                money(rs.getBigDecimal("rate_per_night")),
+                money(rs.getBigDecimal("total_revenue")));
+    }
+
+    private PreparedStatement prepareInventoryReport(Connection conn, int year, int month, boolean streaming) throws SQLException {
+        PreparedStatement pstmt;
+        if (ReportFacts.isBuilt(conn, monthStart(year, month))) {
+            // Closed month: read the rollup kept by ReportFactRefresher
+            String sql = "SELECT ii.name, ii.supplier, " +
+                    "COALESCE(f.total_restocked, 0) as total_restocked, " +
+                    "ii.quantity_on_hand as current_quantity " +
+                    "FROM inventory_item ii " +
+                    "LEFT JOIN fact_item_month f ON f.item_id = ii.item_id AND f.month_start = ? " +
+                    "ORDER BY ii.name";
+            pstmt = prepare(conn, sql, streaming);
+            pstmt.setDate(1, Date.valueOf(monthStart(year, month)));
+        } else {
+            pstmt = prepare(conn, INVENTORY_LIVE_SQL, streaming);
+            pstmt.setTimestamp(1, Timestamp.valueOf(monthStart(year, month).atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(monthStart(year, month).plusMonths(1).atStartOfDay()));
+        }
+        return pstmt;
+    }
+
+    private static InventoryReportRow mapInventoryRow(ResultSet rs) throws SQLException {
+        return new InventoryReportRow(
+                rs.getString("name"),
+                rs.getString("supplier"),
+                rs.getLong("total_restocked"),
+                rs.getLong("current_quantity"));
+    }
+
+    private PreparedStatement prepareAmenitiesReport(Connection conn, int year, int month, boolean streaming) throws SQLException {
+        PreparedStatement pstmt;
+        if (ReportFacts.isBuilt(conn, monthStart(year, month))) {
+            // Closed month: read the rollup kept by ReportFactRefresher
+            String sql = "SELECT a.name, a.rate, " +
+                    "COALESCE(f.times_rented, 0) as times_rented, " +
+                    "COALESCE(f.total_quantity, 0) as total_quantity, " +
+                    "COALESCE(f.total_revenue, 0) as total_revenue " +
+                    "FROM amenity a " +
+                    "LEFT JOIN fact_amenity_month f ON f.amenity_id = a.amenity_id AND f.month_start = ? " +
+                    "ORDER BY times_rented DESC, a.name";
+            pstmt = prepare(conn, sql, streaming);
+            pstmt.setDate(1, Date.valueOf(monthStart(year, month)));
+        } else {
+            pstmt = prepare(conn, AMENITIES_LIVE_SQL, streaming);
+            pstmt.setTimestamp(1, Timestamp.valueOf(monthStart(year, month).atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(monthStart(year, month).plusMonths(1).atStartOfDay()));
+        }
+        return pstmt;
+    }
+
+    private static AmenityReportRow mapAmenityRow(ResultSet rs) throws SQLException {
+        return new AmenityReportRow(
+                rs.getString("name"),
+                money(rs.getBigDecimal("rate")),
+                rs.getLong("times_rented"),
+                rs.getLong("total_quantity"),
+                money(rs.getBigDecimal("total_revenue")));
+    }
+
+    // Exports read through a streaming cursor; the on-screen reports use ordinary (cached) statements
+    private static PreparedStatement prepare(Connection conn, String sql, boolean streaming) throws SQLException {
+        return streaming ? StreamingQuery.prepare(conn, sql) : conn.prepareStatement(sql);
+    }
+
+    // Money columns come back as DECIMAL; keep them exact, at centavo scale
+    private static BigDecimal money(BigDecimal amount) {
+        return amount == null ? BigDecimal.ZERO.setScale(2) : amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Reports filter on half-open [first of month, first of next month) ranges bound as plain
+    // values, so MySQL can range-scan the date columns' indexes instead of evaluating a function per row
+    private static LocalDate monthStart(int year, int month) {
+        return LocalDate.of(year, month, 1);
+    }
+
     // BONUS: Get month name for display
     public static String getMonthName(int month) {
         String[] months = {
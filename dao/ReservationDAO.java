@@ -1,6 +1,9 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.TransactionRetry;
+import database.UnitOfWork;
 import models.Reservation;
 
 import java.sql.*;
@@ -11,8 +14,20 @@ import java.util.List;
 
 public class ReservationDAO {
 
+    // Overlap check in createReservation. A locking read, so it sees a booking committed while we
+    // waited for the room lock (a plain read would use this transaction's older snapshot).
+    static final String OVERLAP_CHECK_SQL = "SELECT COUNT(*) FROM reservation " +
+            "WHERE room_id = ? " +
+            "AND status IN ('confirmed', 'checked-in') " +
+            "AND NOT (check_out <= ? OR check_in >= ?) " +
+            "LOCK IN SHARE MODE";
+
     // TRANSACTION 1: Create Reservation with full validation
     public Long createReservation(Reservation reservation, List<Long> amenityIds) throws SQLException {
+        return TransactionRetry.run("createReservation", () -> createReservationOnce(reservation, amenityIds));
+    }
+
+    private Long createReservationOnce(Reservation reservation, List<Long> amenityIds) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
@@ -33,8 +48,9 @@ public class ReservationDAO {
             rs.close();
             pstmt.close();
 
-            // STEP 2: Validate room availability
-            String roomAvailSql = "SELECT status FROM room WHERE room_id = ?";
+            // STEP 2: Lock the room row and validate it. Bookings for the same room wait here until
+            // this transaction commits; bookings for other rooms don't wait at all.
+            String roomAvailSql = "SELECT status FROM room WHERE room_id = ? FOR UPDATE";
             pstmt = conn.prepareStatement(roomAvailSql);
             pstmt.setLong(1, reservation.getRoomId());
             rs = pstmt.executeQuery();
@@ -50,12 +66,8 @@ public class ReservationDAO {
             rs.close();
             pstmt.close();
 
-            // STEP 3: Check for overlapping reservations
-            String overlapSql = "SELECT COUNT(*) FROM reservation " +
-                    "WHERE room_id = ? " +
-                    "AND status IN ('confirmed', 'checked-in') " +
-                    "AND NOT (check_out <= ? OR check_in >= ?)";
-            pstmt = conn.prepareStatement(overlapSql);
+            // STEP 3: Check for overlapping reservations (locking read, see OVERLAP_CHECK_SQL)
+            pstmt = conn.prepareStatement(OVERLAP_CHECK_SQL);
             pstmt.setLong(1, reservation.getRoomId());
             pstmt.setDate(2, Date.valueOf(reservation.getCheckIn()));
             pstmt.setDate(3, Date.valueOf(reservation.getCheckOut()));
@@ -108,7 +120,16 @@ public class ReservationDAO {
                 pstmt.close();
             }
 
+            // STEP 7: Update dashboard counters
+            DashboardCounters.moveRoom(conn, roomStatus, "reserved");
+
+            // STEP 8: A back-dated stay changes closed months' report rollups
+            ReportFacts.markDirty(conn, reservation.getCheckIn(), reservation.getCheckOut());
+
             conn.commit(); // Commit transaction
+
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateMonths(reservation.getCheckIn(),
+                    reservation.getCheckOut(), ReportType.OCCUPANCY));
             return reservationId;
 
         } catch (SQLException e) {
@@ -133,6 +154,10 @@ public class ReservationDAO {
     // TRANSACTION 2: Guest Check-In
     // Assigned to: Charles Andrew Bondoc
     public boolean checkInGuest(Long reservationId) throws SQLException {
+        return TransactionRetry.run("checkInGuest", () -> checkInGuestOnce(reservationId));
+    }
+
+    private boolean checkInGuestOnce(Long reservationId) throws SQLException {
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
@@ -141,11 +166,12 @@ public class ReservationDAO {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            // STEP 1: Retrieve and validate reservation
+            // STEP 1: Retrieve and validate reservation. Both rows stay locked until commit, so a second
+            // check-in of the same reservation waits here and then sees it already checked in.
             String resSql = "SELECT r.*, rm.room_id, rm.status as room_status " +
                     "FROM reservation r " +
                     "JOIN room rm ON r.room_id = rm.room_id " +
-                    "WHERE r.reservation_id = ?";
+                    "WHERE r.reservation_id = ? FOR UPDATE";
             pstmt = conn.prepareStatement(resSql);
             pstmt.setLong(1, reservationId);
             rs = pstmt.executeQuery();
@@ -166,6 +192,9 @@ public class ReservationDAO {
             }
 
             Long roomId = rs.getLong("room_id");
+            String roomStatus = rs.getString("room_status");
+            LocalDate checkIn = rs.getDate("check_in").toLocalDate();
+            LocalDate checkOut = rs.getDate("check_out").toLocalDate();
             rs.close();
             pstmt.close();
 
@@ -191,7 +220,15 @@ public class ReservationDAO {
             pstmt.executeUpdate();
             pstmt.close();
 
+            // STEP 5: Update dashboard counters
+            DashboardCounters.moveRoom(conn, roomStatus, "occupied");
+            DashboardCounters.adjust(conn, DashboardCounters.CHECKED_IN_RESERVATIONS, 1);
+
+            // STEP 6: Checked-in nights count as billed in the revenue rollup
+            ReportFacts.markDirty(conn, checkIn, checkOut);
+
             conn.commit();
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateMonths(checkIn, checkOut, ReportType.REVENUE));
             return true;
 
         } catch (SQLException e) {
@@ -280,17 +317,7 @@ public class ReservationDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Reservation reservation = new Reservation();
-                reservation.setReservationId(rs.getLong("reservation_id"));
-                reservation.setGuestId(rs.getLong("guest_id"));
-                reservation.setRoomId(rs.getLong("room_id"));
-                reservation.setCheckIn(rs.getDate("check_in").toLocalDate());
-                reservation.setCheckOut(rs.getDate("check_out").toLocalDate());
-                reservation.setBookingChannel(rs.getString("booking_channel"));
-                reservation.setStatus(rs.getString("status"));
-                reservation.setGuestName(rs.getString("first_name") + " " + rs.getString("last_name"));
-                reservation.setRoomCode(rs.getString("room_code"));
-                reservations.add(reservation);
+                reservations.add(mapReservation(rs));
             }
             return reservations;
         } finally {
@@ -300,6 +327,158 @@ public class ReservationDAO {
         }
     }
 
+    // One keyset page: up to limit reservations with reservation_id > afterReservationId,
+    // in reservation_id order. Pass 0 to start from the beginning.
+    public List<Reservation> getAllReservations(String statusFilter, long afterReservationId, int limit) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Reservation> reservations = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT r.*, g.first_name, g.last_name, rm.room_code " +
+                    "FROM reservation r " +
+                    "JOIN guest g ON r.guest_id = g.guest_id " +
+                    "JOIN room rm ON r.room_id = rm.room_id " +
+                    "WHERE r.reservation_id > ?";
+
+            boolean filtered = statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equals("All");
+            if (filtered) {
+                sql += " AND r.status = ?";
+            }
+            sql += " ORDER BY r.reservation_id LIMIT ?";
+
+            pstmt = conn.prepareStatement(sql);
+
+            int index = 1;
+            pstmt.setLong(index++, afterReservationId);
+            if (filtered) {
+                pstmt.setString(index++, statusFilter);
+            }
+            pstmt.setInt(index, limit);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reservations.add(mapReservation(rs));
+            }
+            return reservations;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Every reservation matching statusFilter, handed to handler one row at a time as MySQL streams them.
+    // Returns the number of rows handled.
+    public long streamAllReservations(String statusFilter, RowHandler<Reservation> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT r.*, g.first_name, g.last_name, rm.room_code " +
+                    "FROM reservation r " +
+                    "JOIN guest g ON r.guest_id = g.guest_id " +
+                    "JOIN room rm ON r.room_id = rm.room_id " +
+                    "WHERE 1=1";
+
+            boolean filtered = statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equals("All");
+            if (filtered) {
+                sql += " AND r.status = ?";
+            }
+            sql += " ORDER BY r.reservation_id";
+
+            pstmt = StreamingQuery.prepare(conn, sql);
+
+            if (filtered) {
+                pstmt.setString(1, statusFilter);
+            }
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapReservation(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // reservation_id of the row at the given position in reservation_id order (null past the end)
+    public Long getReservationIdAtOffset(String statusFilter, long offset) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            boolean filtered = statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equals("All");
+            String sql = "SELECT reservation_id FROM reservation" +
+                    (filtered ? " WHERE status = ?" : "") +
+                    " ORDER BY reservation_id LIMIT 1 OFFSET ?";
+            pstmt = conn.prepareStatement(sql);
+
+            int index = 1;
+            if (filtered) {
+                pstmt.setString(index++, statusFilter);
+            }
+            pstmt.setLong(index, offset);
+
+            rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong("reservation_id") : null;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Approximate number of reservations (exact when filtered by status), for sizing paged tables
+    public long estimateReservationCount(String statusFilter) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            if (statusFilter == null || statusFilter.isEmpty() || statusFilter.equals("All")) {
+                return TableStats.estimateRowCount(conn, "reservation");
+            }
+
+            pstmt = conn.prepareStatement("SELECT COUNT(*) FROM reservation WHERE status = ?");
+            pstmt.setString(1, statusFilter);
+            rs = pstmt.executeQuery();
+            return rs.next() ? rs.getLong(1) : 0;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Reservation mapReservation(ResultSet rs) throws SQLException {
+        Reservation reservation = new Reservation();
+        reservation.setReservationId(rs.getLong("reservation_id"));
+        reservation.setGuestId(rs.getLong("guest_id"));
+        reservation.setRoomId(rs.getLong("room_id"));
+        reservation.setCheckIn(rs.getDate("check_in").toLocalDate());
+        reservation.setCheckOut(rs.getDate("check_out").toLocalDate());
+        reservation.setBookingChannel(rs.getString("booking_channel"));
+        reservation.setStatus(rs.getString("status"));
+        reservation.setGuestName(rs.getString("first_name") + " " + rs.getString("last_name"));
+        reservation.setRoomCode(rs.getString("room_code"));
+        return reservation;
+    }
+
     public List<Reservation> getActiveReservationsByGuestId(Long guestId) throws SQLException {
         List<Reservation> list = new ArrayList<>();
         Connection conn = null;
@@ -0,0 +1,231 @@
+package dao;
+
+import database.DatabaseConnection;
+import database.TransactionRetry;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Restocks one inventory item from many threads at once and checks that no delivery is lost:
+ * the quantity on hand must go up by exactly the units of the restocks that succeeded.
+ * Runs twice, first with the old read-then-write restock (SELECT the quantity, add in Java, write
+ * back the total) and then with RestockDAO.processRestock, which increments in the database, and
+ * prints lost updates and restocks per second for each. Both go through TransactionRetry.
+ * Test restocks are deleted and the item's quantity put back afterwards.
+ * Run against a seeded database (java dao.SyntheticDataSeeder 500).
+ * Usage: java dao.RestockConcurrencyHarness [threads] [restocksPerThread]
+ */
+public class RestockConcurrencyHarness {
+
+    private static final String SUPPLIER = "Restock harness";
+
+    private interface Restock {
+        long run(long itemId, int quantity, Date date) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        Long itemId = firstItemId();
+        if (itemId == null) {
+            System.err.println("No inventory items found - seed the database before running the harness.");
+            return;
+        }
+
+        System.out.println("===========================================");
+        System.out.println("Restock Concurrency Harness");
+        System.out.println(threads + " threads x " + perThread + " restocks of item " + itemId);
+        System.out.println("===========================================\n");
+
+        RestockDAO dao = new RestockDAO();
+        int quantity = readQuantity(itemId);
+        Date lastRestocked = readLastRestocked(itemId);
+        Queue<Long> restockIds = new ConcurrentLinkedQueue<>();
+        boolean pass;
+        try {
+            run("Read-then-write (old)", RestockConcurrencyHarness::readThenWriteRestock, itemId, threads, perThread, restockIds);
+            pass = run("Atomic increment", (id, qty, date) -> dao.processRestock(id, SUPPLIER, qty, null, date).getRestockId(),
+                    itemId, threads, perThread, restockIds);
+        } finally {
+            cleanUp(itemId, quantity, lastRestocked, restockIds);
+        }
+        System.out.println(pass ? "PASS: no lost updates with the atomic increment" : "FAIL: the atomic increment lost updates");
+    }
+
+    // Returns true when the quantity went up by exactly the units restocked
+    private static boolean run(String label, Restock restock, long itemId, int threads, int perThread,
+                               Queue<Long> restockIds) throws Exception {
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Date today = Date.valueOf(LocalDate.now());
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    try {
+                        restockIds.add(restock.run(itemId, 1, today));
+                        done.incrementAndGet();
+                    } catch (SQLException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        int before = readQuantity(itemId);
+        long retriesBefore = TransactionRetry.getRetryCount();
+        long start = System.nanoTime();
+        startGate.countDown();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int after = readQuantity(itemId);
+        int lost = done.get() - (after - before);
+
+        System.out.println(label);
+        System.out.printf("  Restocks   %6d ok  %6d failed  %6d retried%n", done.get(), failed.get(),
+                TransactionRetry.getRetryCount() - retriesBefore);
+        System.out.printf("  Quantity   %d -> %d, lost updates: %d%n", before, after, lost);
+        System.out.printf("  Throughput %8.1f restocks/s (%.2f s)%n%n", done.get() / seconds, seconds);
+        return lost == 0;
+    }
+
+    // processRestock as it was: read the quantity, add in Java, write the total back
+    private static long readThenWriteRestock(long itemId, int quantity, Date date) throws SQLException {
+        return TransactionRetry.run("readThenWriteRestock", () -> {
+            Connection conn = null;
+            try {
+                conn = DatabaseConnection.getConnection();
+                conn.setAutoCommit(false);
+                int current;
+                try (PreparedStatement ps = conn.prepareStatement("SELECT quantity_on_hand FROM inventory_item WHERE item_id = ?")) {
+                    ps.setLong(1, itemId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                        current = rs.getInt(1);
+                    }
+                }
+                long restockId;
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "INSERT INTO restock (item_id, supplier, quantity, notes, restock_date) VALUES (?, ?, ?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setLong(1, itemId);
+                    ps.setString(2, SUPPLIER);
+                    ps.setInt(3, quantity);
+                    ps.setString(4, null);
+                    ps.setDate(5, date);
+                    ps.executeUpdate();
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        rs.next();
+                        restockId = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "UPDATE inventory_item SET quantity_on_hand = ?, last_restocked = ? WHERE item_id = ?")) {
+                    ps.setInt(1, current + quantity);
+                    ps.setDate(2, date);
+                    ps.setLong(3, itemId);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return restockId;
+            } catch (SQLException e) {
+                if (conn != null) {
+                    conn.rollback();
+                }
+                throw e;
+            } finally {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    DatabaseConnection.closeConnection(conn);
+                }
+            }
+        });
+    }
+
+    private static Long firstItemId() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(item_id) FROM inventory_item");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long id = rs.getLong(1);
+                return rs.wasNull() ? null : id;
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static int readQuantity(long itemId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT quantity_on_hand FROM inventory_item WHERE item_id = ?")) {
+                ps.setLong(1, itemId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Date readLastRestocked(long itemId) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT last_restocked FROM inventory_item WHERE item_id = ?")) {
+                ps.setLong(1, itemId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getDate(1);
+                }
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static void cleanUp(long itemId, int quantity, Date lastRestocked, Queue<Long> restockIds) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM restock WHERE restock_id = ?")) {
+                for (Long id : restockIds) {
+                    ps.setLong(1, id);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE inventory_item SET quantity_on_hand = ?, last_restocked = ? WHERE item_id = ?")) {
+                ps.setInt(1, quantity);
+                ps.setDate(2, lastRestocked);
+                ps.setLong(3, itemId);
+                ps.executeUpdate();
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        System.out.println("Removed " + restockIds.size() + " test restocks and restored the item's quantity.");
+    }
+}
@@ -0,0 +1,143 @@
+package dao;
+
+import models.RestockImportResult;
+import models.RestockLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a supplier delivery file and applies it with RestockDAO.processBulkRestock.
+ * One delivery line per row: item (ID or exact name), supplier, quantity, date (yyyy-MM-dd, blank
+ * for today) and optional notes, comma-separated, with "double quotes" around fields that contain
+ * commas. A first row whose quantity column reads "quantity" or "qty" is taken as a header; any other
+ * first row is a delivery line like the rest.
+ * Rows that can't be read are passed on with the reason, so they are reported along with the rest.
+ * Usage: java dao.RestockCsvImporter delivery.csv [--lenient]
+ */
+public class RestockCsvImporter {
+    private final RestockDAO restockDAO;
+
+    public RestockCsvImporter() {
+        this(new RestockDAO());
+    }
+
+    public RestockCsvImporter(RestockDAO restockDAO) {
+        this.restockDAO = restockDAO;
+    }
+
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length == 0) {
+            System.err.println("Usage: java dao.RestockCsvImporter delivery.csv [--lenient]");
+            return;
+        }
+        boolean lenient = args.length > 1 && args[1].equals("--lenient");
+        RestockImportResult result = new RestockCsvImporter().importFile(Paths.get(args[0]), lenient);
+        System.out.println(summarize(result));
+        result.getErrors().forEach(error -> System.out.println("  " + error));
+    }
+
+    public RestockImportResult importFile(Path file, boolean lenient) throws IOException, SQLException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return restockDAO.processBulkRestock(parse(reader), lenient);
+        }
+    }
+
+    public static String summarize(RestockImportResult result) {
+        if (result.getLinesApplied() == 0 && result.hasErrors()) {
+            return "Nothing imported: " + result.getErrors().size() + " of " + result.getLinesRead() + " lines have errors.";
+        }
+        return String.format("Imported %d of %d lines: %d units added to %d items%s.", result.getLinesApplied(),
+                result.getLinesRead(), result.getUnitsAdded(), result.getItemsUpdated(),
+                result.hasErrors() ? ", " + result.getErrors().size() + " skipped" : "");
+    }
+
+    public static List<RestockLine> parse(BufferedReader reader) throws IOException {
+        List<RestockLine> lines = new ArrayList<>();
+        String text;
+        int lineNumber = 0;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && text.startsWith("\uFEFF")) {
+                text = text.substring(1); // byte order mark written by Excel (and our own CSV export)
+            }
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            List<String> fields = splitFields(text);
+            if (lineNumber == 1 && isHeader(fields)) {
+                continue;
+            }
+            lines.add(parseLine(lineNumber, fields));
+        }
+        return lines;
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.size() >= 3 && (fields.get(2).equalsIgnoreCase("quantity") || fields.get(2).equalsIgnoreCase("qty"));
+    }
+
+    private static RestockLine parseLine(int lineNumber, List<String> fields) {
+        if (fields.size() < 3) {
+            return RestockLine.unreadable(lineNumber, "expected item, supplier, quantity, date");
+        }
+        String item = fields.get(0);
+        String supplier = fields.get(1);
+        int quantity;
+        try {
+            quantity = Integer.parseInt(fields.get(2));
+        } catch (NumberFormatException e) {
+            return RestockLine.unreadable(lineNumber, "quantity '" + fields.get(2) + "' is not a whole number");
+        }
+        LocalDate date = LocalDate.now();
+        if (fields.size() > 3 && !fields.get(3).isEmpty()) {
+            try {
+                date = LocalDate.parse(fields.get(3));
+            } catch (DateTimeParseException e) {
+                return RestockLine.unreadable(lineNumber, "date '" + fields.get(3) + "' is not yyyy-MM-dd");
+            }
+        }
+        String notes = fields.size() > 4 && !fields.get(4).isEmpty() ? fields.get(4) : null;
+        Long itemId = item.matches("\\d{1,18}") ? Long.valueOf(item) : null;
+        return new RestockLine(lineNumber, itemId, itemId == null ? item : null,
+                supplier.isEmpty() ? null : supplier, quantity, date, notes);
+    }
+
+    // Comma-separated fields, trimmed; "quoted" fields may contain commas and doubled "" quotes
+    private static List<String> splitFields(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+}
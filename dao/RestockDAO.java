@@ -1,14 +1,42 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.TransactionRetry;
+import database.UnitOfWork;
+import models.RestockImportResult;
+import models.RestockLine;
+import models.RestockResult;
+
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 public class RestockDAO {
+    // Column sizes in the schema: restock.supplier is VARCHAR(255) (characters), restock.notes is TEXT (bytes)
+    private static final int MAX_SUPPLIER_CHARS = 255;
+    private static final int MAX_NOTES_BYTES = 65_535;
 
     // TRANSACTION 4: Inventory Restocking
-    public Long processRestock(Long itemId, String supplier, int quantity, String notes, java.sql.Date restockDate) throws SQLException {
+    public RestockResult processRestock(Long itemId, String supplier, int quantity, String notes, java.sql.Date restockDate) throws SQLException {
+        return TransactionRetry.run("processRestock", () -> processRestockOnce(itemId, supplier, quantity, notes, restockDate));
+    }
+
+    private RestockResult processRestockOnce(Long itemId, String supplier, int quantity, String notes, java.sql.Date restockDate) throws SQLException {
+        // STEP 1: Validate quantity
+        if (quantity <= 0) {
+            throw new SQLException("Restock quantity must be greater than zero!");
+        }
+
         Connection conn = null;
         PreparedStatement pstmt = null;
         ResultSet rs = null;
@@ -17,25 +45,24 @@ public class RestockDAO {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            // STEP 1: Retrieve current inventory levels
-            String itemSql = "SELECT quantity_on_hand FROM inventory_item WHERE item_id = ?";
-            pstmt = conn.prepareStatement(itemSql);
-            pstmt.setLong(1, itemId);
-            rs = pstmt.executeQuery();
+            // STEP 2: Add the delivery to the item in the database. The increment runs under the row lock,
+            // so concurrent deliveries can't overwrite each other, and LAST_INSERT_ID(expr) sends the new
+            // quantity back with the update instead of needing a read before it.
+            String updateInventorySql = "UPDATE inventory_item " +
+                    "SET quantity_on_hand = LAST_INSERT_ID(quantity_on_hand + ?), last_restocked = ? WHERE item_id = ?";
+            pstmt = conn.prepareStatement(updateInventorySql, Statement.RETURN_GENERATED_KEYS);
+            pstmt.setInt(1, quantity);
+            pstmt.setDate(2, restockDate);
+            pstmt.setLong(3, itemId);
 
-            if (!rs.next()) {
+            if (pstmt.executeUpdate() == 0) {
                 throw new SQLException("Inventory item not found!");
             }
-
-            int currentQuantity = rs.getInt("quantity_on_hand");
+            rs = pstmt.getGeneratedKeys();
+            int newQuantity = rs.next() ? rs.getInt(1) : readQuantityOnHand(conn, itemId); // no key when the new value is 0
             rs.close();
             pstmt.close();
 
-            // STEP 2: Validate quantity
-            if (quantity <= 0) {
-                throw new SQLException("Restock quantity must be greater than zero!");
-            }
-
             // STEP 3: Insert restocking record
             String insertRestockSql = "INSERT INTO restock (item_id, supplier, quantity, notes, restock_date) VALUES (?, ?, ?, ?, ?)";
             pstmt = conn.prepareStatement(insertRestockSql, Statement.RETURN_GENERATED_KEYS);
@@ -48,25 +75,231 @@ public class RestockDAO {
             pstmt.executeUpdate();
             rs = pstmt.getGeneratedKeys();
 
-            Long restockId = null;
+            long restockId = 0;
             if (rs.next()) {
                 restockId = rs.getLong(1);
             }
             rs.close();
             pstmt.close();
 
-            // STEP 4: Update inventory with new quantity
-            int newQuantity = currentQuantity + quantity;
-            String updateInventorySql = "UPDATE inventory_item SET quantity_on_hand = ?, last_restocked = ? WHERE item_id = ?";
+            // STEP 4: A back-dated restock changes a closed month's inventory rollup
+            if (restockDate != null) {
+                ReportFacts.markDirty(conn, restockDate.toLocalDate());
+            }
+
+            conn.commit();
+            // Every month's inventory report shows the current quantity on hand
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.INVENTORY));
+            return new RestockResult(restockId, itemId, quantity, newQuantity);
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+
+    // The item's quantity as this transaction sees it (its own update included)
+    private static int readQuantityOnHand(Connection conn, Long itemId) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT quantity_on_hand FROM inventory_item WHERE item_id = ?")) {
+            ps.setLong(1, itemId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    // BULK RESTOCK: a whole supplier delivery. Every line is checked before anything is written, item
+    // names are resolved with one query, and all restock rows and quantity increments go in one
+    // transaction. Strict mode applies nothing if any line is bad; lenient mode applies the good lines
+    // and reports the rest.
+    public RestockImportResult processBulkRestock(List<RestockLine> lines, boolean lenient) throws SQLException {
+        List<String> errors = new ArrayList<>();
+
+        // STEP 1: Check each line on its own
+        List<RestockLine> candidates = new ArrayList<>();
+        for (RestockLine line : lines) {
+            String problem = line.getProblem();
+            if (problem == null && line.getItemId() == null && (line.getItemName() == null || line.getItemName().isEmpty())) {
+                problem = "no item given";
+            } else if (problem == null && line.getQuantity() <= 0) {
+                problem = "quantity must be greater than zero";
+            } else if (problem == null && line.getRestockDate() == null) {
+                problem = "no restock date";
+            } else if (problem == null && line.getSupplier() != null
+                    && line.getSupplier().codePointCount(0, line.getSupplier().length()) > MAX_SUPPLIER_CHARS) {
+                problem = "supplier is longer than " + MAX_SUPPLIER_CHARS + " characters";
+            } else if (problem == null && line.getNotes() != null
+                    && line.getNotes().getBytes(StandardCharsets.UTF_8).length > MAX_NOTES_BYTES) {
+                problem = "notes are longer than " + MAX_NOTES_BYTES + " bytes";
+            }
+            if (problem != null) {
+                errors.add("Line " + line.getLineNumber() + ": " + problem);
+            } else {
+                candidates.add(line);
+            }
+        }
+
+        // STEP 2: Resolve every item id and name in one query
+        Map<String, Long> items = findItems(candidates);
+        List<RestockLine> valid = new ArrayList<>();
+        for (RestockLine line : candidates) {
+            String key = line.getItemId() != null ? "#" + line.getItemId() : line.getItemName();
+            Long itemId = items.get(key);
+            if (itemId == null) {
+                errors.add("Line " + line.getLineNumber() + ": unknown item "
+                        + (line.getItemId() != null ? "ID " + line.getItemId() : "'" + line.getItemName() + "'"));
+            } else {
+                valid.add(line.withItemId(itemId));
+            }
+        }
+
+        if (valid.isEmpty() || (!errors.isEmpty() && !lenient)) {
+            return new RestockImportResult(lines.size(), 0, 0, 0, errors);
+        }
+
+        // STEP 3: Apply the good lines in one transaction
+        int itemsUpdated = TransactionRetry.run("processBulkRestock", () -> applyBulkRestock(valid));
+        UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportType.INVENTORY));
+
+        long units = 0;
+        for (RestockLine line : valid) {
+            units += line.getQuantity();
+        }
+        return new RestockImportResult(lines.size(), valid.size(), itemsUpdated, units, errors);
+    }
+
+    // Item ids keyed by "#<id>" for lines that give an id and by the name exactly as the line gives it.
+    // Names are matched by the database, so "creme" finds "Crème" wherever the column's collation says so.
+    private Map<String, Long> findItems(List<RestockLine> lines) throws SQLException {
+        Set<Long> ids = new LinkedHashSet<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (RestockLine line : lines) {
+            if (line.getItemId() != null) {
+                ids.add(line.getItemId());
+            } else {
+                names.add(line.getItemName());
+            }
+        }
+        Map<String, Long> items = new HashMap<>();
+        if (ids.isEmpty() && names.isEmpty()) {
+            return items;
+        }
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            // Each requested name is selected back with the item it matched, so the key is the name as given
+            List<String> parts = new ArrayList<>();
+            if (!ids.isEmpty()) {
+                parts.add("SELECT item_id, NULL AS requested FROM inventory_item WHERE item_id IN (" + placeholders(ids.size()) + ")");
+            }
+            if (!names.isEmpty()) {
+                parts.add("SELECT ii.item_id, req.requested FROM (" + String.join(" UNION ALL ", Collections.nCopies(names.size(), "SELECT ? AS requested")) + ") req " +
+                        "JOIN inventory_item ii ON ii.name = req.requested");
+            }
+            pstmt = conn.prepareStatement(String.join(" UNION ALL ", parts));
+            int index = 1;
+            for (Long id : ids) {
+                pstmt.setLong(index++, id);
+            }
+            for (String name : names) {
+                pstmt.setString(index++, name);
+            }
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                long itemId = rs.getLong("item_id");
+                String requested = rs.getString("requested");
+                items.put(requested == null ? "#" + itemId : requested, itemId);
+            }
+            return items;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // Returns the number of items updated
+    private int applyBulkRestock(List<RestockLine> lines) throws SQLException {
+        // One increment per item, taken in item id order so concurrent deliveries lock rows in the same order
+        Map<Long, Integer> totals = new TreeMap<>();
+        Map<Long, LocalDate> latest = new HashMap<>();
+        Set<LocalDate> months = new TreeSet<>();
+        for (RestockLine line : lines) {
+            totals.merge(line.getItemId(), line.getQuantity(), Integer::sum);
+            latest.merge(line.getItemId(), line.getRestockDate(), (a, b) -> a.isAfter(b) ? a : b);
+            months.add(ReportFacts.monthStart(line.getRestockDate()));
+        }
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // STEP 1: Add each item's total, as one batch
+            String updateInventorySql = "UPDATE inventory_item SET quantity_on_hand = quantity_on_hand + ?, last_restocked = ? " +
+                    "WHERE item_id = ?";
             pstmt = conn.prepareStatement(updateInventorySql);
-            pstmt.setInt(1, newQuantity);
-            pstmt.setDate(2, restockDate);
-            pstmt.setLong(3, itemId);
-            pstmt.executeUpdate();
+            List<Long> itemIds = new ArrayList<>(totals.keySet());
+            for (Long itemId : itemIds) {
+                pstmt.setInt(1, totals.get(itemId));
+                pstmt.setDate(2, java.sql.Date.valueOf(latest.get(itemId)));
+                pstmt.setLong(3, itemId);
+                pstmt.addBatch();
+            }
+            int[] updated = pstmt.executeBatch();
+            pstmt.close();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    throw new SQLException("Inventory item " + itemIds.get(i) + " was deleted during the import!");
+                }
+            }
+
+            // STEP 2: One restock row per line; rewriteBatchedStatements sends them as multi-row INSERTs
+            String insertRestockSql = "INSERT INTO restock (item_id, supplier, quantity, notes, restock_date) VALUES (?, ?, ?, ?, ?)";
+            pstmt = conn.prepareStatement(insertRestockSql);
+            for (RestockLine line : lines) {
+                pstmt.setLong(1, line.getItemId());
+                pstmt.setString(2, line.getSupplier());
+                pstmt.setInt(3, line.getQuantity());
+                pstmt.setString(4, line.getNotes());
+                pstmt.setDate(5, java.sql.Date.valueOf(line.getRestockDate()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
             pstmt.close();
 
+            // STEP 3: Back-dated deliveries change closed months' inventory rollups
+            for (LocalDate month : months) {
+                ReportFacts.markDirty(conn, month);
+            }
+
             conn.commit();
-            return restockId;
+            return totals.size();
 
         } catch (SQLException e) {
             if (conn != null) {
@@ -78,7 +311,6 @@ public class RestockDAO {
             }
             throw e;
         } finally {
-            if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             if (conn != null) {
                 conn.setAutoCommit(true);
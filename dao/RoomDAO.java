@@ -1,8 +1,12 @@
 package dao;
 
+import dao.ReportCache.ReportType;
 import database.DatabaseConnection;
+import database.UnitOfWork;
 import models.Room;
+import models.RoomSearchCriteria;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -11,6 +15,26 @@ import java.util.List;
 
 public class RoomDAO {
 
+    // SQL shared with QueryPlanVerifier
+    static final String AVAILABILITY_OVERLAP_SQL = "SELECT COUNT(*) FROM reservation " +
+            "WHERE room_id = ? " +
+            "AND status IN ('confirmed', 'checked-in') " +
+            "AND NOT (check_out <= ? OR check_in >= ?)";
+
+    // searchAvailableRooms is built from these, with the optional filters between the first two
+    static final String SEARCH_SQL = "SELECT rm.* FROM room rm WHERE rm.status <> 'maintenance'";
+    // No booking holding any night of [checkIn, checkOut); params: checkOut, checkIn
+    static final String SEARCH_NOT_BOOKED_SQL = " AND NOT EXISTS (SELECT 1 FROM reservation r" +
+            " WHERE r.room_id = rm.room_id" +
+            " AND r.status IN ('confirmed', 'checked-in')" +
+            " AND r.check_in < ? AND r.check_out > ?)";
+    // No maintenance window overlapping the stay (an open window has no end_time yet); params: checkOut, checkIn
+    static final String SEARCH_NOT_IN_MAINTENANCE_SQL = " AND NOT EXISTS (SELECT 1 FROM room_maintenance m" +
+            " WHERE m.room_id = rm.room_id" +
+            " AND m.start_time < ?" +
+            " AND (m.end_time IS NULL OR m.end_time > ?))";
+    static final String SEARCH_ORDER_SQL = " ORDER BY rm.rate_per_night, rm.room_id LIMIT ?";
+
     // CREATE
     public Long addRoom(Room room) throws SQLException {
         Connection conn = null;
@@ -19,6 +43,7 @@ public class RoomDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION: Check if room code already exists
             String checkSql = "SELECT room_id FROM room WHERE room_code = ?";
@@ -46,14 +71,34 @@ public class RoomDAO {
             pstmt.executeUpdate();
             rs = pstmt.getGeneratedKeys();
 
-            if (rs.next()) {
-                return rs.getLong(1);
+            if (!rs.next()) {
+                throw new SQLException("Failed to get room ID");
+            }
+            Long roomId = rs.getLong(1);
+
+            // Update dashboard counters (new rooms start out 'available')
+            DashboardCounters.moveRoom(conn, null, "available");
+
+            conn.commit();
+            // Room reports list every room
+            UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportCache.ROOM_REPORTS));
+            return roomId;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
             }
-            throw new SQLException("Failed to get room ID");
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -115,16 +160,7 @@ public class RoomDAO {
             rs = pstmt.executeQuery();
 
             while (rs.next()) {
-                Room room = new Room();
-                room.setRoomId(rs.getLong("room_id"));
-                room.setRoomCode(rs.getString("room_code"));
-                room.setRoomType(rs.getString("room_type"));
-                room.setBedType(rs.getString("bed_type"));
-                room.setMaxCapacity(rs.getInt("max_capacity"));
-                room.setRatePerNight(rs.getDouble("rate_per_night"));
-                room.setStatus(rs.getString("status"));
-                room.setDescription(rs.getString("description"));
-                rooms.add(room);
+                rooms.add(mapRoom(rs));
             }
             return rooms;
         } finally {
@@ -134,6 +170,96 @@ public class RoomDAO {
         }
     }
 
+    // READ - One keyset page: up to limit rooms with room_id > afterRoomId, in room_id order
+    public List<Room> getAllRooms(String statusFilter, long afterRoomId, int limit) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Room> rooms = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM room WHERE room_id > ?";
+
+            boolean filtered = statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equals("All");
+            if (filtered) {
+                sql += " AND status = ?";
+            }
+            sql += " ORDER BY room_id LIMIT ?";
+
+            pstmt = conn.prepareStatement(sql);
+
+            int index = 1;
+            pstmt.setLong(index++, afterRoomId);
+            if (filtered) {
+                pstmt.setString(index++, statusFilter);
+            }
+            pstmt.setInt(index, limit);
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                rooms.add(mapRoom(rs));
+            }
+            return rooms;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // READ - Every room matching statusFilter, handed to handler one row at a time as MySQL streams them.
+    // Returns the number of rows handled.
+    public long streamAllRooms(String statusFilter, RowHandler<Room> handler) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        long count = 0;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "SELECT * FROM room WHERE 1=1";
+
+            boolean filtered = statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equals("All");
+            if (filtered) {
+                sql += " AND status = ?";
+            }
+            sql += " ORDER BY room_id";
+
+            pstmt = StreamingQuery.prepare(conn, sql);
+
+            if (filtered) {
+                pstmt.setString(1, statusFilter);
+            }
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                handler.handle(mapRoom(rs));
+                count++;
+            }
+            return count;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static Room mapRoom(ResultSet rs) throws SQLException {
+        Room room = new Room();
+        room.setRoomId(rs.getLong("room_id"));
+        room.setRoomCode(rs.getString("room_code"));
+        room.setRoomType(rs.getString("room_type"));
+        room.setBedType(rs.getString("bed_type"));
+        room.setMaxCapacity(rs.getInt("max_capacity"));
+        room.setRatePerNight(rs.getDouble("rate_per_night"));
+        room.setStatus(rs.getString("status"));
+        room.setDescription(rs.getString("description"));
+        return room;
+    }
+
     // UPDATE
     public boolean updateRoom(Room room) throws SQLException {
         Connection conn = null;
@@ -142,6 +268,7 @@ public class RoomDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION: Check room code uniqueness if changed
             String checkSql = "SELECT room_id FROM room WHERE room_code = ? AND room_id != ?";
@@ -156,6 +283,15 @@ public class RoomDAO {
             rs.close();
             pstmt.close();
 
+            // Current status, locked so the dashboard counters move from the right bucket
+            String statusSql = "SELECT status FROM room WHERE room_id = ? FOR UPDATE";
+            pstmt = conn.prepareStatement(statusSql);
+            pstmt.setLong(1, room.getRoomId());
+            rs = pstmt.executeQuery();
+            String oldStatus = rs.next() ? rs.getString("status") : null;
+            rs.close();
+            pstmt.close();
+
             // UPDATE
             String updateSql = "UPDATE room SET room_code=?, room_type=?, bed_type=?, max_capacity=?, " +
                     "rate_per_night=?, status=?, description=? WHERE room_id=?";
@@ -168,12 +304,36 @@ public class RoomDAO {
             pstmt.setString(6, room.getStatus());
             pstmt.setString(7, room.getDescription());
             pstmt.setLong(8, room.getRoomId());
+            boolean updated = pstmt.executeUpdate() > 0;
+            pstmt.close();
 
-            return pstmt.executeUpdate() > 0;
+            // Update dashboard counters
+            if (updated) {
+                DashboardCounters.moveRoom(conn, oldStatus, room.getStatus());
+            }
+
+            conn.commit();
+            if (updated) {
+                // Code, type and rate appear in every month's room reports
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportCache.ROOM_REPORTS));
+            }
+            return updated;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -185,6 +345,7 @@ public class RoomDAO {
 
         try {
             conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
             // VALIDATION: Check if room has reservations
             String checkSql = "SELECT COUNT(*) FROM reservation WHERE room_id = ? AND status != 'cancelled'";
@@ -198,16 +359,47 @@ public class RoomDAO {
             rs.close();
             pstmt.close();
 
+            String statusSql = "SELECT status FROM room WHERE room_id = ? FOR UPDATE";
+            pstmt = conn.prepareStatement(statusSql);
+            pstmt.setLong(1, roomId);
+            rs = pstmt.executeQuery();
+            String oldStatus = rs.next() ? rs.getString("status") : null;
+            rs.close();
+            pstmt.close();
+
             // DELETE
             String deleteSql = "DELETE FROM room WHERE room_id = ?";
             pstmt = conn.prepareStatement(deleteSql);
             pstmt.setLong(1, roomId);
+            boolean deleted = pstmt.executeUpdate() > 0;
+            pstmt.close();
 
-            return pstmt.executeUpdate() > 0;
+            // Update dashboard counters
+            if (deleted) {
+                DashboardCounters.moveRoom(conn, oldStatus, null);
+            }
+
+            conn.commit();
+            if (deleted) {
+                UnitOfWork.afterCommit(() -> ReportCache.getInstance().invalidateType(ReportCache.ROOM_REPORTS));
+            }
+            return deleted;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
         } finally {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
-            DatabaseConnection.closeConnection(conn);
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
         }
     }
 
@@ -218,6 +410,8 @@ public class RoomDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getRoomById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -267,6 +461,7 @@ public class RoomDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 
@@ -277,6 +472,8 @@ public class RoomDAO {
         ResultSet rs = null;
         StringBuilder result = new StringBuilder();
 
+        // getRoomById below reuses this connection
+        UnitOfWork unit = UnitOfWork.begin();
         try {
             conn = DatabaseConnection.getConnection();
 
@@ -314,6 +511,7 @@ public class RoomDAO {
             if (rs != null) rs.close();
             if (pstmt != null) pstmt.close();
             DatabaseConnection.closeConnection(conn);
+            unit.close();
         }
     }
 
@@ -339,11 +537,7 @@ public class RoomDAO {
             pstmt.close();
 
             // Check for overlapping reservations
-            String overlapSql = "SELECT COUNT(*) FROM reservation " +
-                    "WHERE room_id = ? " +
-                    "AND status IN ('confirmed', 'checked-in') " +
-                    "AND NOT (check_out <= ? OR check_in >= ?)";
-            pstmt = conn.prepareStatement(overlapSql);
+            pstmt = conn.prepareStatement(AVAILABILITY_OVERLAP_SQL);
             pstmt.setLong(1, roomId);
             pstmt.setDate(2, Date.valueOf(checkIn));
             pstmt.setDate(3, Date.valueOf(checkOut));
@@ -359,6 +553,100 @@ public class RoomDAO {
             DatabaseConnection.closeConnection(conn);
         }
     }
+
+    // SEARCH - Rooms matching the criteria that are free for the whole stay, cheapest first.
+    // One set-based query: anti-joins against overlapping bookings and maintenance windows
+    // instead of a check per room. Keyset-paginated on (rate_per_night, room_id): pass null for
+    // the first page, then the last room of the previous page.
+    public List<Room> searchAvailableRooms(RoomSearchCriteria criteria, Room after, int limit) throws SQLException {
+        if (criteria.getCheckIn() == null || criteria.getCheckOut() == null
+                || !criteria.getCheckOut().isAfter(criteria.getCheckIn())) {
+            throw new SQLException("Check-out date must be after check-in date!");
+        }
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<Room> rooms = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            StringBuilder sql = new StringBuilder(SEARCH_SQL);
+            List<Object> params = new ArrayList<>();
+
+            if (criteria.getRoomType() != null && !criteria.getRoomType().isEmpty()
+                    && !criteria.getRoomType().equals("All")) {
+                sql.append(" AND rm.room_type = ?");
+                params.add(criteria.getRoomType());
+            }
+            if (criteria.getMinCapacity() > 0) {
+                sql.append(" AND rm.max_capacity >= ?");
+                params.add(criteria.getMinCapacity());
+            }
+            if (criteria.getMaxRate() != null) {
+                sql.append(" AND rm.rate_per_night <= ?");
+                params.add(BigDecimal.valueOf(criteria.getMaxRate()));
+            }
+
+            sql.append(SEARCH_NOT_BOOKED_SQL);
+            params.add(Date.valueOf(criteria.getCheckOut()));
+            params.add(Date.valueOf(criteria.getCheckIn()));
+
+            sql.append(SEARCH_NOT_IN_MAINTENANCE_SQL);
+            params.add(Timestamp.valueOf(criteria.getCheckOut().atStartOfDay()));
+            params.add(Timestamp.valueOf(criteria.getCheckIn().atStartOfDay()));
+
+            if (after != null) {
+                sql.append(" AND (rm.rate_per_night > ? OR (rm.rate_per_night = ? AND rm.room_id > ?))");
+                // Compare as DECIMAL so rooms at exactly the boundary rate aren't skipped or repeated
+                BigDecimal afterRate = BigDecimal.valueOf(after.getRatePerNight());
+                params.add(afterRate);
+                params.add(afterRate);
+                params.add(after.getRoomId());
+            }
+
+            sql.append(SEARCH_ORDER_SQL);
+            params.add(limit);
+
+            pstmt = conn.prepareStatement(sql.toString());
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+
+            rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                rooms.add(mapRoom(rs));
+            }
+            return rooms;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Distinct room types, for search filters
+    public List<String> getRoomTypes() throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<String> types = new ArrayList<>();
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            pstmt = conn.prepareStatement("SELECT DISTINCT room_type FROM room ORDER BY room_type");
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                types.add(rs.getString("room_type"));
+            }
+            return types;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
 }
 
 
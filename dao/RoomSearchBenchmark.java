@@ -0,0 +1,104 @@
+package dao;
+
+import models.Room;
+import models.RoomSearchCriteria;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares two ways of finding free rooms for a stay:
+ * the old room-by-room isRoomAvailable loop and the set-based searchAvailableRooms query
+ * (first page and all pages).
+ * Seed a large data set first, e.g. java dao.SyntheticDataSeeder 5000 200 (5k rooms, 1M reservations).
+ * Usage: java dao.RoomSearchBenchmark [runs]
+ */
+public class RoomSearchBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    public static void main(String[] args) throws SQLException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        RoomDAO dao = new RoomDAO();
+        List<Room> allRooms = dao.getAllRooms("All");
+
+        LocalDate checkIn = LocalDate.now().plusDays(7);
+        LocalDate checkOut = checkIn.plusDays(3);
+        RoomSearchCriteria criteria = new RoomSearchCriteria(checkIn, checkOut);
+        RoomSearchCriteria filtered = new RoomSearchCriteria(checkIn, checkOut);
+        filtered.setRoomType("Deluxe");
+        filtered.setMinCapacity(3);
+        filtered.setMaxRate(4000.0);
+
+        System.out.println("===========================================");
+        System.out.println("Room Search Benchmark");
+        System.out.println(allRooms.size() + " rooms, stay " + checkIn + " to " + checkOut + ", " + runs + " runs");
+        System.out.println("===========================================\n");
+
+        // Room by room, as the booking panel used to do it (one overlap query per room)
+        long[] perRoom = time(Math.max(1, runs / 10), () -> {
+            int free = 0;
+            for (Room room : allRooms) {
+                if (dao.isRoomAvailable(room.getRoomId(), checkIn, checkOut)) {
+                    free++;
+                }
+            }
+            return free;
+        });
+        print("isRoomAvailable loop      ", perRoom);
+
+        print("search, first page        ", time(runs, () -> dao.searchAvailableRooms(criteria, null, PAGE_SIZE).size()));
+        print("search, all pages         ", time(runs, () -> searchAllPages(dao, criteria)));
+        print("search, Deluxe cap>=3 <=4k", time(runs, () -> searchAllPages(dao, filtered)));
+    }
+
+    private static int searchAllPages(RoomDAO dao, RoomSearchCriteria criteria) throws SQLException {
+        int total = 0;
+        Room after = null;
+        while (true) {
+            List<Room> page = dao.searchAvailableRooms(criteria, after, PAGE_SIZE);
+            total += page.size();
+            if (page.size() < PAGE_SIZE) {
+                return total;
+            }
+            after = page.get(page.size() - 1);
+        }
+    }
+
+    private interface Task {
+        int run() throws SQLException;
+    }
+
+    private static long[] time(int runs, Task task) throws SQLException {
+        task.run(); // warm-up
+        long[] latencies = new long[runs];
+        int result = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            result = task.run();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.print("(" + result + " free) ");
+        return latencies;
+    }
+
+    private static void print(String label, long[] sorted) {
+        long total = 0;
+        for (long l : sorted) {
+            total += l;
+        }
+        System.out.printf("%s  avg=%9.3f ms  p50=%9.3f ms  p95=%9.3f ms%n",
+                label,
+                total / (double) sorted.length / 1e6,
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.95) / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,11 @@
+package dao;
+
+import java.sql.SQLException;
+
+// Receives rows one at a time from the DAO stream* methods.
+// It runs while the result set is still open on a pooled connection, so keep it quick and
+// don't call back into the DAOs from it; throw to stop the stream early.
+@FunctionalInterface
+public interface RowHandler<T> {
+    void handle(T row) throws SQLException;
+}
@@ -0,0 +1,89 @@
+package dao;
+
+import database.DatabaseConnection;
+import database.StatementCache;
+
+import java.sql.*;
+import java.util.Arrays;
+
+/**
+ * Compares per-call latency of ReservationDAO.getReservationById with the
+ * prepared statement cache turned off and on.
+ * Run against a database that has at least one reservation.
+ * Usage: java dao.StatementCacheBenchmark [reservationId] [iterations]
+ */
+public class StatementCacheBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 500;
+
+    public static void main(String[] args) throws SQLException {
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        Long reservationId = args.length > 0 ? Long.parseLong(args[0]) : findAnyReservationId();
+        if (reservationId == null) {
+            System.err.println("No reservations found - create one before running the benchmark.");
+            return;
+        }
+
+        ReservationDAO dao = new ReservationDAO();
+        System.out.println("===========================================");
+        System.out.println("Statement Cache Benchmark");
+        System.out.println("getReservationById(" + reservationId + "), " + iterations + " calls per run");
+        System.out.println("===========================================\n");
+
+        long[] off = run(dao, reservationId, iterations, false);
+        long[] on = run(dao, reservationId, iterations, true);
+
+        print("Cache OFF", off);
+        print("Cache ON ", on);
+        System.out.println();
+        System.out.println(StatementCache.getStatsSummary());
+    }
+
+    private static long[] run(ReservationDAO dao, Long reservationId, int iterations, boolean cacheEnabled)
+            throws SQLException {
+        StatementCache.setEnabled(cacheEnabled);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            dao.getReservationById(reservationId);
+        }
+        StatementCache.resetCounters();
+
+        long[] latencies = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            dao.getReservationById(reservationId);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static void print(String label, long[] sorted) {
+        long total = 0;
+        for (long l : sorted) {
+            total += l;
+        }
+        System.out.printf("%s  avg=%7.1f us  p50=%7.1f us  p95=%7.1f us  p99=%7.1f us%n",
+                label,
+                total / (double) sorted.length / 1000.0,
+                percentile(sorted, 0.50) / 1000.0,
+                percentile(sorted, 0.95) / 1000.0,
+                percentile(sorted, 0.99) / 1000.0);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static Long findAnyReservationId() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT MIN(reservation_id) FROM reservation");
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                long id = rs.getLong(1);
+                return rs.wasNull() ? null : id;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package dao;
+
+import java.sql.*;
+
+// Statements for the stream* list methods.
+// Connector/J buffers the whole result set in memory unless the fetch size is Integer.MIN_VALUE
+// on a forward-only, read-only statement; then it hands rows over one at a time as they arrive.
+// The 3-argument prepareStatement also keeps these one-off statements out of the statement cache.
+final class StreamingQuery {
+
+    private StreamingQuery() {}
+
+    static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        pstmt.setFetchSize(Integer.MIN_VALUE);
+        return pstmt;
+    }
+}
@@ -0,0 +1,334 @@
+package dao;
+
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with synthetic rooms, guests, reservations and report activity for benchmarks.
+ * Synthetic rows are tagged (room codes, amenity and item names start with SYN-, guest emails with
+ * synthetic+) so they can be removed again with --clean. Reservations never overlap within a room; past
+ * stays are checked-out (and paid), current ones checked-in, future ones confirmed, and a few are cancelled.
+ * Amenity rentals and restocks are spread over the two years before today.
+ * Usage: java dao.SyntheticDataSeeder [rooms] [reservationsPerRoom] [guests]
+ *        java dao.SyntheticDataSeeder --clean
+ * Defaults: 5000 rooms x 200 reservations (1M reservations), 20000 guests,
+ * 5 amenity rentals per guest and 200 restocks per inventory item.
+ */
+public class SyntheticDataSeeder {
+
+    private static final int ROWS_PER_INSERT = 1000;
+    private static final String[] ROOM_TYPES = {"Standard", "Deluxe", "Suite", "Cottage"};
+    private static final String[] BED_TYPES = {"Single", "Double", "Queen", "King"};
+    private static final String[] CHANNELS = {"walk-in", "online", "phone", "agent"};
+    private static final int AMENITIES = 50;
+    private static final int INVENTORY_ITEMS = 500;
+    private static final int RENTALS_PER_GUEST = 5;
+    private static final int RESTOCKS_PER_ITEM = 200;
+    private static final int HISTORY_DAYS = 730;
+    private static final String RESERVATION_INSERT =
+            "INSERT INTO reservation (guest_id, room_id, check_in, check_out, booking_channel, status) VALUES ";
+    private static final String RESERVATION_VALUES = "(?, ?, ?, ?, ?, ?)";
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length > 0 && args[0].equals("--clean")) {
+            clean();
+            return;
+        }
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int reservationsPerRoom = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int guests = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+
+        Random random = new Random(42);
+        long start = System.currentTimeMillis();
+
+        long firstGuestId = seedGuests(guests);
+        System.out.println("Inserted " + guests + " guests");
+
+        List<Long> roomIds = seedRooms(rooms, random);
+        System.out.println("Inserted " + rooms + " rooms");
+
+        long reservations = seedReservations(roomIds, reservationsPerRoom, firstGuestId, guests, random);
+        System.out.println("Inserted " + reservations + " reservations");
+
+        int payments = seedPayments(roomIds);
+        System.out.println("Inserted " + payments + " payments");
+
+        long rentals = seedAmenityRentals(firstGuestId, guests, random);
+        System.out.println("Inserted " + rentals + " amenity rentals");
+
+        long restocks = seedRestocks(random);
+        System.out.println("Inserted " + restocks + " restocks");
+
+        // Seeded rows bypass the DAOs, so bring the dashboard counters and report rollups back in line
+        new DashboardDAO().reconcileCounters();
+        new ReportFactRefresher().rebuildAll();
+        System.out.printf("Done in %.1f s%n", (System.currentTimeMillis() - start) / 1000.0);
+    }
+
+    private static long seedGuests(int count) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            long tag = System.currentTimeMillis();
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rows.add(new Object[]{"Guest" + i, "Synthetic", "synthetic+" + tag + "." + i + "@example.com"});
+            }
+            insertRows(conn, "INSERT INTO guest (first_name, last_name, email) VALUES ", "(?, ?, ?)", rows);
+
+            try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(guest_id) FROM guest WHERE email LIKE ?")) {
+                ps.setString(1, "synthetic+" + tag + ".%");
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static List<Long> seedRooms(int count, Random random) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            long tag = System.currentTimeMillis() % 100000;
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int type = random.nextInt(ROOM_TYPES.length);
+                double rate = 1500 + type * 1000 + random.nextInt(40) * 50;
+                rows.add(new Object[]{"SYN-" + tag + "-" + i, ROOM_TYPES[type], BED_TYPES[random.nextInt(BED_TYPES.length)],
+                        1 + random.nextInt(6), rate});
+            }
+            insertRows(conn, "INSERT INTO room (room_code, room_type, bed_type, max_capacity, rate_per_night) VALUES ",
+                    "(?, ?, ?, ?, ?)", rows);
+
+            List<Long> ids = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement("SELECT room_id FROM room WHERE room_code LIKE ? ORDER BY room_id")) {
+                ps.setString(1, "SYN-" + tag + "-%");
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getLong(1));
+                    }
+                }
+            }
+            return ids;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Back-to-back stays per room, spread around today, with random gaps between them
+    private static long seedReservations(List<Long> roomIds, int perRoom, long firstGuestId, int guests, Random random)
+            throws SQLException {
+        Connection conn = null;
+        long inserted = 0;
+        try {
+            conn = DatabaseConnection.getConnection();
+            LocalDate today = LocalDate.now();
+            List<Object[]> rows = new ArrayList<>();
+
+            for (Long roomId : roomIds) {
+                LocalDate checkIn = today.minusDays(perRoom * 3L + random.nextInt(30));
+                for (int i = 0; i < perRoom; i++) {
+                    checkIn = checkIn.plusDays(random.nextInt(4));
+                    LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+
+                    String status;
+                    if (random.nextInt(50) == 0) {
+                        status = "cancelled";
+                    } else if (!checkOut.isAfter(today)) {
+                        status = "checked-out";
+                    } else if (!checkIn.isAfter(today)) {
+                        status = "checked-in";
+                    } else {
+                        status = "confirmed";
+                    }
+
+                    rows.add(new Object[]{firstGuestId + random.nextInt(guests), roomId, Date.valueOf(checkIn),
+                            Date.valueOf(checkOut), CHANNELS[random.nextInt(CHANNELS.length)], status});
+                    checkIn = checkOut;
+                }
+
+                if (rows.size() >= ROWS_PER_INSERT * 10) {
+                    inserted += insertRows(conn, RESERVATION_INSERT, RESERVATION_VALUES, rows);
+                    rows.clear();
+                    System.out.println("  " + inserted + " reservations...");
+                }
+            }
+            inserted += insertRows(conn, RESERVATION_INSERT, RESERVATION_VALUES, rows);
+            return inserted;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // One paid payment per checked-out synthetic stay, made at check-out
+    private static int seedPayments(List<Long> roomIds) throws SQLException {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            String sql = "INSERT INTO payment (reservation_id, amount, method, payment_time, status) " +
+                    "SELECT r.reservation_id, DATEDIFF(r.check_out, r.check_in) * rm.rate_per_night, 'card', " +
+                    "  TIMESTAMP(r.check_out, '10:00:00'), 'paid' " +
+                    "FROM reservation r JOIN room rm ON r.room_id = rm.room_id " +
+                    "WHERE rm.room_id BETWEEN ? AND ? AND rm.room_code LIKE 'SYN-%' AND r.status = 'checked-out'";
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setLong(1, roomIds.get(0));
+            pstmt.setLong(2, roomIds.get(roomIds.size() - 1));
+            return pstmt.executeUpdate();
+        } finally {
+            if (pstmt != null) pstmt.close();
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static long seedAmenityRentals(long firstGuestId, int guests, Random random) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            long tag = System.currentTimeMillis() % 100000;
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < AMENITIES; i++) {
+                rows.add(new Object[]{"SYN-" + tag + "-amenity-" + i, 100 + random.nextInt(20) * 50});
+            }
+            insertRows(conn, "INSERT INTO amenity (name, rate) VALUES ", "(?, ?)", rows);
+            List<Long> amenityIds = idsByName(conn, "SELECT amenity_id FROM amenity WHERE name LIKE ?", "SYN-" + tag + "-amenity-%");
+
+            LocalDate today = LocalDate.now();
+            long inserted = 0;
+            rows.clear();
+            for (long i = 0, total = (long) guests * RENTALS_PER_GUEST; i < total; i++) {
+                LocalDateTime start = today.minusDays(random.nextInt(HISTORY_DAYS)).atTime(8 + random.nextInt(10), 0);
+                rows.add(new Object[]{firstGuestId + random.nextInt(guests), amenityIds.get(random.nextInt(amenityIds.size())),
+                        Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(4))),
+                        1 + random.nextInt(3), 100 + random.nextInt(20) * 50, "returned"});
+                if (rows.size() >= ROWS_PER_INSERT * 10) {
+                    inserted += insertRentals(conn, rows);
+                    rows.clear();
+                }
+            }
+            return inserted + insertRentals(conn, rows);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static int insertRentals(Connection conn, List<Object[]> rows) throws SQLException {
+        return insertRows(conn, "INSERT INTO amenity_rental (guest_id, amenity_id, rent_start, rent_end, qty, rate_per_unit, status) VALUES ",
+                "(?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private static long seedRestocks(Random random) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            long tag = System.currentTimeMillis() % 100000;
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = 0; i < INVENTORY_ITEMS; i++) {
+                rows.add(new Object[]{"SYN-" + tag + "-item-" + i, random.nextInt(500), "Synthetic Supplier " + (i % 20)});
+            }
+            insertRows(conn, "INSERT INTO inventory_item (name, quantity_on_hand, supplier) VALUES ", "(?, ?, ?)", rows);
+            List<Long> itemIds = idsByName(conn, "SELECT item_id FROM inventory_item WHERE name LIKE ?", "SYN-" + tag + "-item-%");
+
+            LocalDate today = LocalDate.now();
+            long inserted = 0;
+            rows.clear();
+            for (Long itemId : itemIds) {
+                for (int i = 0; i < RESTOCKS_PER_ITEM; i++) {
+                    LocalDateTime when = today.minusDays(random.nextInt(HISTORY_DAYS)).atTime(7 + random.nextInt(10), 0);
+                    rows.add(new Object[]{itemId, "Synthetic Supplier", 1 + random.nextInt(100), Timestamp.valueOf(when)});
+                }
+                if (rows.size() >= ROWS_PER_INSERT * 10) {
+                    inserted += insertRestocks(conn, rows);
+                    rows.clear();
+                }
+            }
+            return inserted + insertRestocks(conn, rows);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static int insertRestocks(Connection conn, List<Object[]> rows) throws SQLException {
+        return insertRows(conn, "INSERT INTO restock (item_id, supplier, quantity, restock_date) VALUES ", "(?, ?, ?, ?)", rows);
+    }
+
+    private static List<Long> idsByName(Connection conn, String sql, String namePattern) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, namePattern);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Multi-row INSERTs of ROWS_PER_INSERT rows each, committed together
+    private static int insertRows(Connection conn, String insertPrefix, String valuesTuple, List<Object[]> rows)
+            throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        conn.setAutoCommit(false);
+        try {
+            for (int from = 0; from < rows.size(); from += ROWS_PER_INSERT) {
+                int to = Math.min(rows.size(), from + ROWS_PER_INSERT);
+                StringBuilder sql = new StringBuilder(insertPrefix);
+                for (int i = from; i < to; i++) {
+                    sql.append(i > from ? ", " : "").append(valuesTuple);
+                }
+                // One-off statement text, so bypass the statement cache
+                try (PreparedStatement ps = conn.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    int index = 1;
+                    for (int i = from; i < to; i++) {
+                        for (Object value : rows.get(i)) {
+                            ps.setObject(index++, value);
+                        }
+                    }
+                    ps.executeUpdate();
+                }
+            }
+            conn.commit();
+            return rows.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void clean() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                int reservations = stmt.executeUpdate("DELETE r FROM reservation r JOIN room rm ON r.room_id = rm.room_id " +
+                        "WHERE rm.room_code LIKE 'SYN-%'");
+                int rooms = stmt.executeUpdate("DELETE FROM room WHERE room_code LIKE 'SYN-%'");
+                // Payments go with their reservations, rentals with their guests, restocks with their items
+                int guests = stmt.executeUpdate("DELETE FROM guest WHERE email LIKE 'synthetic+%'");
+                int amenities = stmt.executeUpdate("DELETE FROM amenity WHERE name LIKE 'SYN-%'");
+                int items = stmt.executeUpdate("DELETE FROM inventory_item WHERE name LIKE 'SYN-%'");
+                System.out.println("Removed " + reservations + " reservations, " + rooms + " rooms, " + guests + " guests, " +
+                        amenities + " amenities, " + items + " inventory items");
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        new DashboardDAO().reconcileCounters();
+        new ReportFactRefresher().rebuildAll();
+    }
+}
@@ -0,0 +1,33 @@
+package dao;
+
+import java.sql.*;
+
+// Cheap row-count estimates for sizing paged tables.
+// InnoDB keeps an approximate row count per table in information_schema.TABLES;
+// reading it costs nothing, unlike COUNT(*) which scans an index.
+final class TableStats {
+
+    private TableStats() {}
+
+    static long estimateRowCount(Connection conn, String table) throws SQLException {
+        String sql = "SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    long rows = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        return rows;
+                    }
+                }
+            }
+        }
+
+        // No statistics (e.g. a view or a freshly created table) - fall back to an exact count
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dao;
+
+import models.TrendReport;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Times TrendReportDAO.getTrendReport over a multi-year range ending last month and checks it
+ * against the one-second target. Seed first (e.g. java dao.SyntheticDataSeeder 500) so the range
+ * has real volume; run ReportFactRefresher --full as well to measure the rollup path rather than
+ * the live one.
+ * Usage: java dao.TrendReportBenchmark [years] [runs]
+ */
+public class TrendReportBenchmark {
+
+    private static final int WARMUP_RUNS = 3;
+    private static final long TARGET_MILLIS = 1000;
+
+    public static void main(String[] args) throws SQLException {
+        int years = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        YearMonth to = YearMonth.now().minusMonths(1);
+        YearMonth from = to.minusMonths(years * 12L - 1);
+
+        TrendReportDAO dao = new TrendReportDAO();
+        TrendReport report = null;
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            report = dao.getTrendReport(from, to);
+        }
+
+        System.out.println("===========================================");
+        System.out.println("Trend Report Benchmark");
+        System.out.printf("%s to %s (%d months + prior year), %d rooms, %d room types, %d runs%n",
+                from, to, years * 12, report.getByRoom().size(), report.getByRoomType().size(), runs);
+        System.out.println("===========================================\n");
+
+        long[] latencies = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            dao.getTrendReport(from, to);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        double p50 = percentile(latencies, 0.50) / 1e6;
+        double p95 = percentile(latencies, 0.95) / 1e6;
+        System.out.printf("p50=%7.1f ms  p95=%7.1f ms  max=%7.1f ms%n", p50, p95, latencies[runs - 1] / 1e6);
+        System.out.printf("%s: p95 %s the %d ms target%n", p95 <= TARGET_MILLIS ? "PASS" : "FAIL",
+                p95 <= TARGET_MILLIS ? "within" : "over", TARGET_MILLIS);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,247 @@
+package dao;
+
+import database.DatabaseConnection;
+import models.TrendPoint;
+import models.TrendReport;
+import models.TrendSeries;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Occupancy %, ADR and RevPAR by month over any range of months, per room, per room type and for
+ * the whole resort, each with the same months a year earlier for comparison.
+ * Room-nights for the whole range (plus the prior year) come back from one grouped query: months
+ * whose rollups are built are read from fact_room_month, and only the remaining months (the open
+ * ones, and any waiting for ReportFactRefresher) are computed from reservations.
+ * Definitions follow the monthly reports: occupancy counts confirmed, checked-in and checked-out
+ * nights; revenue is billed (checked-in/out) nights at each room's current rate; ADR is revenue per
+ * billed night; RevPAR is revenue per available room-night, counting every current room as
+ * available every night of the month.
+ */
+public class TrendReportDAO {
+    public static final String ALL_ROOMS = "All rooms";
+
+    private static final int YEAR = 12;
+
+    // Room-nights per room per month, for months whose rollups are built; params: range start, range end
+    static final String ROLLUP_MONTHS_SQL = "SELECT f.room_id, f.month_start, f.days_reserved, f.days_billed " +
+            "FROM fact_room_month f " +
+            "JOIN fact_month_status s ON s.month_start = f.month_start AND s.dirty = 0 " +
+            "WHERE f.month_start >= ? AND f.month_start < ?";
+    private static final String NIGHTS =
+            "DATEDIFF(LEAST(r.check_out, m.month_start + INTERVAL 1 MONTH), GREATEST(r.check_in, m.month_start))";
+    // The rollup months plus the rest computed from reservations; params: live start, live end,
+    // range start, range end, live start, live end
+    static final String ROLLUP_AND_LIVE_MONTHS_SQL = "WITH RECURSIVE months (month_start) AS (" +
+            "  SELECT CAST(? AS DATE) " +
+            "  UNION ALL " +
+            "  SELECT month_start + INTERVAL 1 MONTH FROM months WHERE month_start + INTERVAL 1 MONTH < ?" +
+            ") " +
+            ROLLUP_MONTHS_SQL +
+            " UNION ALL " +
+            "SELECT r.room_id, m.month_start, SUM(" + NIGHTS + "), " +
+            "  SUM(CASE WHEN r.status IN ('checked-in', 'checked-out') THEN " + NIGHTS + " ELSE 0 END) " +
+            "FROM months m " +
+            "JOIN reservation r ON r.check_in < m.month_start + INTERVAL 1 MONTH AND r.check_out > m.month_start " +
+            "WHERE r.status IN ('confirmed', 'checked-in', 'checked-out') " +
+            "  AND r.check_out > ? AND r.check_in < ? " +
+            "  AND NOT EXISTS (SELECT 1 FROM fact_month_status s2 " +
+            "    WHERE s2.month_start = m.month_start AND s2.dirty = 0) " +
+            "GROUP BY r.room_id, m.month_start";
+
+    public TrendReport getTrendReport(YearMonth from, YearMonth to) throws SQLException {
+        if (to.isBefore(from)) {
+            throw new SQLException("Trend range ends (" + to + ") before it starts (" + from + ")");
+        }
+        // Index 0 is a year before `from`, so every month in the range has its prior-year month too
+        YearMonth first = from.minusMonths(YEAR);
+        int months = (int) (to.getYear() * 12L + to.getMonthValue() - (first.getYear() * 12L + first.getMonthValue())) + 1;
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            // One read-only REPEATABLE READ snapshot, so the rollup status read in STEP 2 still holds in STEP 3
+            conn.setAutoCommit(false);
+
+            // STEP 1: Every room, with its type and current rate
+            List<Long> roomIds = new ArrayList<>();
+            List<String> roomCodes = new ArrayList<>();
+            List<String> roomTypes = new ArrayList<>();
+            List<BigDecimal> rates = new ArrayList<>();
+            Map<Long, Integer> roomIndex = new HashMap<>();
+            pstmt = conn.prepareStatement("SELECT room_id, room_code, room_type, rate_per_night FROM room ORDER BY room_code");
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                roomIndex.put(rs.getLong("room_id"), roomIds.size());
+                roomIds.add(rs.getLong("room_id"));
+                roomCodes.add(rs.getString("room_code"));
+                roomTypes.add(rs.getString("room_type"));
+                rates.add(rs.getBigDecimal("rate_per_night"));
+            }
+            rs.close();
+            pstmt.close();
+
+            // STEP 2: Which months can come from the rollups; the rest bound the live scan
+            boolean[] built = new boolean[months];
+            pstmt = conn.prepareStatement("SELECT month_start FROM fact_month_status " +
+                    "WHERE dirty = 0 AND month_start >= ? AND month_start < ?");
+            pstmt.setDate(1, Date.valueOf(first.atDay(1)));
+            pstmt.setDate(2, Date.valueOf(to.plusMonths(1).atDay(1)));
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                built[indexOf(first, YearMonth.from(rs.getDate("month_start").toLocalDate()))] = true;
+            }
+            rs.close();
+            pstmt.close();
+
+            int firstLive = -1;
+            int lastLive = -1;
+            for (int i = 0; i < months; i++) {
+                if (!built[i]) {
+                    if (firstLive < 0) {
+                        firstLive = i;
+                    }
+                    lastLive = i;
+                }
+            }
+
+            // STEP 3: Nights per room per month for the whole range in one grouped query
+            long[][] reserved = new long[roomIds.size()][months];
+            long[][] billed = new long[roomIds.size()][months];
+            pstmt = conn.prepareStatement(firstLive >= 0 ? ROLLUP_AND_LIVE_MONTHS_SQL : ROLLUP_MONTHS_SQL);
+            int index = 1;
+            Date liveStart = firstLive < 0 ? null : Date.valueOf(first.plusMonths(firstLive).atDay(1));
+            Date liveEnd = firstLive < 0 ? null : Date.valueOf(first.plusMonths(lastLive + 1).atDay(1));
+            if (firstLive >= 0) {
+                pstmt.setDate(index++, liveStart);
+                pstmt.setDate(index++, liveEnd);
+            }
+            pstmt.setDate(index++, Date.valueOf(first.atDay(1)));
+            pstmt.setDate(index++, Date.valueOf(to.plusMonths(1).atDay(1)));
+            if (firstLive >= 0) {
+                pstmt.setDate(index++, liveStart);
+                pstmt.setDate(index, liveEnd);
+            }
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Integer room = roomIndex.get(rs.getLong(1));
+                if (room == null) {
+                    continue; // can't happen within one snapshot (FKs), but don't let a stray row break the report
+                }
+                int month = indexOf(first, YearMonth.from(rs.getDate(2).toLocalDate()));
+                reserved[room][month] += rs.getLong(3);
+                billed[room][month] += rs.getLong(4);
+            }
+            conn.commit();
+
+            // STEP 4: Series per room, summed into per-type and whole-resort series as we go
+            long[] daysInMonth = new long[months];
+            for (int i = 0; i < months; i++) {
+                daysInMonth[i] = first.plusMonths(i).lengthOfMonth();
+            }
+            Map<String, Totals> typeTotals = new TreeMap<>();
+            Totals all = new Totals(months);
+            List<TrendSeries> byRoom = new ArrayList<>();
+            for (int room = 0; room < roomIds.size(); room++) {
+                Totals roomTotals = new Totals(months);
+                for (int i = 0; i < months; i++) {
+                    BigDecimal revenue = rates.get(room).multiply(BigDecimal.valueOf(billed[room][i]));
+                    roomTotals.add(i, daysInMonth[i], reserved[room][i], billed[room][i], revenue);
+                    typeTotals.computeIfAbsent(roomTypes.get(room), t -> new Totals(months))
+                            .add(i, daysInMonth[i], reserved[room][i], billed[room][i], revenue);
+                    all.add(i, daysInMonth[i], reserved[room][i], billed[room][i], revenue);
+                }
+                byRoom.add(roomTotals.toSeries(roomCodes.get(room), first));
+            }
+            List<TrendSeries> byRoomType = new ArrayList<>();
+            for (Map.Entry<String, Totals> type : typeTotals.entrySet()) {
+                byRoomType.add(type.getValue().toSeries(type.getKey(), first));
+            }
+
+            return new TrendReport(from, to, byRoom, byRoomType, all.toSeries(ALL_ROOMS, first));
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            throw e;
+        } finally {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+            if (conn != null) {
+                conn.setAutoCommit(true);
+                DatabaseConnection.closeConnection(conn);
+            }
+        }
+    }
+
+    private static int indexOf(YearMonth first, YearMonth month) {
+        return (int) (month.getYear() * 12L + month.getMonthValue() - (first.getYear() * 12L + first.getMonthValue()));
+    }
+
+    // Monthly sums for one series; index 0 is the first prior-year month
+    private static final class Totals {
+        final long[] available;
+        final long[] reserved;
+        final long[] billed;
+        final BigDecimal[] revenue;
+
+        Totals(int months) {
+            available = new long[months];
+            reserved = new long[months];
+            billed = new long[months];
+            revenue = new BigDecimal[months];
+            Arrays.fill(revenue, BigDecimal.ZERO);
+        }
+
+        void add(int month, long availableNights, long reservedNights, long billedNights, BigDecimal amount) {
+            available[month] += availableNights;
+            reserved[month] += reservedNights;
+            billed[month] += billedNights;
+            revenue[month] = revenue[month].add(amount);
+        }
+
+        TrendSeries toSeries(String name, YearMonth first) {
+            List<TrendPoint> points = new ArrayList<>();
+            List<TrendPoint> priorYear = new ArrayList<>();
+            for (int i = YEAR; i < available.length; i++) {
+                points.add(point(first.plusMonths(i), i));
+                priorYear.add(point(first.plusMonths(i - YEAR), i - YEAR));
+            }
+            return new TrendSeries(name, points, priorYear, sum(YEAR, available.length), sum(0, available.length - YEAR));
+        }
+
+        private TrendPoint point(YearMonth month, int i) {
+            return new TrendPoint(month, available[i], reserved[i], billed[i], revenue[i]);
+        }
+
+        private TrendPoint sum(int fromIndex, int toIndex) {
+            long availableSum = 0;
+            long reservedSum = 0;
+            long billedSum = 0;
+            BigDecimal revenueSum = BigDecimal.ZERO;
+            for (int i = fromIndex; i < toIndex; i++) {
+                availableSum += available[i];
+                reservedSum += reserved[i];
+                billedSum += billed[i];
+                revenueSum = revenueSum.add(revenue[i]);
+            }
+            return new TrendPoint(null, availableSum, reservedSum, billedSum, revenueSum);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of MySQL connections.
+ * Keeps between minSize and maxSize physical connections, evicts idle and expired ones
+ * in the background, validates on borrow, and makes borrowers wait up to borrowTimeoutMs
+ * when every connection is in use.
+ */
+public class ConnectionPool {
+    // Skip the validation round trip if the connection was returned this recently
+    private static final long VALIDATION_BYPASS_MS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 3;
+    private static final long HOUSEKEEPING_INTERVAL_MS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long borrowTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition connectionReturned = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int totalConnections; // idle + in use + being opened
+    private int activeConnections;
+    private int waiters;
+    private volatile boolean shutdown; // written under the lock; housekeeping also reads it between opens
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+    private final AtomicLongArray waitTimeHistogram = new AtomicLongArray(PoolStats.WAIT_BUCKET_BOUNDS_MS.length + 1);
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMs, long maxLifetimeMs, long borrowTimeoutMs) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public int getMaxSize() { return maxSize; }
+
+    // Borrow a connection, waiting up to the borrow timeout if the pool is exhausted
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+
+        while (true) {
+            PooledConnection pooled = null;
+            lock.lock();
+            try {
+                while (!shutdown && idle.isEmpty() && totalConnections >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        borrowTimeouts.incrementAndGet();
+                        recordWait(System.nanoTime() - start);
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMs +
+                                " ms waiting for a database connection (active=" + activeConnections +
+                                ", max=" + maxSize + ")");
+                    }
+                    waiters++;
+                    try {
+                        connectionReturned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiters--;
+                    }
+                }
+                if (shutdown) {
+                    throw new SQLException("Connection pool has been shut down");
+                }
+
+                if (!idle.isEmpty()) {
+                    pooled = idle.pollFirst(); // most recently returned first
+                } else {
+                    totalConnections++; // reserve the slot, open outside the lock
+                }
+                activeConnections++;
+            } finally {
+                lock.unlock();
+            }
+
+            if (pooled == null) {
+                try {
+                    pooled = open();
+                } catch (SQLException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+                connectionsEvicted.incrementAndGet();
+                pooled.closePhysical();
+                releaseSlot();
+                continue;
+            }
+
+            borrowCount.incrementAndGet();
+            recordWait(System.nanoTime() - start);
+            return pooled.checkout();
+        }
+    }
+
+    // Called by the connection handle when a borrower closes it
+    void release(PooledConnection pooled) {
+        boolean keep;
+        try {
+            pooled.reset();
+            keep = !isExpired(pooled, System.currentTimeMillis());
+        } catch (SQLException e) {
+            keep = false;
+        }
+
+        lock.lock();
+        try {
+            activeConnections--;
+            if (keep && !shutdown) {
+                idle.addFirst(pooled);
+            } else {
+                totalConnections--;
+            }
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        if (!keep || shutdown) {
+            connectionsEvicted.incrementAndGet();
+            pooled.closePhysical();
+        }
+    }
+
+    public PoolStats getStats() {
+        lock.lock();
+        try {
+            long[] histogram = new long[waitTimeHistogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = waitTimeHistogram.get(i);
+            }
+            return new PoolStats(totalConnections, activeConnections, idle.size(), waiters,
+                    borrowCount.get(), borrowTimeouts.get(), connectionsCreated.get(),
+                    connectionsEvicted.get(), histogram);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            totalConnections -= idle.size();
+            idle.clear();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            pooled.closePhysical();
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(this, physical);
+    }
+
+    // Give back a reserved slot after a failed open or a failed validation
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            totalConnections--;
+            activeConnections--;
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+        if (isExpired(pooled, now)) {
+            return false;
+        }
+        if (now - pooled.getLastReturnedAt() < VALIDATION_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pooled.getPhysical().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return maxLifetimeMs > 0 && now - pooled.getCreatedAt() >= maxLifetimeMs;
+    }
+
+    private void recordWait(long waitNanos) {
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = 0;
+        while (bucket < PoolStats.WAIT_BUCKET_BOUNDS_MS.length && waitMs >= PoolStats.WAIT_BUCKET_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        waitTimeHistogram.incrementAndGet(bucket);
+    }
+
+    // Evict idle/expired connections above the minimum, then top the pool back up to minSize
+    private void housekeep() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        int toOpen;
+        lock.lock();
+        try {
+            if (shutdown) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> it = idle.descendingIterator(); // least recently used first
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean idleTooLong = idleTimeoutMs > 0 && now - pooled.getLastReturnedAt() >= idleTimeoutMs
+                        && totalConnections > minSize;
+                if (idleTooLong || isExpired(pooled, now)) {
+                    it.remove();
+                    totalConnections--;
+                    evicted.add(pooled);
+                }
+            }
+            toOpen = Math.max(0, minSize - totalConnections);
+            totalConnections += toOpen;
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooled : evicted) {
+            connectionsEvicted.incrementAndGet();
+            pooled.closePhysical();
+        }
+        for (int i = 0; i < toOpen; i++) {
+            PooledConnection pooled = null;
+            if (!shutdown) {
+                try {
+                    pooled = open();
+                } catch (SQLException e) {
+                    System.err.println("Connection pool could not open a connection: " + e.getMessage());
+                }
+            }
+            boolean added = false;
+            lock.lock();
+            try {
+                if (pooled != null && !shutdown) {
+                    idle.addLast(pooled);
+                    connectionReturned.signal();
+                    added = true;
+                } else {
+                    totalConnections--;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (pooled != null && !added) {
+                pooled.closePhysical();
+            }
+        }
+    }
+}
@@ -3,17 +3,33 @@ package database;
 import java.sql.*;
 
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/CCINFOM-S27-06-DBCREATION";
+    private static final String URL = "jdbc:mysql://localhost:3306/CCINFOM-S27-06-DBCREATION?rewriteBatchedStatements=true";
     private static final String USER = "root"; // Change to your MySQL username
     private static final String PASSWORD = "1"; // Change to your MySQL password (Important!)
 
+    // Connection pool settings
+    private static final int MIN_POOL_SIZE = 2;
+    private static final int MAX_POOL_SIZE = 10;
+    private static final long IDLE_TIMEOUT_MS = 10 * 60 * 1000;   // close idle connections above the minimum after 10 minutes
+    private static final long MAX_LIFETIME_MS = 30 * 60 * 1000;   // recycle every connection after 30 minutes
+    private static final long BORROW_TIMEOUT_MS = 30 * 1000;      // give up waiting for a free connection after 30 seconds
+
+    // Slow query log: statements slower than this go to logs/slow-queries.0.log (rotated, 5 x 5 MB)
+    private static final long SLOW_QUERY_THRESHOLD_MS = SlowQueryLog.DEFAULT_THRESHOLD_MS;
+    private static final String SLOW_QUERY_LOG = "logs/slow-queries.%g.log";
+
+    private static ConnectionPool pool;
+
+    // Borrow a connection from the pool; closing it (or calling closeConnection) returns it.
+    // Inside a UnitOfWork this is the unit's connection and closing it is a no-op.
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return DriverManager.getConnection(URL, USER, PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL Driver not found", e);
-        }
+        Connection shared = UnitOfWork.currentConnection();
+        return shared != null ? shared : getPool().borrow();
+    }
+
+    // A connection of its own, even inside a UnitOfWork
+    static Connection borrow() throws SQLException {
+        return getPool().borrow();
     }
 
     public static void closeConnection(Connection conn) {
@@ -25,4 +41,30 @@ public class DatabaseConnection {
             }
         }
     }
+
+    // Pool statistics for monitoring (active, idle, waiters, wait-time histogram)
+    public static PoolStats getPoolStats() throws SQLException {
+        return getPool().getStats();
+    }
+
+    public static int getMaxPoolSize() {
+        return MAX_POOL_SIZE;
+    }
+
+    private static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL Driver not found", e);
+            }
+            pool = new ConnectionPool(URL, USER, PASSWORD, MIN_POOL_SIZE, MAX_POOL_SIZE,
+                    IDLE_TIMEOUT_MS, MAX_LIFETIME_MS, BORROW_TIMEOUT_MS);
+            QueryMetrics.registerMBean();
+            SlowQueryLog.configure(SLOW_QUERY_LOG, SLOW_QUERY_THRESHOLD_MS);
+            ConnectionPool created = pool;
+            Runtime.getRuntime().addShutdownHook(new Thread(created::shutdown, "connection-pool-shutdown"));
+        }
+        return pool;
+    }
 }
@@ -0,0 +1,198 @@
+package database;
+
+import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
+import com.mysql.cj.result.RowList;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * Statement handle that times each execute call, records it in QueryMetrics and hands it to
+ * SlowQueryLog when it crosses the threshold (with the parameters bound for that execution).
+ * Latency is measured around the execute call itself: for a buffered result that includes reading
+ * every row, for a streamed one (fetch size Integer.MIN_VALUE) only the first. Row counts for
+ * buffered results come straight from the driver; streamed results are counted as they are read.
+ * Everything else passes through to the wrapped statement untouched.
+ */
+final class InstrumentedStatement implements InvocationHandler {
+    private final Statement stmt;
+    // Fixed for prepared statements; plain Statements look both up from the SQL passed to execute
+    private final String sql;
+    private final QueryMetrics.Recorder recorder;
+    // Values bound with setXxx, kept only while the slow query log is on
+    private Object[] parameters;
+
+    private InstrumentedStatement(Statement stmt, String sql) {
+        this.stmt = stmt;
+        this.sql = sql;
+        this.recorder = sql == null ? null : QueryMetrics.recorderFor(sql);
+    }
+
+    // sql is the prepared SQL, or null for a plain Statement
+    static Statement wrap(Statement stmt, String sql) {
+        Class<?> type = stmt instanceof CallableStatement ? CallableStatement.class
+                : stmt instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{type},
+                new InstrumentedStatement(stmt, sql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (!name.startsWith("execute")) {
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "clearParameters":
+                    parameters = null;
+                    return call(method, args);
+                default:
+                    // setInt(1, x), setNull(2, type), ...: every parameter setter takes the index first
+                    if (sql != null && args != null && args.length >= 2 && args[0] instanceof Integer
+                            && name.startsWith("set") && SlowQueryLog.isEnabled()) {
+                        bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+                    return call(method, args);
+            }
+        }
+
+        boolean plain = args != null && args.length > 0 && args[0] instanceof String;
+        String executedSql = plain ? (String) args[0] : sql;
+        if (executedSql == null) {
+            return call(method, args); // executeBatch on a plain Statement: no single SQL text to file it under
+        }
+        QueryMetrics.Recorder statementRecorder = plain ? QueryMetrics.recorderFor(executedSql) : recorder;
+        boolean metrics = QueryMetrics.isEnabled();
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call(method, args);
+        } catch (SQLException e) {
+            long elapsed = System.nanoTime() - start;
+            if (metrics) {
+                statementRecorder.record(elapsed, 0, true);
+            }
+            if (SlowQueryLog.isSlow(elapsed)) {
+                SlowQueryLog.log(executedSql, plain ? null : boundParameters(), elapsed, 0, e);
+            }
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long rows = 0;
+        boolean streamed = false;
+        if (result instanceof ResultSet) {
+            rows = bufferedRowCount((ResultSet) result);
+            if (rows < 0) {
+                result = countingResultSet((ResultSet) result, statementRecorder);
+                rows = 0;
+                streamed = true;
+            }
+        } else if (result instanceof Integer || result instanceof Long) {
+            rows = ((Number) result).longValue();
+        } else if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+        }
+        if (metrics) {
+            statementRecorder.record(elapsed, rows, false);
+        }
+        if (SlowQueryLog.isSlow(elapsed)) {
+            SlowQueryLog.log(executedSql, plain ? null : boundParameters(), elapsed, streamed ? -1 : rows, null);
+        }
+        return result;
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (parameters == null || parameters.length < index) {
+            Object[] grown = new Object[Math.max(index, parameters == null ? 8 : parameters.length * 2)];
+            if (parameters != null) {
+                System.arraycopy(parameters, 0, grown, 0, parameters.length);
+            }
+            parameters = grown;
+        }
+        parameters[index - 1] = value;
+    }
+
+    // One value per ? in the SQL, null where nothing (or SQL NULL) was bound
+    private Object[] boundParameters() {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        Object[] values = new Object[count];
+        if (parameters != null) {
+            System.arraycopy(parameters, 0, values, 0, Math.min(count, parameters.length));
+        }
+        return values;
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(stmt, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Rows in a result set Connector/J has already read into memory, or -1 if it is being streamed
+    private static long bufferedRowCount(ResultSet rs) throws SQLException {
+        if (rs.isWrapperFor(ResultSetInternalMethods.class)) {
+            int size = rs.unwrap(ResultSetInternalMethods.class).getRows().size();
+            return size == RowList.RESULT_SET_SIZE_UNKNOWN ? -1 : size;
+        }
+        return -1;
+    }
+
+    private static ResultSet countingResultSet(ResultSet rs, QueryMetrics.Recorder recorder) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                new InvocationHandler() {
+                    private long rows;
+                    private boolean reported;
+
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if ("equals".equals(name)) {
+                            return proxy == args[0];
+                        }
+                        if ("hashCode".equals(name)) {
+                            return System.identityHashCode(proxy);
+                        }
+                        Object result;
+                        try {
+                            result = method.invoke(rs, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+                            rows++;
+                        } else if (("next".equals(name) || "close".equals(name)) && !reported) {
+                            reported = true;
+                            recorder.addRows(rows);
+                        }
+                        return result;
+                    }
+                });
+    }
+}
@@ -0,0 +1,70 @@
+package database;
+
+/**
+ * Point-in-time snapshot of the connection pool, used for monitoring.
+ */
+public class PoolStats {
+    // Upper bounds (in milliseconds) of the wait-time histogram buckets; the last bucket is open-ended
+    public static final long[] WAIT_BUCKET_BOUNDS_MS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waiters;
+    private final long borrowCount;
+    private final long borrowTimeouts;
+    private final long connectionsCreated;
+    private final long connectionsEvicted;
+    private final long[] waitTimeHistogram;
+
+    public PoolStats(int totalConnections, int activeConnections, int idleConnections, int waiters,
+                     long borrowCount, long borrowTimeouts, long connectionsCreated, long connectionsEvicted,
+                     long[] waitTimeHistogram) {
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.borrowTimeouts = borrowTimeouts;
+        this.connectionsCreated = connectionsCreated;
+        this.connectionsEvicted = connectionsEvicted;
+        this.waitTimeHistogram = waitTimeHistogram.clone();
+    }
+
+    public int getTotalConnections() { return totalConnections; }
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getWaiters() { return waiters; }
+    public long getBorrowCount() { return borrowCount; }
+    public long getBorrowTimeouts() { return borrowTimeouts; }
+    public long getConnectionsCreated() { return connectionsCreated; }
+    public long getConnectionsEvicted() { return connectionsEvicted; }
+
+    // One count per bucket in WAIT_BUCKET_BOUNDS_MS, plus a final overflow bucket
+    public long[] getWaitTimeHistogram() { return waitTimeHistogram.clone(); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Connections: total=").append(totalConnections)
+                .append(", active=").append(activeConnections)
+                .append(", idle=").append(idleConnections)
+                .append(", waiters=").append(waiters).append("\n");
+        sb.append("Borrows: ").append(borrowCount)
+                .append(", timeouts=").append(borrowTimeouts)
+                .append(", created=").append(connectionsCreated)
+                .append(", evicted=").append(connectionsEvicted).append("\n");
+        sb.append("Borrow wait times:\n");
+        long lower = 0;
+        for (int i = 0; i < waitTimeHistogram.length; i++) {
+            String label = i < WAIT_BUCKET_BOUNDS_MS.length
+                    ? lower + "-" + WAIT_BUCKET_BOUNDS_MS[i] + " ms"
+                    : ">= " + lower + " ms";
+            sb.append(String.format("  %-14s %d%n", label, waitTimeHistogram[i]));
+            if (i < WAIT_BUCKET_BOUNDS_MS.length) {
+                lower = WAIT_BUCKET_BOUNDS_MS[i];
+            }
+        }
+        return sb.toString();
+    }
+}
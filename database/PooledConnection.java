@@ -0,0 +1,141 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A physical connection owned by the ConnectionPool.
+ * Callers never see this class: each borrow hands out a fresh proxy whose close()
+ * returns the physical connection to the pool instead of closing it. Statements opened through
+ * a handle are timed into QueryMetrics and SlowQueryLog while either is on.
+ */
+class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final long createdAt;
+    private final int defaultIsolation;
+    private final StatementCache statementCache;
+    private long lastReturnedAt;
+
+    PooledConnection(ConnectionPool pool, Connection physical) throws SQLException {
+        this.pool = pool;
+        this.physical = physical;
+        this.createdAt = System.currentTimeMillis();
+        this.defaultIsolation = physical.getTransactionIsolation();
+        this.statementCache = new StatementCache(physical);
+        this.lastReturnedAt = createdAt;
+    }
+
+    Connection getPhysical() { return physical; }
+    long getCreatedAt() { return createdAt; }
+    long getLastReturnedAt() { return lastReturnedAt; }
+
+    // Wrap the physical connection in a single-use handle for one borrower
+    Connection checkout() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle());
+    }
+
+    // Put the connection back into a clean state before another borrower gets it
+    void reset() throws SQLException {
+        if (!physical.getAutoCommit()) {
+            physical.rollback();
+            physical.setAutoCommit(true);
+        }
+        if (physical.isReadOnly()) {
+            physical.setReadOnly(false);
+        }
+        if (physical.getTransactionIsolation() != defaultIsolation) {
+            physical.setTransactionIsolation(defaultIsolation);
+        }
+        physical.clearWarnings();
+        lastReturnedAt = System.currentTimeMillis();
+    }
+
+    void closePhysical() {
+        statementCache.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private class Handle implements InvocationHandler {
+        private boolean closed;
+        // Statements opened through this handle; closed on return so they don't leak on the physical connection
+        private final List<Statement> openStatements = new ArrayList<>();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        closeOpenStatements();
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            Object result = null;
+            if ("prepareStatement".equals(name) && isCacheable(method)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                result = statementCache.borrow((String) args[0], autoGeneratedKeys);
+            }
+            if (result == null) {
+                try {
+                    result = method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            if (result instanceof Statement) {
+                if (QueryMetrics.isEnabled() || SlowQueryLog.isEnabled()) {
+                    result = InstrumentedStatement.wrap((Statement) result, name.startsWith("prepare") ? (String) args[0] : null);
+                }
+                openStatements.add((Statement) result);
+                QueryCancellation.register((Statement) result);
+            }
+            return result;
+        }
+
+        // Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) go through the statement cache
+        private boolean isCacheable(Method method) {
+            Class<?>[] params = method.getParameterTypes();
+            return params.length == 1 || (params.length == 2 && params[1] == int.class);
+        }
+
+        private void closeOpenStatements() {
+            for (Statement stmt : openStatements) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    // Statement is unusable anyway; the pool validates the connection on next borrow
+                }
+            }
+            openStatements.clear();
+        }
+    }
+}
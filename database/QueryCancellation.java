@@ -0,0 +1,77 @@
+package database;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lets another thread stop the database work of one task.
+ * While bound to a thread, every statement the pool hands out on that thread is registered here;
+ * cancel() calls Statement.cancel() on them (Connector/J sends KILL QUERY on a side connection)
+ * and makes any statement opened afterwards fail straight away. Statements that have already been
+ * closed ignore the cancel, so a handle that went back to the statement cache is never touched.
+ */
+public final class QueryCancellation {
+    private static final ThreadLocal<QueryCancellation> current = new ThreadLocal<>();
+
+    private final List<Statement> statements = new ArrayList<>();
+    private boolean started;
+    private boolean cancelled;
+
+    // Statements opened on this thread belong to this cancellation until unbind()
+    public void bind() throws SQLException {
+        synchronized (this) {
+            if (cancelled) {
+                throw new SQLException("Cancelled before it started");
+            }
+            started = true;
+        }
+        current.set(this);
+    }
+
+    public void unbind() {
+        current.remove();
+        synchronized (this) {
+            statements.clear();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Cancel the running statements; returns false if the task never got as far as bind()
+    public boolean cancel() {
+        List<Statement> running;
+        synchronized (this) {
+            if (cancelled) {
+                return started;
+            }
+            cancelled = true;
+            running = new ArrayList<>(statements);
+        }
+        for (Statement stmt : running) {
+            try {
+                stmt.cancel();
+            } catch (SQLException e) {
+                // Already closed: nothing left to cancel
+            }
+        }
+        return started;
+    }
+
+    // Called by the pool for every statement it hands out
+    static void register(Statement stmt) throws SQLException {
+        QueryCancellation cancellation = current.get();
+        if (cancellation == null) {
+            return;
+        }
+        synchronized (cancellation) {
+            if (cancellation.cancelled) {
+                throw new SQLException("Query cancelled");
+            }
+            cancellation.statements.add(stmt);
+        }
+    }
+}
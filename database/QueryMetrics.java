@@ -0,0 +1,266 @@
+package database;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-statement counters for every query run through DatabaseConnection.
+ * Statements are grouped by fingerprint: the SQL with literals replaced by ? and whitespace
+ * collapsed, so a query built with inlined values still lands in one bucket. Each fingerprint keeps
+ * its execution, error and row counts and a latency histogram (see QueryStats).
+ * Read it with snapshot()/dump(), over JMX as database:type=QueryMetrics, or in the GUI's
+ * DB Diagnostics panel. Turning it off stops the recording; statements are not wrapped at all
+ * while both this and SlowQueryLog are off.
+ */
+public class QueryMetrics {
+    public static final String MBEAN_NAME = "database:type=QueryMetrics";
+
+    // Bounds on what we remember, in case something builds SQL with unbounded variety
+    private static final int MAX_CACHED_SQL = 2000;
+    private static final int MAX_FINGERPRINTS = 500;
+    private static final String OTHER = "(other statements)";
+
+    private static volatile boolean enabled = true;
+    private static final ConcurrentHashMap<String, Recorder> bySql = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Recorder> byFingerprint = new ConcurrentHashMap<>();
+    private static boolean registered;
+
+    private QueryMetrics() {}
+
+    public static void setEnabled(boolean value) { enabled = value; }
+    public static boolean isEnabled() { return enabled; }
+
+    // Counters for the statement's fingerprint; the fingerprint is worked out once per distinct SQL text
+    static Recorder recorderFor(String sql) {
+        Recorder recorder = bySql.get(sql);
+        if (recorder != null) {
+            return recorder;
+        }
+        String fingerprint = fingerprint(sql);
+        recorder = byFingerprint.get(fingerprint);
+        if (recorder == null) {
+            if (byFingerprint.size() >= MAX_FINGERPRINTS) {
+                fingerprint = OTHER;
+            }
+            recorder = byFingerprint.computeIfAbsent(fingerprint, Recorder::new);
+        }
+        if (bySql.size() < MAX_CACHED_SQL) {
+            bySql.putIfAbsent(sql, recorder);
+        }
+        return recorder;
+    }
+
+    // SQL with string and numeric literals replaced by ?, IN lists folded to (?+) and whitespace collapsed
+    public static String fingerprint(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"') {
+                i = skipQuoted(sql, i, c);
+                out.append('?');
+            } else if (c == '`') {
+                int end = sql.indexOf('`', i + 1);
+                end = end < 0 ? n : end + 1;
+                out.append(sql, i, end);
+                i = end;
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0 && i < n) {
+                    out.append(' ');
+                }
+            } else if (Character.isDigit(c) && !endsWithIdentifier(out)) {
+                while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return foldInLists(out.toString());
+    }
+
+    public static List<QueryStats> snapshot() {
+        List<QueryStats> stats = new ArrayList<>();
+        for (Recorder recorder : byFingerprint.values()) {
+            QueryStats s = recorder.snapshot();
+            if (s.getExecutions() > 0) {
+                stats.add(s);
+            }
+        }
+        // Where the database time goes: biggest total first
+        stats.sort(Comparator.comparingLong(QueryStats::getTotalMicros).reversed());
+        return stats;
+    }
+
+    public static String dump() {
+        List<QueryStats> stats = snapshot();
+        long executions = 0;
+        long errors = 0;
+        for (QueryStats s : stats) {
+            executions += s.getExecutions();
+            errors += s.getErrors();
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("Query metrics: ").append(enabled ? "on" : "off")
+                .append(", statements=").append(stats.size())
+                .append(", executions=").append(executions)
+                .append(", errors=").append(errors).append("\n");
+        sb.append(String.format("%9s %6s %11s %9s %9s %9s %9s %9s  %s%n",
+                "count", "errors", "rows", "avg ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "statement"));
+        for (QueryStats s : stats) {
+            sb.append(s).append("\n");
+        }
+        return sb.toString();
+    }
+
+    // Zero every counter; statements already open keep recording into the same fingerprints
+    public static void reset() {
+        for (Recorder recorder : byFingerprint.values()) {
+            recorder.reset();
+        }
+    }
+
+    // Publish the metrics on the platform MBean server (jconsole, VisualVM); safe to call more than once
+    public static synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanImpl(), new ObjectName(MBEAN_NAME));
+            registered = true;
+        } catch (JMException e) {
+            System.err.println("Could not register " + MBEAN_NAME + ": " + e.getMessage());
+        }
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2; // doubled quote inside the literal
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    // True when a digit here would continue a name such as room2 or t1
+    private static boolean endsWithIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char last = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+
+    private static String foldInLists(String sql) {
+        return sql.replaceAll("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)", "(?+)");
+    }
+
+    // Live counters for one fingerprint, updated by every statement that maps to it
+    static final class Recorder {
+        private final String fingerprint;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(QueryStats.BUCKET_COUNT);
+
+        Recorder(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        void record(long elapsedNanos, long rowCount, boolean failed) {
+            long micros = elapsedNanos / 1000;
+            executions.increment();
+            if (failed) {
+                errors.increment();
+            }
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            totalMicros.add(micros);
+            histogram.incrementAndGet(QueryStats.bucketOf(micros));
+            long max = maxMicros.get();
+            while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+                max = maxMicros.get();
+            }
+        }
+
+        // Rows from a streamed result set, only known once it has been read
+        void addRows(long rowCount) {
+            rows.add(rowCount);
+        }
+
+        QueryStats snapshot() {
+            long[] buckets = new long[histogram.length()];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new QueryStats(fingerprint, executions.sum(), errors.sum(), rows.sum(), totalMicros.sum(),
+                    maxMicros.get(), buckets);
+        }
+
+        void reset() {
+            executions.reset();
+            errors.reset();
+            rows.reset();
+            totalMicros.reset();
+            maxMicros.set(0);
+            for (int i = 0; i < histogram.length(); i++) {
+                histogram.set(i, 0);
+            }
+        }
+    }
+
+    private static final class MXBeanImpl implements QueryMetricsMXBean {
+        @Override public boolean isEnabled() { return QueryMetrics.isEnabled(); }
+        @Override public void setEnabled(boolean value) { QueryMetrics.setEnabled(value); }
+
+        @Override
+        public long getExecutionCount() {
+            long total = 0;
+            for (QueryStats s : snapshot()) {
+                total += s.getExecutions();
+            }
+            return total;
+        }
+
+        @Override
+        public long getErrorCount() {
+            long total = 0;
+            for (QueryStats s : snapshot()) {
+                total += s.getErrors();
+            }
+            return total;
+        }
+
+        @Override public int getStatementCount() { return snapshot().size(); }
+        @Override public QueryStats[] getStatements() { return snapshot().toArray(new QueryStats[0]); }
+        @Override public String dump() { return QueryMetrics.dump(); }
+        @Override public void reset() { QueryMetrics.reset(); }
+    }
+}
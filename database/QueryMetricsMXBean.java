@@ -0,0 +1,15 @@
+package database;
+
+/**
+ * JMX view of QueryMetrics. Statements come back as composite data, slowest total time first.
+ */
+public interface QueryMetricsMXBean {
+    boolean isEnabled();
+    void setEnabled(boolean value);
+    long getExecutionCount();
+    long getErrorCount();
+    int getStatementCount();
+    QueryStats[] getStatements();
+    String dump();
+    void reset();
+}
@@ -0,0 +1,97 @@
+package database;
+
+/**
+ * Point-in-time snapshot of one statement fingerprint's counters and latency histogram.
+ * Latencies are bucketed in microseconds: exact below 16 us, then eight buckets per power of two,
+ * so a percentile read from the histogram is within 12.5% of the true value.
+ */
+public class QueryStats {
+    static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36; // 2^37 us is about 38 hours; anything longer shares the last bucket
+    public static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final String fingerprint;
+    private final long executions;
+    private final long errors;
+    private final long rows;
+    private final long totalMicros;
+    private final long maxMicros;
+    private final long[] latencyHistogram;
+
+    public QueryStats(String fingerprint, long executions, long errors, long rows, long totalMicros,
+                      long maxMicros, long[] latencyHistogram) {
+        this.fingerprint = fingerprint;
+        this.executions = executions;
+        this.errors = errors;
+        this.rows = rows;
+        this.totalMicros = totalMicros;
+        this.maxMicros = maxMicros;
+        this.latencyHistogram = latencyHistogram.clone();
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public long getExecutions() { return executions; }
+    public long getErrors() { return errors; }
+    // Rows read from result sets, or rows affected for updates
+    public long getRows() { return rows; }
+    public long getTotalMicros() { return totalMicros; }
+    public long getMaxMicros() { return maxMicros; }
+    public double getAverageMillis() { return executions == 0 ? 0 : totalMicros / 1000.0 / executions; }
+    public double getP50Millis() { return percentileMicros(0.50) / 1000.0; }
+    public double getP95Millis() { return percentileMicros(0.95) / 1000.0; }
+    public double getP99Millis() { return percentileMicros(0.99) / 1000.0; }
+    public double getMaxMillis() { return maxMicros / 1000.0; }
+
+    // One count per bucket; see bucketOf for the layout
+    public long[] getLatencyHistogram() { return latencyHistogram.clone(); }
+
+    // Upper bound of the bucket holding the p-th fastest execution, capped at the slowest one seen
+    public long percentileMicros(double p) {
+        long count = 0;
+        for (long c : latencyHistogram) {
+            count += c;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            seen += latencyHistogram[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBoundMicros(i), maxMicros);
+            }
+        }
+        return maxMicros;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < 2 * SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 2 * SUB_BUCKETS + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    // Exclusive upper bound, in microseconds, of the values counted in a bucket
+    static long bucketUpperBoundMicros(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = SUB_BUCKET_BITS + 1 + (bucket - 2 * SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - 2 * SUB_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,9d %6d %,11d %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                executions, errors, rows, getAverageMillis(), getP50Millis(), getP95Millis(), getP99Millis(),
+                getMaxMillis(), fingerprint);
+    }
+}
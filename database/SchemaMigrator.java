@@ -0,0 +1,250 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings an existing database up to the schema this version of the app expects.
+ * Migrations are numbered; each one that has not been recorded in schema_version is applied
+ * in order and then recorded. Every step is written to be safe to re-run (CREATE TABLE IF NOT EXISTS,
+ * indexes only created when no existing index already starts with the same columns), so a database
+ * built from CCINFOM-S27-06-DBCREATION.sql, which already has these objects, just gets its
+ * versions recorded.
+ * Runs at application startup; can also be run on its own: java database.SchemaMigrator
+ */
+public class SchemaMigrator {
+    private static final String LOCK_NAME = "beach_resort_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private static final class Migration {
+        final int version;
+        final String description;
+        final Step[] steps;
+
+        Migration(int version, String description, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.steps = steps;
+        }
+    }
+
+    // Append new migrations at the end; never edit or renumber one that has shipped
+    private static final Migration[] MIGRATIONS = {
+            new Migration(1, "Dashboard summary counters",
+                    conn -> execute(conn, "CREATE TABLE IF NOT EXISTS dashboard_counter (" +
+                            "counter_name VARCHAR(50) NOT NULL, " +
+                            "slot TINYINT NOT NULL, " +
+                            "counter_value BIGINT NOT NULL DEFAULT 0, " +
+                            "PRIMARY KEY (counter_name, slot)) ENGINE=InnoDB"),
+                    SchemaMigrator::seedDashboardCounters),
+            new Migration(2, "Indexes for hot predicates",
+                    conn -> ensureIndex(conn, "reservation", "idx_reservation_room_status_dates",
+                            "room_id", "status", "check_in", "check_out"),
+                    conn -> ensureIndex(conn, "room", "idx_room_status", "status"),
+                    conn -> ensureIndex(conn, "amenity_rental", "idx_amenity_rental_status", "status"),
+                    conn -> ensureIndex(conn, "amenity_rental", "idx_amenity_rental_guest_status", "guest_id", "status"),
+                    conn -> ensureIndex(conn, "payment", "idx_payment_status_time", "status", "payment_time"),
+                    conn -> ensureIndex(conn, "restock", "idx_restock_item_date", "item_id", "restock_date"),
+                    conn -> ensureIndex(conn, "charge_item", "idx_charge_item_reservation", "reservation_id")),
+            new Migration(3, "Index for monthly amenity report range",
+                    conn -> ensureIndex(conn, "amenity_rental", "idx_amenity_rental_amenity_start", "amenity_id", "rent_start")),
+            new Migration(4, "Monthly report rollups",
+                    conn -> execute(conn, "CREATE TABLE IF NOT EXISTS fact_month_status (" +
+                            "month_start DATE NOT NULL PRIMARY KEY, " +
+                            "dirty TINYINT(1) NOT NULL DEFAULT 1, " +
+                            "refreshed_at DATETIME DEFAULT NULL) ENGINE=InnoDB"),
+                    conn -> execute(conn, "CREATE TABLE IF NOT EXISTS fact_room_month (" +
+                            "month_start DATE NOT NULL, " +
+                            "room_id BIGINT NOT NULL, " +
+                            "days_reserved INT NOT NULL DEFAULT 0, " +
+                            "days_billed INT NOT NULL DEFAULT 0, " +
+                            "PRIMARY KEY (month_start, room_id), " +
+                            "CONSTRAINT fk_frm_room FOREIGN KEY (room_id) REFERENCES room(room_id) ON DELETE CASCADE) ENGINE=InnoDB"),
+                    conn -> execute(conn, "CREATE TABLE IF NOT EXISTS fact_item_month (" +
+                            "month_start DATE NOT NULL, " +
+                            "item_id BIGINT NOT NULL, " +
+                            "total_restocked BIGINT NOT NULL DEFAULT 0, " +
+                            "PRIMARY KEY (month_start, item_id), " +
+                            "CONSTRAINT fk_fim_item FOREIGN KEY (item_id) REFERENCES inventory_item(item_id) ON DELETE CASCADE) ENGINE=InnoDB"),
+                    conn -> execute(conn, "CREATE TABLE IF NOT EXISTS fact_amenity_month (" +
+                            "month_start DATE NOT NULL, " +
+                            "amenity_id BIGINT NOT NULL, " +
+                            "times_rented INT NOT NULL DEFAULT 0, " +
+                            "total_quantity BIGINT NOT NULL DEFAULT 0, " +
+                            "total_revenue DECIMAL(14,2) NOT NULL DEFAULT 0.00, " +
+                            "PRIMARY KEY (month_start, amenity_id), " +
+                            "CONSTRAINT fk_fam_amenity FOREIGN KEY (amenity_id) REFERENCES amenity(amenity_id) ON DELETE CASCADE) ENGINE=InnoDB")),
+            new Migration(5, "Index for stays ending after a date (trend reports)",
+                    conn -> ensureIndex(conn, "reservation", "idx_reservation_checkout", "check_out", "check_in")),
+    };
+
+    public static void main(String[] args) throws SQLException {
+        migrate();
+    }
+
+    // Apply every pending migration. Serialized across clients with a MySQL named lock.
+    public static void migrate() throws SQLException {
+        Connection conn = null;
+        boolean locked = false;
+
+        try {
+            conn = DatabaseConnection.getConnection();
+            locked = acquireLock(conn);
+            if (!locked) {
+                throw new SQLException("Timed out waiting for another client to finish migrating the schema");
+            }
+
+            execute(conn, "CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT NOT NULL PRIMARY KEY, " +
+                    "description VARCHAR(255) NOT NULL, " +
+                    "applied_at DATETIME DEFAULT CURRENT_TIMESTAMP) ENGINE=InnoDB");
+
+            int current = currentVersion(conn);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                // DDL commits implicitly in MySQL, so each step stands on its own; re-running is safe
+                for (Step step : migration.steps) {
+                    step.apply(conn);
+                }
+                recordVersion(conn, migration);
+                System.out.println("Schema migrated to version " + migration.version + ": " + migration.description);
+            }
+        } finally {
+            if (locked) {
+                releaseLock(conn);
+            }
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Version the database is at, or 0 before any migration has run
+    public static int currentVersion() throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            return currentVersion(conn);
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // Latest version this build knows about
+    public static int latestVersion() {
+        return MIGRATIONS[MIGRATIONS.length - 1].version;
+    }
+
+    // Create the index unless some existing index already has these columns as its leading columns
+    static void ensureIndex(Connection conn, String table, String indexName, String... columns) throws SQLException {
+        String existing = findCoveringIndex(conn, table, columns);
+        if (existing != null) {
+            return;
+        }
+        execute(conn, "CREATE INDEX " + indexName + " ON " + table + "(" + String.join(", ", columns) + ")");
+    }
+
+    // Name of an index on the table whose leading columns are exactly these, in order, or null
+    static String findCoveringIndex(Connection conn, String table, String... columns) throws SQLException {
+        String sql = "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? " +
+                "ORDER BY INDEX_NAME, SEQ_IN_INDEX";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                String indexName = null;
+                List<String> indexColumns = new ArrayList<>();
+                while (rs.next()) {
+                    if (!rs.getString("INDEX_NAME").equals(indexName)) {
+                        if (startsWith(indexColumns, columns)) {
+                            return indexName;
+                        }
+                        indexName = rs.getString("INDEX_NAME");
+                        indexColumns.clear();
+                    }
+                    indexColumns.add(rs.getString("COLUMN_NAME"));
+                }
+                return startsWith(indexColumns, columns) ? indexName : null;
+            }
+        }
+    }
+
+    private static boolean startsWith(List<String> indexColumns, String[] columns) {
+        if (indexColumns.size() < columns.length) {
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!indexColumns.get(i).equalsIgnoreCase(columns[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Fill dashboard_counter from the base tables, only when it is empty
+    private static void seedDashboardCounters(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM dashboard_counter")) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                return;
+            }
+        }
+        execute(conn, "INSERT INTO dashboard_counter (counter_name, slot, counter_value) " +
+                "SELECT 'total_guests', 0, COUNT(*) FROM guest " +
+                "UNION ALL SELECT 'reserved_rooms', 0, COUNT(*) FROM room WHERE status = 'reserved' " +
+                "UNION ALL SELECT 'available_rooms', 0, COUNT(*) FROM room WHERE status = 'available' " +
+                "UNION ALL SELECT 'occupied_rooms', 0, COUNT(*) FROM room WHERE status = 'occupied' " +
+                "UNION ALL SELECT 'active_rentals', 0, COUNT(*) FROM amenity_rental WHERE status = 'active' " +
+                "UNION ALL SELECT 'inventory_items', 0, COUNT(*) FROM inventory_item " +
+                "UNION ALL SELECT 'checked_in_reservations', 0, COUNT(*) FROM reservation WHERE status = 'checked-in'");
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            // No schema_version table yet
+            return 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description) VALUES (?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Logs every statement that takes longer than the threshold to a rotating file, with its bind
+ * parameters, the DAO method that ran it and the rows it returned or changed. Values bound to
+ * guest columns (names, phone, email, passport) are masked; so is any value in a statement on
+ * the guest table when we can't tell which column it belongs to.
+ * The query plan is captured afterwards with EXPLAIN FORMAT=JSON on another pooled connection, on
+ * a background thread, at most once a minute per statement shape, and logged under the same #id.
+ */
+public class SlowQueryLog {
+    public static final long DEFAULT_THRESHOLD_MS = 500;
+
+    private static final int FILE_LIMIT_BYTES = 5 * 1024 * 1024;
+    private static final int FILE_COUNT = 5;
+    private static final long EXPLAIN_INTERVAL_MS = 60_000;
+    private static final int EXPLAIN_QUEUE_SIZE = 16;
+    private static final int MAX_VALUE_LENGTH = 200;
+    private static final String MASK = "<masked>";
+
+    private static final Set<String> GUEST_PII_COLUMNS = Set.of("first_name", "last_name", "phone", "email", "passport_no");
+    // Between a column and its ?: col = ?, col LIKE ?, col IN (?, ?), col BETWEEN ? AND ?
+    private static final Set<String> COMPARISONS = Set.of("=", "<", ">", "<=", ">=", "<>", "!=",
+            "like", "not", "in", "is", "regexp", "between", "and");
+    private static final Set<String> SEPARATORS = Set.of("(", ",", "?");
+    private static final Pattern GUEST_TABLE = Pattern.compile("\\bguest\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "^\\s*(?:INSERT|REPLACE)\\s+(?:IGNORE\\s+)?INTO\\s+\\S+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOKEN = Pattern.compile(
+            "'(?:[^'\\\\]|\\\\.|'')*'|\"(?:[^\"\\\\]|\\\\.)*\"|`[^`]*`|[\\w$.]+|<=|>=|<>|!=|\\S");
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(SELECT|WITH|UPDATE|DELETE|INSERT|REPLACE)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Logger logger = Logger.getLogger("database.slowquery");
+    private static volatile boolean configured;
+    private static volatile boolean enabled = true;
+    private static volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_THRESHOLD_MS);
+    private static String logFile;
+
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ConcurrentHashMap<String, Long> lastExplained = new ConcurrentHashMap<>();
+    // The EXPLAIN thread's own queries must not be logged (or explained) again
+    private static final ThreadLocal<Boolean> explaining = ThreadLocal.withInitial(() -> false);
+    private static final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE), r -> {
+                Thread t = new Thread(() -> {
+                    explaining.set(true);
+                    r.run();
+                }, "slow-query-explain");
+                t.setDaemon(true);
+                return t;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private SlowQueryLog() {}
+
+    // Start writing to filePattern (a FileHandler pattern such as logs/slow-queries.%g.log)
+    public static synchronized void configure(String filePattern, long thresholdMillis) {
+        if (configured) {
+            return;
+        }
+        setThresholdMillis(thresholdMillis);
+        try {
+            File dir = new File(filePattern).getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create " + dir);
+            }
+            FileHandler handler = new FileHandler(filePattern, FILE_LIMIT_BYTES, FILE_COUNT, true);
+            handler.setFormatter(new Formatter() {
+                @Override
+                public String format(LogRecord record) {
+                    return String.format("%1$tF %1$tT.%1$tL %2$s%n", record.getMillis(), record.getMessage());
+                }
+            });
+            logger.setUseParentHandlers(false);
+            logger.addHandler(handler);
+            logFile = filePattern;
+            configured = true;
+        } catch (IOException e) {
+            System.err.println("Slow query log disabled: " + e.getMessage());
+        }
+    }
+
+    public static void setThresholdMillis(long millis) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    public static long getThresholdMillis() { return TimeUnit.NANOSECONDS.toMillis(thresholdNanos); }
+    public static String getLogFile() { return logFile; }
+    public static void setEnabled(boolean value) { enabled = value; }
+    // On once configure has opened the log file, unless switched off
+    public static boolean isEnabled() { return configured && enabled; }
+
+    static boolean isSlow(long elapsedNanos) {
+        return configured && enabled && elapsedNanos >= thresholdNanos && !explaining.get();
+    }
+
+    // rows is -1 when not known yet (streamed results); params is null for plain Statements
+    static void log(String sql, Object[] params, long elapsedNanos, long rows, SQLException error) {
+        long id = sequence.incrementAndGet();
+        String shown = params == null ? QueryMetrics.fingerprint(sql) : sql.replaceAll("\\s+", " ").trim();
+        boolean[] masked = maskedParameters(sql, params);
+
+        StringBuilder message = new StringBuilder();
+        message.append(String.format("[#%d] %.1f ms, ", id, elapsedNanos / 1e6))
+                .append(rows < 0 ? "rows streamed" : "rows=" + rows)
+                .append(", caller=").append(caller());
+        if (error != null) {
+            message.append(", failed: ").append(error.getMessage());
+        }
+        message.append("\n    ").append(shown);
+        if (params != null && params.length > 0) {
+            message.append("\n    params: [");
+            for (int i = 0; i < params.length; i++) {
+                message.append(i == 0 ? "" : ", ").append(masked[i] ? MASK : describe(params[i]));
+            }
+            message.append(']');
+        }
+        logger.info(message.toString());
+
+        // Literals inlined in a plain Statement would show up in its plan unmasked
+        boolean inlineGuestValues = params == null && GUEST_TABLE.matcher(sql).find();
+        if (error == null && !inlineGuestValues && EXPLAINABLE.matcher(sql).find()) {
+            String fingerprint = QueryMetrics.fingerprint(sql);
+            long now = System.currentTimeMillis();
+            Long last = lastExplained.get(fingerprint);
+            if (last == null || now - last >= EXPLAIN_INTERVAL_MS) {
+                lastExplained.put(fingerprint, now);
+                Object[] values = params == null ? new Object[0] : params.clone();
+                explainer.execute(() -> explain(id, sql, values, masked));
+            }
+        }
+    }
+
+    // Runs on the explain thread, on a connection of its own
+    private static void explain(long id, String sql, Object[] params, boolean[] masked) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+
+        try {
+            for (Object value : params) {
+                if (value instanceof InputStream || value instanceof Reader) {
+                    return; // already consumed by the original execution
+                }
+            }
+            conn = DatabaseConnection.getConnection();
+            // 3-argument prepare keeps this one-off statement out of the statement cache
+            pstmt = conn.prepareStatement("EXPLAIN FORMAT=JSON " + sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            rs = pstmt.executeQuery();
+            if (rs.next()) {
+                String plan = rs.getString(1);
+                // The plan's conditions quote the bound values, so mask them there too
+                for (int i = 0; i < params.length; i++) {
+                    if (masked[i] && params[i] != null) {
+                        String value = params[i].toString();
+                        plan = plan.replace("'" + value + "'", "'" + MASK + "'");
+                        if (value.length() >= 3) {
+                            plan = plan.replace(value, MASK);
+                        }
+                    }
+                }
+                logger.info("[#" + id + "] plan:\n" + plan);
+            }
+        } catch (SQLException e) {
+            logger.log(Level.INFO, "[#" + id + "] EXPLAIN failed: " + e.getMessage());
+        } finally {
+            try {
+                if (rs != null) rs.close();
+                if (pstmt != null) pstmt.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // The innermost DAO method on the stack, or the first caller outside the JDBC layers
+    private static String caller() {
+        Optional<StackWalker.StackFrame> frame = StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith("dao."))
+                .findFirst());
+        if (frame.isEmpty()) {
+            frame = StackWalker.getInstance().walk(frames -> frames
+                    .filter(f -> !isInfrastructure(f.getClassName()))
+                    .findFirst());
+        }
+        return frame.map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber()).orElse("unknown");
+    }
+
+    private static boolean isInfrastructure(String className) {
+        return className.startsWith("database.") || className.startsWith("java.") || className.startsWith("jdk.")
+                || className.startsWith("sun.") || className.startsWith("com.sun.") || className.startsWith("com.mysql.");
+    }
+
+    // Which parameters to hide: values for guest PII columns, and any value on the guest table
+    // whose column we can't work out
+    static boolean[] maskedParameters(String sql, Object[] params) {
+        int count = params == null ? 0 : params.length;
+        boolean[] masked = new boolean[count];
+        if (count == 0 || !GUEST_TABLE.matcher(sql).find()) {
+            return masked;
+        }
+        List<String> columns = parameterColumns(sql);
+        for (int i = 0; i < count; i++) {
+            String column = i < columns.size() ? columns.get(i) : null;
+            masked[i] = column == null || GUEST_PII_COLUMNS.contains(column);
+        }
+        return masked;
+    }
+
+    // Best guess at the column each ? is bound to, in order; null where there's no telling
+    static List<String> parameterColumns(String sql) {
+        List<String> columns = new ArrayList<>();
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            String[] names = insert.group(1).split(",");
+            String[] values = insert.group(2).split(",");
+            if (names.length == values.length) {
+                for (int i = 0; i < names.length; i++) {
+                    if (values[i].trim().equals("?")) {
+                        columns.add(columnName(names[i].trim()));
+                    } else if (values[i].contains("?")) {
+                        columns.add(null);
+                    }
+                }
+                int end = insert.end();
+                columns.addAll(parameterColumns(sql.substring(end))); // e.g. ON DUPLICATE KEY UPDATE c = ?
+                return columns;
+            }
+        }
+
+        List<String> tokens = new ArrayList<>();
+        Matcher token = TOKEN.matcher(sql);
+        while (token.find()) {
+            tokens.add(token.group());
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            if (!tokens.get(i).equals("?")) {
+                continue;
+            }
+            // Anything else (a function argument, a VALUES list we couldn't map) stays unknown
+            String column = null;
+            boolean compared = false;
+            for (int j = i - 1; j >= 0; j--) {
+                String previous = tokens.get(j).toLowerCase(Locale.ROOT);
+                if (COMPARISONS.contains(previous)) {
+                    compared = true;
+                    continue;
+                }
+                if (SEPARATORS.contains(previous)) {
+                    continue;
+                }
+                if (previous.equals("limit") || previous.equals("offset")) {
+                    column = previous;
+                } else if (compared && (Character.isLetter(previous.charAt(0)) || previous.charAt(0) == '_'
+                        || previous.charAt(0) == '`')) {
+                    column = columnName(previous);
+                }
+                break;
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    // g.first_name or `first_name` -> first_name
+    private static String columnName(String identifier) {
+        String name = identifier.substring(identifier.lastIndexOf('.') + 1).replace("`", "");
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String describe(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        if (value instanceof InputStream || value instanceof Reader || value instanceof Blob || value instanceof Clob) {
+            return "<stream>";
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+}
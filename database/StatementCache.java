@@ -0,0 +1,206 @@
+package database;
+
+import com.mysql.cj.jdbc.JdbcConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * Statements are prepared server-side on a miss so MySQL only parses each query once per
+ * connection. Callers get a handle whose close() clears the parameters and any unexecuted
+ * batch and puts the statement back in the cache instead of closing it.
+ */
+public class StatementCache {
+    public static final int MAX_STATEMENTS_PER_CONNECTION = 64;
+
+    private static volatile boolean enabled = true;
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    private final Connection physical;
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical) {
+        this.physical = physical;
+    }
+
+    public static void setEnabled(boolean value) { enabled = value; }
+    public static boolean isEnabled() { return enabled; }
+    public static long getHitCount() { return hits.get(); }
+    public static long getMissCount() { return misses.get(); }
+    public static long getEvictionCount() { return evictions.get(); }
+
+    public static void resetCounters() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public static String getStatsSummary() {
+        long h = hits.get();
+        long m = misses.get();
+        double ratio = (h + m) == 0 ? 0 : (100.0 * h / (h + m));
+        return String.format("Statement cache: %s, hits=%d, misses=%d, evictions=%d, hit ratio=%.1f%%",
+                enabled ? "on" : "off", h, m, evictions.get(), ratio);
+    }
+
+    // Returns a cached statement for the SQL, or null if the cache can't serve this request
+    PreparedStatement borrow(String sql, int autoGeneratedKeys) throws SQLException {
+        if (!enabled) {
+            return null;
+        }
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null) {
+            if (cached.inUse) {
+                // Same SQL already checked out on this connection (nested call); fall back to an uncached one
+                return null;
+            }
+            hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.newHandle();
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement stmt = prepareServerSide(sql, autoGeneratedKeys);
+        cached = new CachedStatement(key, stmt);
+        cached.inUse = true;
+        statements.put(key, cached);
+        evictIfNeeded();
+        return cached.newHandle();
+    }
+
+    void closeAll() {
+        for (CachedStatement cached : statements.values()) {
+            cached.closePhysical();
+        }
+        statements.clear();
+    }
+
+    private PreparedStatement prepareServerSide(String sql, int autoGeneratedKeys) throws SQLException {
+        if (physical.isWrapperFor(JdbcConnection.class)) {
+            try {
+                return physical.unwrap(JdbcConnection.class).serverPrepareStatement(sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                // Some statements can't be prepared on the server; use a client-side prepare instead
+            }
+        }
+        return physical.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (statements.size() > MAX_STATEMENTS_PER_CONNECTION && it.hasNext()) {
+            CachedStatement eldest = it.next();
+            if (!eldest.inUse) {
+                it.remove();
+                eldest.closePhysical();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private class CachedStatement {
+        private final String key;
+        private final PreparedStatement physical;
+        private boolean inUse;
+        // Set when a borrower changes statement-level settings that must not leak to the next borrower
+        private boolean settingsChanged;
+        // closeOnCompletion() can't be undone, so such a statement is closed instead of going back
+        private boolean retired;
+
+        CachedStatement(String key, PreparedStatement physical) {
+            this.key = key;
+            this.physical = physical;
+        }
+
+        PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle());
+        }
+
+        void giveBack() {
+            if (retired) {
+                statements.remove(key, this);
+                closePhysical();
+                return;
+            }
+            try {
+                physical.clearParameters();
+                physical.clearBatch();
+                if (settingsChanged) {
+                    physical.setQueryTimeout(0);
+                    physical.setMaxRows(0);
+                    physical.setMaxFieldSize(0);
+                    physical.setFetchSize(0);
+                    settingsChanged = false;
+                }
+            } catch (SQLException e) {
+                // Leave it marked in use so it is never handed out again; it gets closed with the connection
+                return;
+            }
+            inUse = false;
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // Connection is being discarded anyway
+            }
+        }
+
+        private class Handle implements InvocationHandler {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                switch (name) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            giveBack();
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "setQueryTimeout":
+                    case "setMaxRows":
+                    case "setMaxFieldSize":
+                    case "setFetchSize":
+                        settingsChanged = true;
+                        break;
+                    case "closeOnCompletion":
+                        retired = true;
+                        break;
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Statement has already been closed");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+}
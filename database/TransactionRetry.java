@@ -0,0 +1,175 @@
+package database;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reruns a whole DAO transaction when MySQL rolls it back as a deadlock victim (1213, SQLState
+ * 40001) or its lock wait times out (1205). The work must be a complete transaction that rolls
+ * back on failure and has no side effects before commit, so running it again is safe; every other
+ * SQLException is passed straight through.
+ * Attempts back off with full jitter (a random sleep up to 10, 20, 40 ms ...) so the transactions
+ * that collided don't collide again. Retries also draw on a shared budget that refills by a tenth of
+ * a retry per transaction, so a lock storm can't multiply the load: once it is spent, failures go
+ * back to the caller until enough transactions have gone through.
+ * Inside a UnitOfWork transaction the work runs once and is neither retried nor counted: the
+ * deadlock rolled back the whole unit, not just this part of it, so a retry (and its count) belongs
+ * around the whole unit.
+ * Per-operation counts of transactions, retries and aborts are in getStatsSummary() and the
+ * GUI's DB Diagnostics panel.
+ */
+public final class TransactionRetry {
+
+    // A complete transaction to run, and rerun after a deadlock
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    private static final int MAX_ATTEMPTS = 4;
+    private static final long BASE_BACKOFF_MS = 10;
+    private static final long MAX_BACKOFF_MS = 200;
+    private static final double BUDGET_PER_TRANSACTION = 0.1;
+    private static final double MAX_BUDGET = 20;
+
+    private static volatile boolean enabled = true;
+    private static double budget = MAX_BUDGET;
+    private static final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    private TransactionRetry() {}
+
+    // When off, deadlocks still reach the caller on the first attempt but are counted
+    public static void setEnabled(boolean value) { enabled = value; }
+    public static boolean isEnabled() { return enabled; }
+
+    public static <T> T run(String operation, Work<T> work) throws SQLException {
+        if (UnitOfWork.inTransaction()) {
+            return work.run();
+        }
+        Counters c = counters.computeIfAbsent(operation, k -> new Counters());
+        c.transactions.increment();
+        refillBudget();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.run();
+            } catch (SQLException e) {
+                int errorCode = retryableErrorCode(e);
+                if (errorCode == 0) {
+                    throw e;
+                }
+                if (errorCode == ER_LOCK_WAIT_TIMEOUT) {
+                    c.lockWaitTimeouts.increment();
+                } else {
+                    c.deadlocks.increment();
+                }
+                if (!enabled || attempt >= MAX_ATTEMPTS || !takeFromBudget()) {
+                    c.aborts.increment();
+                    throw e;
+                }
+                c.retries.increment();
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(backoffCeiling(attempt) + 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    c.aborts.increment();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // 1213 or 1205 if the failure (or one chained to it) is a deadlock or lock wait timeout, else 0
+    static int retryableErrorCode(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                for (SQLException s = (SQLException) t; s != null; s = s.getNextException()) {
+                    if (s.getErrorCode() == ER_LOCK_DEADLOCK || s.getErrorCode() == ER_LOCK_WAIT_TIMEOUT) {
+                        return s.getErrorCode();
+                    }
+                    if (SERIALIZATION_FAILURE.equals(s.getSQLState())) {
+                        return ER_LOCK_DEADLOCK;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static long backoffCeiling(int attempt) {
+        return Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << (attempt - 1));
+    }
+
+    private static synchronized void refillBudget() {
+        budget = Math.min(MAX_BUDGET, budget + BUDGET_PER_TRANSACTION);
+    }
+
+    private static synchronized boolean takeFromBudget() {
+        if (budget < 1) {
+            return false;
+        }
+        budget -= 1;
+        return true;
+    }
+
+    public static String getStatsSummary() {
+        StringBuilder sb = new StringBuilder();
+        double remaining;
+        synchronized (TransactionRetry.class) {
+            remaining = budget;
+        }
+        sb.append(String.format("Transaction retry: %s, budget=%.1f/%.0f%n", enabled ? "on" : "off", remaining, MAX_BUDGET));
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(counters).entrySet()) {
+            Counters c = entry.getValue();
+            sb.append(String.format("  %-22s transactions=%d, deadlocks=%d, lock timeouts=%d, retries=%d, aborts=%d%n",
+                    entry.getKey(), c.transactions.sum(), c.deadlocks.sum(), c.lockWaitTimeouts.sum(),
+                    c.retries.sum(), c.aborts.sum()));
+        }
+        return sb.toString();
+    }
+
+    public static long getDeadlockCount() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.deadlocks.sum();
+        }
+        return total;
+    }
+
+    public static long getRetryCount() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.retries.sum();
+        }
+        return total;
+    }
+
+    public static long getAbortCount() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.aborts.sum();
+        }
+        return total;
+    }
+
+    public static void reset() {
+        counters.clear();
+        synchronized (TransactionRetry.class) {
+            budget = MAX_BUDGET;
+        }
+    }
+
+    private static final class Counters {
+        private final LongAdder transactions = new LongAdder();
+        private final LongAdder deadlocks = new LongAdder();
+        private final LongAdder lockWaitTimeouts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder aborts = new LongAdder();
+    }
+}
@@ -0,0 +1,245 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One pooled connection shared by everything the current thread does until close().
+ * While a unit is open, DatabaseConnection.getConnection() on this thread hands out the unit's
+ * connection (borrowed on first use) and closing it does nothing, so a DAO method that calls
+ * another DAO method, or a GUI action that chains several DAOs, takes one connection from the pool.
+ * begin() only shares the connection; each DAO method still commits its own work.
+ * beginTransaction() and beginReadOnly() also run everything as one transaction at the given
+ * isolation level: DAO calls to setAutoCommit, commit, setReadOnly and setTransactionIsolation are
+ * ignored and a DAO rollback marks the unit rollback-only. Call commit() before close(); closing
+ * without it rolls back.
+ * DAOs hand their post-commit side effects (such as report cache invalidation) to
+ * afterCommit(), so inside such a transaction they wait for the unit's commit and are dropped if it
+ * rolls back.
+ * Opening a unit while another is open on the thread joins the outer one, and only the outer
+ * close() gives the connection back. Units don't follow work onto other threads (Async*DAO).
+ *
+ *   UnitOfWork unit = UnitOfWork.beginTransaction(Connection.TRANSACTION_REPEATABLE_READ);
+ *   try {
+ *       ...DAO calls...
+ *       unit.commit();
+ *   } finally {
+ *       unit.close();
+ *   }
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    private final UnitOfWork outer;    // null for the unit that owns the connection
+    private final boolean transactional;
+    private final boolean readOnly;
+    private final int isolation;
+    private Connection conn;           // pool handle, borrowed on first use
+    private Connection shared;         // what DAOs get from DatabaseConnection.getConnection()
+    private boolean rollbackOnly;
+    private boolean committed;
+    private boolean closed;
+    private final List<Runnable> afterCommit = new ArrayList<>();   // outermost unit only
+
+    private UnitOfWork(UnitOfWork outer, boolean transactional, boolean readOnly, int isolation) {
+        this.outer = outer;
+        this.transactional = transactional;
+        this.readOnly = readOnly;
+        this.isolation = isolation;
+    }
+
+    // Share one connection; DAO methods keep their own transactions
+    public static UnitOfWork begin() throws SQLException {
+        return open(false, false, Connection.TRANSACTION_NONE);
+    }
+
+    // One read-write transaction at the given isolation level (Connection.TRANSACTION_*)
+    public static UnitOfWork beginTransaction(int isolation) throws SQLException {
+        return open(true, false, isolation);
+    }
+
+    // One read-only transaction, so at REPEATABLE_READ every read sees the same snapshot
+    public static UnitOfWork beginReadOnly(int isolation) throws SQLException {
+        return open(true, true, isolation);
+    }
+
+    public static boolean isActive() {
+        return current.get() != null;
+    }
+
+    // Run the action once the work done so far is committed: now, unless a transactional unit is
+    // open on this thread, in which case when it commits (and never if it rolls back)
+    public static void afterCommit(Runnable action) {
+        UnitOfWork unit = current.get();
+        if (unit == null || !unit.transactional) {
+            action.run();
+        } else {
+            unit.afterCommit.add(action);
+        }
+    }
+
+    // True while the thread's open unit runs everything as one transaction
+    static boolean inTransaction() {
+        UnitOfWork unit = current.get();
+        return unit != null && unit.transactional;
+    }
+
+    private static UnitOfWork open(boolean transactional, boolean readOnly, int isolation) throws SQLException {
+        UnitOfWork active = current.get();
+        if (active == null) {
+            UnitOfWork unit = new UnitOfWork(null, transactional, readOnly, isolation);
+            current.set(unit);
+            return unit;
+        }
+        // Join the unit already open on this thread, if it can host this one
+        if (transactional && !active.transactional) {
+            throw new SQLException("Cannot start a transaction inside a unit of work that only shares its connection");
+        }
+        if (!readOnly && active.readOnly && transactional) {
+            throw new SQLException("Cannot start a read-write transaction inside a read-only one");
+        }
+        return new UnitOfWork(active, transactional, readOnly, isolation);
+    }
+
+    // Called by DatabaseConnection.getConnection() for the thread's open unit, if any
+    static Connection currentConnection() throws SQLException {
+        UnitOfWork unit = current.get();
+        return unit == null ? null : unit.connection();
+    }
+
+    private Connection connection() throws SQLException {
+        if (shared == null) {
+            Connection borrowed = DatabaseConnection.borrow();
+            try {
+                if (transactional) {
+                    // Isolation and read-only must be set before the transaction starts
+                    if (isolation != Connection.TRANSACTION_NONE) {
+                        borrowed.setTransactionIsolation(isolation);
+                    }
+                    if (readOnly) {
+                        borrowed.setReadOnly(true);
+                    }
+                    borrowed.setAutoCommit(false);
+                }
+            } catch (SQLException e) {
+                DatabaseConnection.closeConnection(borrowed);
+                throw e;
+            }
+            conn = borrowed;
+            shared = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Participant());
+        }
+        return shared;
+    }
+
+    public void commit() throws SQLException {
+        if (closed) {
+            throw new SQLException("Unit of work is already closed");
+        }
+        committed = true;
+        if (outer != null || !transactional) {
+            return; // the outer unit commits; a shared-connection unit has nothing to commit
+        }
+        if (conn != null) {
+            if (rollbackOnly) {
+                conn.rollback();
+                throw new SQLException("Transaction rolled back: part of the unit of work failed");
+            }
+            conn.commit();
+        }
+        runAfterCommit();
+    }
+
+    private void runAfterCommit() {
+        List<Runnable> actions = new ArrayList<>(afterCommit);
+        afterCommit.clear();
+        for (Runnable action : actions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The transaction is committed; one failed side effect must not stop the others
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // Roll back unless committed, then give the connection back to the pool
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (outer != null) {
+            if (transactional && !committed) {
+                outer.rollbackOnly = true;
+            }
+            return;
+        }
+        try {
+            if (conn != null && transactional && !committed) {
+                conn.rollback();
+            }
+        } finally {
+            afterCommit.clear();
+            current.remove();
+            DatabaseConnection.closeConnection(conn);
+            conn = null;
+            shared = null;
+        }
+    }
+
+    // The unit's connection as seen by DAOs: closing it is a no-op and in a transaction the DAOs can't end it
+    private class Participant implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "isClosed":
+                    return closed || conn == null || conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "UnitOfWork[" + conn + "]";
+                default:
+                    break;
+            }
+            if (closed || conn == null) {
+                throw new SQLException("Unit of work is already closed");
+            }
+            if (transactional) {
+                switch (method.getName()) {
+                    case "setAutoCommit":
+                    case "commit":
+                    case "setReadOnly":
+                    case "setTransactionIsolation":
+                        return null;
+                    case "rollback":
+                        if (args == null) {
+                            rollbackOnly = true;
+                            return null;
+                        }
+                        break; // rollback to a savepoint stays inside the transaction
+                    default:
+                        break;
+                }
+            }
+            try {
+                return method.invoke(conn, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
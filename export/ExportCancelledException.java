@@ -0,0 +1,12 @@
+package export;
+
+import java.sql.SQLException;
+
+// Thrown out of the row handler to stop the DAO stream when the user cancels an export
+public class ExportCancelledException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    public ExportCancelledException() {
+        super("Export cancelled");
+    }
+}
@@ -0,0 +1,34 @@
+package export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public enum ExportFormat {
+    CSV("csv", "CSV (comma-separated)"),
+    XLSX("xlsx", "Excel workbook");
+
+    private final String extension;
+    private final String description;
+
+    ExportFormat(String extension, String description) {
+        this.extension = extension;
+        this.description = description;
+    }
+
+    public String getExtension() { return extension; }
+    public String getDescription() { return description; }
+
+    // Format matching the file name's extension, or null
+    public static ExportFormat forFileName(String fileName) {
+        for (ExportFormat format : values()) {
+            if (fileName.toLowerCase().endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    RowWriter open(OutputStream out) throws IOException {
+        return this == CSV ? new CsvRowWriter(out) : new XlsxRowWriter(out);
+    }
+}
@@ -0,0 +1,236 @@
+package export;
+
+import dao.AmenityDAO;
+import dao.GuestDAO;
+import dao.InventoryDAO;
+import dao.MonthEndReportRunner;
+import dao.ReportCache.ReportType;
+import dao.ReportsDAO;
+import dao.ReservationDAO;
+import dao.RoomDAO;
+import dao.RowHandler;
+import database.QueryCancellation;
+import models.ReportRow;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.YearMonth;
+
+/**
+ * Exports a DAO list or a report to CSV or XLSX. Rows go straight from the DAO's streaming cursor
+ * to the file writer, so memory stays flat however many rows there are. The file is written under
+ * a temporary name and only moved into place once it is complete; a cancelled or failed export
+ * leaves nothing behind. One job writes one file, on the thread that calls writeTo. Cancelling
+ * also kills the running query, so the rest of a long result is never read.
+ */
+public final class ExportJob {
+    // How often (in rows) writeTo reports progress
+    static final int PROGRESS_INTERVAL = 1000;
+
+    public interface Progress {
+        // Called on the exporting thread; estimatedTotal is -1 when the row count isn't known up front
+        void rowsWritten(long rows, long estimatedTotal);
+    }
+
+    // Streams the rows of the export as cells, in column order
+    private interface Source {
+        void stream(RowHandler<Object[]> sink) throws SQLException;
+    }
+
+    private interface Estimate {
+        long rows() throws SQLException;
+    }
+
+    private final String title;
+    private final String[] columns;
+    private final Source source;
+    private final Estimate estimate;
+    private final QueryCancellation cancellation = new QueryCancellation();
+    private volatile boolean cancelled;
+
+    private ExportJob(String title, String[] columns, Source source, Estimate estimate) {
+        this.title = title;
+        this.columns = columns;
+        this.source = source;
+        this.estimate = estimate;
+    }
+
+    public static ExportJob guests(String searchTerm) {
+        GuestDAO dao = new GuestDAO();
+        return new ExportJob("Guests",
+                new String[]{"Guest ID", "First Name", "Last Name", "Phone", "Email", "Passport No"},
+                sink -> dao.streamAllGuests(searchTerm, guest -> sink.handle(new Object[]{
+                        guest.getGuestId(), guest.getFirstName(), guest.getLastName(),
+                        guest.getPhone(), guest.getEmail(), guest.getPassportNo()})),
+                dao::estimateGuestCount);
+    }
+
+    public static ExportJob rooms(String statusFilter) {
+        RoomDAO dao = new RoomDAO();
+        return new ExportJob("Rooms",
+                new String[]{"Room ID", "Room Code", "Room Type", "Bed Type", "Max Capacity", "Rate/Night", "Status"},
+                sink -> dao.streamAllRooms(statusFilter, room -> sink.handle(new Object[]{
+                        room.getRoomId(), room.getRoomCode(), room.getRoomType(), room.getBedType(),
+                        room.getMaxCapacity(), money(room.getRatePerNight()), room.getStatus()})),
+                null);
+    }
+
+    public static ExportJob reservations(String statusFilter) {
+        ReservationDAO dao = new ReservationDAO();
+        return new ExportJob("Reservations",
+                new String[]{"Res ID", "Guest Name", "Room Code", "Check-In", "Check-Out", "Status", "Booking Channel"},
+                sink -> dao.streamAllReservations(statusFilter, r -> sink.handle(new Object[]{
+                        r.getReservationId(), r.getGuestName(), r.getRoomCode(), r.getCheckIn(),
+                        r.getCheckOut(), r.getStatus(), r.getBookingChannel()})),
+                () -> dao.estimateReservationCount(statusFilter));
+    }
+
+    public static ExportJob amenities(String availabilityFilter) {
+        AmenityDAO dao = new AmenityDAO();
+        return new ExportJob("Amenities",
+                new String[]{"Amenity ID", "Name", "Description", "Rate", "Availability", "Rating"},
+                sink -> dao.streamAllAmenities(availabilityFilter, a -> sink.handle(new Object[]{
+                        a.getAmenityId(), a.getName(), a.getDescription(), money(a.getRate()),
+                        a.getAvailability(), a.getOverallRating()})),
+                null);
+    }
+
+    public static ExportJob inventoryItems() {
+        InventoryDAO dao = new InventoryDAO();
+        return new ExportJob("Inventory",
+                new String[]{"Item ID", "Name", "Quantity", "Supplier", "Last Restocked"},
+                sink -> dao.streamAllInventoryItems(item -> sink.handle(new Object[]{
+                        item.getItemId(), item.getName(), item.getQuantityOnHand(),
+                        item.getSupplier(), item.getLastRestocked()})),
+                null);
+    }
+
+    // One report for every month from `from` to `to` inclusive, each row prefixed with its month.
+    // Detail rows only: subtotals and totals are left to the spreadsheet.
+    public static ExportJob report(ReportType type, YearMonth from, YearMonth to) {
+        ReportsDAO dao = new ReportsDAO();
+        String[] reportColumns = MonthEndReportRunner.columnsOf(type);
+        String[] columns = new String[reportColumns.length + 1];
+        columns[0] = "Month";
+        System.arraycopy(reportColumns, 0, columns, 1, reportColumns.length);
+
+        String title = MonthEndReportRunner.titleOf(type) + " " + from + (from.equals(to) ? "" : " to " + to);
+        return new ExportJob(title, columns, sink -> {
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                String label = month.toString();
+                RowHandler<ReportRow> rows = row -> {
+                    Object[] cells = row.toCells();
+                    Object[] prefixed = new Object[cells.length + 1];
+                    prefixed[0] = label;
+                    System.arraycopy(cells, 0, prefixed, 1, cells.length);
+                    sink.handle(prefixed);
+                };
+                int year = month.getYear();
+                int monthValue = month.getMonthValue();
+                switch (type) {
+                    case OCCUPANCY: dao.streamRoomOccupancyReport(year, monthValue, rows::handle); break;
+                    case REVENUE: dao.streamRevenueReport(year, monthValue, rows::handle); break;
+                    case INVENTORY: dao.streamInventoryReport(year, monthValue, rows::handle); break;
+                    default: dao.streamAmenitiesReport(year, monthValue, rows::handle); break;
+                }
+            }
+        }, null);
+    }
+
+    public String getTitle() { return title; }
+    public String[] getColumns() { return columns.clone(); }
+
+    // Stop the export and its query; writeTo then throws ExportCancelledException
+    public void cancel() {
+        cancelled = true;
+        cancellation.cancel();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Write the export to file (replacing it if it exists) and return the number of data rows
+    public long writeTo(File file, ExportFormat format, Progress progress) throws SQLException, IOException {
+        long estimatedTotal = -1;
+        if (estimate != null) {
+            try {
+                estimatedTotal = estimate.rows();
+            } catch (SQLException e) {
+                // Only used for the progress bar
+            }
+        }
+        long total = estimatedTotal;
+
+        File partial = new File(file.getPath() + ".part");
+        long[] written = {0};
+        boolean complete = false;
+        try {
+            try (OutputStream out = new FileOutputStream(partial)) {
+                RowWriter writer = format.open(out);
+                writer.writeHeader(columns);
+                cancellation.bind();
+                try {
+                    source.stream(cells -> {
+                        if (cancelled) {
+                            throw new ExportCancelledException();
+                        }
+                        try {
+                            writer.writeRow(cells);
+                        } catch (IOException e) {
+                            throw new SQLException("Could not write " + partial + ": " + e.getMessage(), e);
+                        }
+                        if (++written[0] % PROGRESS_INTERVAL == 0 && progress != null) {
+                            progress.rowsWritten(written[0], total);
+                        }
+                    });
+                } finally {
+                    cancellation.unbind();
+                }
+                if (cancelled) {
+                    throw new ExportCancelledException();
+                }
+                writer.finish();
+            } catch (SQLException e) {
+                // A killed query fails with the server's "interrupted" error; report it as the cancel it was
+                if (cancelled) {
+                    throw new ExportCancelledException();
+                }
+                // Surface write failures as the IOException they started as
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+
+            try {
+                Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            complete = true;
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(partial.toPath());
+            }
+        }
+
+        if (progress != null) {
+            progress.rowsWritten(written[0], total);
+        }
+        return written[0];
+    }
+
+    // Rates are doubles on the entity models; export them as money so the XLSX gets the currency format
+    private static BigDecimal money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+}
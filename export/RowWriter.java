@@ -0,0 +1,16 @@
+package export;
+
+import java.io.IOException;
+
+// Writes rows to a file one at a time through a fixed-size buffer, never holding more than the current row
+interface RowWriter {
+    int BUFFER_SIZE = 64 * 1024;
+
+    void writeHeader(String[] columns) throws IOException;
+
+    // Cells are String, Number (BigDecimal for money), LocalDate or null
+    void writeRow(Object[] cells) throws IOException;
+
+    // Write whatever the format needs after the last row; does not close the underlying stream
+    void finish() throws IOException;
+}
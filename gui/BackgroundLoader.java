@@ -0,0 +1,174 @@
+package gui;
+
+import database.UnitOfWork;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs panel data loads off the Event Dispatch Thread.
+ * Each load belongs to a panel key ("guest", "room", ...); starting a new load for a panel
+ * cancels the previous one, and switching panels cancels loads for the panels left behind.
+ * One-shot lookups started while a panel is built (combo box contents) are not reloaded on a
+ * panel switch, so they are never cancelled by one.
+ * Rows are handed back to the EDT in batches so large tables don't freeze the window.
+ * Each load runs in a UnitOfWork, so however many DAO calls it makes it borrows one connection.
+ * All methods must be called on the EDT.
+ */
+class BackgroundLoader {
+    private static final int PUBLISH_BATCH_SIZE = 200;
+
+    private final Map<String, SwingWorker<?, ?>> running = new HashMap<>();
+    private final Map<String, JComponent> indicators = new HashMap<>();
+    private final Set<String> lookups = new HashSet<>();
+
+    // Shown while a load for the panel is in flight
+    void registerIndicator(String panelKey, JComponent indicator) {
+        indicator.setVisible(running.containsKey(panelKey));
+        indicators.put(panelKey, indicator);
+    }
+
+    // Load a single value (a snapshot, a report) and hand it to onSuccess on the EDT
+    <T> void run(String panelKey, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                UnitOfWork unit = UnitOfWork.begin();
+                try {
+                    return task.call();
+                } finally {
+                    unit.close();
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (finish(panelKey, this)) {
+                    try {
+                        onSuccess.accept(get());
+                    } catch (ExecutionException e) {
+                        onError.accept(unwrap(e));
+                    } catch (InterruptedException | CancellationException e) {
+                        // Superseded by a newer load
+                    }
+                }
+            }
+        };
+        start(panelKey, worker);
+    }
+
+    // Like run(), for a one-shot lookup that panel switches must not cancel
+    <T> void runLookup(String key, Callable<T> task, Consumer<T> onSuccess, Consumer<Exception> onError) {
+        lookups.add(key);
+        run(key, task, onSuccess, onError);
+    }
+
+    // Load a list of rows; onStart runs before the query, onRows receives batches, onDone the total
+    <T> void loadRows(String panelKey, Callable<List<T>> query, Runnable onStart, Consumer<List<T>> onRows,
+                      IntConsumer onDone, Consumer<Exception> onError) {
+        onStart.run();
+        SwingWorker<Integer, List<T>> worker = new SwingWorker<>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                List<T> rows;
+                UnitOfWork unit = UnitOfWork.begin();
+                try {
+                    rows = query.call();
+                } finally {
+                    unit.close();
+                }
+                for (int from = 0; from < rows.size() && !isCancelled(); from += PUBLISH_BATCH_SIZE) {
+                    publish(new ArrayList<>(rows.subList(from, Math.min(rows.size(), from + PUBLISH_BATCH_SIZE))));
+                }
+                return rows.size();
+            }
+
+            @Override
+            protected void process(List<List<T>> batches) {
+                if (isCancelled()) {
+                    return;
+                }
+                for (List<T> batch : batches) {
+                    onRows.accept(batch);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (finish(panelKey, this)) {
+                    try {
+                        onDone.accept(get());
+                    } catch (ExecutionException e) {
+                        onError.accept(unwrap(e));
+                    } catch (InterruptedException | CancellationException e) {
+                        // Superseded by a newer load
+                    }
+                }
+            }
+        };
+        start(panelKey, worker);
+    }
+
+    // Cancel every in-flight load except the one for the panel being shown and any lookups
+    void cancelAllExcept(String panelKey) {
+        Iterator<Map.Entry<String, SwingWorker<?, ?>>> it = running.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, SwingWorker<?, ?>> entry = it.next();
+            if (!entry.getKey().equals(panelKey) && !lookups.contains(entry.getKey())) {
+                entry.getValue().cancel(true);
+                it.remove();
+                setIndicator(entry.getKey(), false);
+            }
+        }
+    }
+
+    boolean isLoading(String panelKey) {
+        return running.containsKey(panelKey);
+    }
+
+    private void start(String panelKey, SwingWorker<?, ?> worker) {
+        SwingWorker<?, ?> previous = running.put(panelKey, worker);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+        setIndicator(panelKey, true);
+        worker.execute();
+    }
+
+    // Returns false if the worker was cancelled or replaced, in which case its result is dropped
+    private boolean finish(String panelKey, SwingWorker<?, ?> worker) {
+        if (running.get(panelKey) == worker) {
+            running.remove(panelKey);
+            setIndicator(panelKey, false);
+        }
+        return !worker.isCancelled();
+    }
+
+    private void setIndicator(String panelKey, boolean busy) {
+        JComponent indicator = indicators.get(panelKey);
+        if (indicator != null) {
+            indicator.setVisible(busy);
+            Container parent = indicator.getParent();
+            if (parent != null) {
+                parent.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+            }
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+}
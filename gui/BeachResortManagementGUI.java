@@ -1,16 +1,32 @@
 package gui;
 
 import dao.*;
+import database.DatabaseConnection;
+import database.QueryMetrics;
+import database.QueryStats;
+import database.SchemaMigrator;
+import database.SlowQueryLog;
+import database.StatementCache;
+import database.TransactionRetry;
+import database.UnitOfWork;
+import export.ExportJob;
 import java.awt.*;
+import java.awt.datatransfer.StringSelection;
 import java.awt.event.*;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.*;
 import java.time.format.*;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.swing.*;
 import javax.swing.border.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.*;
 import models.*;
 
@@ -29,8 +45,18 @@ public class BeachResortManagementGUI extends JFrame {
     private CheckOutDAO checkOutDAO;
     private RestockDAO restockDAO;
     private AmenityRentalDAO amenityRentalDAO;
-    private ReportsDAO reportsDAO;
+    private CachedReportsDAO reportsDAO;
+    private TrendReportDAO trendReportDAO;
     private DashboardDAO dashboardDAO;
+    private DashboardCounterReconciler counterReconciler;
+    private ReportFactRefresher reportFactRefresher;
+    private MonthEndReportRunner monthEndRunner;
+
+    // Async facades for screens that fan out independent lookups
+    private AsyncGuestDAO asyncGuestDAO;
+    private AsyncReservationDAO asyncReservationDAO;
+    private AsyncAmenityRentalDAO asyncAmenityRentalDAO;
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(15);
 
     // Color scheme
     private final Color PRIMARY_COLOR = new Color(41, 128, 185);
@@ -41,6 +67,22 @@ public class BeachResortManagementGUI extends JFrame {
     private final Color BG_COLOR = new Color(236, 240, 241);
     private final Color TEXT_COLOR = new Color(0, 0, 0);
 
+    // Background loading of panel data (off the Event Dispatch Thread)
+    private final BackgroundLoader backgroundLoader = new BackgroundLoader();
+    private static EdtMonitor edtMonitor;
+
+    // Table models refreshed when their panel is shown
+    private PagedTableModel<Guest> guestTableModel;
+    private DefaultTableModel roomTableModel;
+    private DefaultTableModel amenityTableModel;
+    private DefaultTableModel inventoryTableModel;
+    private PagedTableModel<Reservation> checkInTableModel;
+    private DefaultTableModel diagnosticsTableModel;
+    private JTextArea poolStatsArea;
+    private Runnable bookingRoomSearch;
+    private static final int ROOM_SEARCH_PAGE_SIZE = 50;
+    private static final long MONTH_END_DEADLINE_MS = 60_000;
+
     //dashboard labels
     private JLabel totalGuestsLabel;
     private JLabel activeReservationsLabel;
@@ -92,8 +134,22 @@ public class BeachResortManagementGUI extends JFrame {
             checkOutDAO = new CheckOutDAO();
             restockDAO = new RestockDAO();
             amenityRentalDAO = new AmenityRentalDAO();
-            reportsDAO = new ReportsDAO();
+            asyncGuestDAO = new AsyncGuestDAO(guestDAO, AsyncDAOExecutor.getInstance(), LOOKUP_TIMEOUT);
+            asyncReservationDAO = new AsyncReservationDAO(reservationDAO, AsyncDAOExecutor.getInstance(), LOOKUP_TIMEOUT);
+            asyncAmenityRentalDAO = new AsyncAmenityRentalDAO(amenityRentalDAO, AsyncDAOExecutor.getInstance(), LOOKUP_TIMEOUT);
+            reportsDAO = new CachedReportsDAO();
+            trendReportDAO = new TrendReportDAO();
+            monthEndRunner = new MonthEndReportRunner(reportsDAO);
             dashboardDAO = new DashboardDAO();
+            counterReconciler = new DashboardCounterReconciler();
+            counterReconciler.start(60);
+            reportFactRefresher = new ReportFactRefresher();
+            reportFactRefresher.start(60);
+
+            // Have the last year's reports ready before anyone asks for them
+            Thread reportPrewarm = new Thread(() -> reportsDAO.prewarm(12), "report-cache-prewarm");
+            reportPrewarm.setDaemon(true);
+            reportPrewarm.start();
             System.out.println("DAOs initialized successfully");
         } catch (Exception e) {
             System.err.println("Error initializing database connection: " + e.getMessage());
@@ -132,6 +188,7 @@ public class BeachResortManagementGUI extends JFrame {
         mainPanel.add(createInventoryRestockPanel(), "restock");
         mainPanel.add(createAmenityRentalPanel(), "rental");
         mainPanel.add(createReportsPanel(), "reports");
+        mainPanel.add(createDiagnosticsPanel(), "diagnostics");
 
         container.add(mainPanel, BorderLayout.CENTER);
 
@@ -195,6 +252,11 @@ public class BeachResortManagementGUI extends JFrame {
         // Reports Section
         panel.add(createMenuSection("REPORTS"));
         panel.add(createMenuButton("📊 Generate Reports", "reports"));
+        panel.add(Box.createRigidArea(new Dimension(0, 10)));
+
+        // System Section
+        panel.add(createMenuSection("SYSTEM"));
+        panel.add(createMenuButton("🩺 DB Diagnostics", "diagnostics"));
 
         panel.add(Box.createVerticalGlue());
 
@@ -243,18 +305,53 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void refreshPanelData(String panelName) {
-        // This will be called when switching panels to refresh data
+        // This will be called when switching panels to refresh data.
+        // Loads still running for the panel we just left are stale, so cancel them.
+        backgroundLoader.cancelAllExcept(panelName);
+
         switch(panelName) {
+            case "dashboard":
+                loadDashboardStats();
+                break;
             case "guest":
-                // Refresh guest table if needed
+                if (guestDAO != null) loadGuestData(guestTableModel);
                 break;
             case "room":
-                // Refresh room table if needed
+                if (roomDAO != null) loadRoomData(roomTableModel);
+                break;
+            case "amenity":
+                if (amenityDAO != null) loadAmenityData(amenityTableModel);
+                break;
+            case "inventory":
+                if (inventoryDAO != null) loadInventoryData(inventoryTableModel);
+                break;
+            case "reservation":
+                bookingRoomSearch.run();
+                break;
+            case "checkin":
+                loadCheckInReservations();
+                break;
+            case "diagnostics":
+                loadDiagnostics();
                 break;
             // Add more cases as needed
         }
     }
 
+    // Small busy indicator shown in a panel's header while its data loads
+    private JComponent createLoadingIndicator(String panelKey) {
+        JProgressBar indicator = new JProgressBar();
+        indicator.setIndeterminate(true);
+        indicator.setString("Loading...");
+        indicator.setStringPainted(true);
+        indicator.setPreferredSize(new Dimension(140, 20));
+        JPanel holder = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        holder.setOpaque(false);
+        holder.add(indicator);
+        backgroundLoader.registerIndicator(panelKey, indicator);
+        return holder;
+    }
+
     private JPanel createStatusPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(new Color(52, 73, 94));
@@ -287,7 +384,11 @@ public class BeachResortManagementGUI extends JFrame {
 
         JLabel titleLabel = new JLabel("Dashboard Overview");
         titleLabel.setFont(new Font("Segoe UI Emoji", Font.BOLD, 24));
-        panel.add(titleLabel, BorderLayout.NORTH);
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("dashboard"), BorderLayout.EAST);
+        panel.add(headerPanel, BorderLayout.NORTH);
 
         JPanel statsPanel = new JPanel(new GridLayout(2, 4, 15, 15));
         statsPanel.setOpaque(false);
@@ -333,22 +434,20 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void loadDashboardStats() {
-        try {
-            DashboardDAO dao = new DashboardDAO();
-
-            totalGuestsLabel.setText(String.valueOf(dao.getTotalGuests()));
-            activeReservationsLabel.setText(String.valueOf(dao.getActiveReservations()));
-            availableRoomsLabel.setText(String.valueOf(dao.getAvailableRooms()));
-            revenueTodayLabel.setText("₱" + String.format("%.2f", dao.getRevenueToday()));
-            occupiedRoomsLabel.setText(String.valueOf(dao.getOccupiedRooms()));
-            amenitiesRentedLabel.setText(String.valueOf(dao.getAmenitiesRented()));
-            inventoryItemsLabel.setText(String.valueOf(dao.getInventoryItems()));
-            pendingCheckoutsLabel.setText(String.valueOf(dao.getPendingCheckouts()));
-
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(null, "Error loading dashboard: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        DashboardDAO dao = dashboardDAO != null ? dashboardDAO : new DashboardDAO();
+        backgroundLoader.run("dashboard", dao::getDashboardSnapshot, stats -> {
+            totalGuestsLabel.setText(String.valueOf(stats.getTotalGuests()));
+            activeReservationsLabel.setText(String.valueOf(stats.getActiveReservations()));
+            availableRoomsLabel.setText(String.valueOf(stats.getAvailableRooms()));
+            revenueTodayLabel.setText("₱" + String.format("%.2f", stats.getRevenueToday()));
+            occupiedRoomsLabel.setText(String.valueOf(stats.getOccupiedRooms()));
+            amenitiesRentedLabel.setText(String.valueOf(stats.getAmenitiesRented()));
+            inventoryItemsLabel.setText(String.valueOf(stats.getInventoryItems()));
+            pendingCheckoutsLabel.setText(String.valueOf(stats.getPendingCheckouts()));
+            updateStatus("Dashboard updated at " +
+                    stats.getTakenAt().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        }, e -> JOptionPane.showMessageDialog(null, "Error loading dashboard: " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private JPanel createStatCard(String title, JLabel valueLabel, Color color) {
@@ -395,16 +494,39 @@ public class BeachResortManagementGUI extends JFrame {
         titlePanel.add(assignLabel);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("guest"), BorderLayout.EAST);
         panel.add(headerPanel, BorderLayout.NORTH);
 
         // Table
         String[] columns = {"Guest ID", "First Name", "Last Name", "Phone", "Email", "Passport No"};
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+        PagedTableModel<Guest> model = new PagedTableModel<>(columns, new PagedTableModel.PageSource<>() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+            public List<Guest> fetchPage(long afterId, int limit) throws SQLException {
+                return guestDAO.getAllGuests(null, afterId, limit);
             }
-        };
+
+            @Override
+            public Long idAtOffset(long offset) throws SQLException {
+                return guestDAO.getGuestIdAtOffset(offset);
+            }
+
+            @Override
+            public long estimateRowCount() throws SQLException {
+                return guestDAO.estimateGuestCount();
+            }
+
+            @Override
+            public long idOf(Guest guest) {
+                return guest.getGuestId();
+            }
+        }, guest -> new Object[]{
+                guest.getGuestId(),
+                guest.getFirstName(),
+                guest.getLastName(),
+                guest.getPhone(),
+                guest.getEmail(),
+                guest.getPassportNo()
+        });
 
         JTable table = new JTable(model);
         table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -430,14 +552,17 @@ public class BeachResortManagementGUI extends JFrame {
         JButton refreshBtn = createActionButton("🔄 Refresh", SECONDARY_COLOR);
         JButton viewPrefsBtn = createActionButton("👁️ View Preferences", new Color(155, 89, 182));
         JButton viewFeedbackBtn = createActionButton("⭐ View Feedback", WARNING_COLOR);
+        JButton exportBtn = createActionButton("📤 Export", SECONDARY_COLOR);
 
         // Add button actions
         addBtn.addActionListener(e -> addGuest(model));
         editBtn.addActionListener(e -> editGuest(table, model));
         deleteBtn.addActionListener(e -> deleteGuest(table, model));
         refreshBtn.addActionListener(e -> loadGuestData(model));
+        guestTableModel = model;
         viewPrefsBtn.addActionListener(e -> viewGuestPreferences(table));
         viewFeedbackBtn.addActionListener(e -> viewGuestFeedback(table));
+        exportBtn.addActionListener(e -> ExportDialog.show(this, ExportJob.guests(null)));
 
         buttonPanel.add(addBtn);
         buttonPanel.add(editBtn);
@@ -445,6 +570,7 @@ public class BeachResortManagementGUI extends JFrame {
         buttonPanel.add(refreshBtn);
         buttonPanel.add(viewPrefsBtn);
         buttonPanel.add(viewFeedbackBtn);
+        buttonPanel.add(exportBtn);
 
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
@@ -453,40 +579,30 @@ public class BeachResortManagementGUI extends JFrame {
         return panel;
     }
 
-    private void loadGuestData(DefaultTableModel model) {
-        try {
-            // Check if DAO is initialized
-            if (guestDAO == null) {
-                JOptionPane.showMessageDialog(this,
-                        "Database connection not ready. Please check database setup.",
-                        "Connection Error",
-                        JOptionPane.WARNING_MESSAGE);
-                return;
-            }
+    private void loadGuestData(PagedTableModel<Guest> model) {
+        // Check if DAO is initialized
+        if (guestDAO == null) {
+            JOptionPane.showMessageDialog(this,
+                    "Database connection not ready. Please check database setup.",
+                    "Connection Error",
+                    JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-            model.setRowCount(0);
-            List<Guest> guests = guestDAO.getAllGuests(null);
-            for (Guest guest : guests) {
-                model.addRow(new Object[]{
-                        guest.getGuestId(),
-                        guest.getFirstName(),
-                        guest.getLastName(),
-                        guest.getPhone(),
-                        guest.getEmail(),
-                        guest.getPassportNo()
+        // Only the row-count estimate is read here; the table fetches pages as they scroll into view
+        updateStatus("Loading guests...");
+        backgroundLoader.run("guest", () -> model.getSource().estimateRowCount(),
+                estimate -> {
+                    model.reset(estimate);
+                    updateStatus("About " + estimate + " guests");
+                },
+                e -> {
+                    showError("Error loading guests: " + e.getMessage());
+                    e.printStackTrace();
                 });
-            }
-            updateStatus("Loaded " + guests.size() + " guests");
-        } catch (SQLException e) {
-            showError("Error loading guests: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) {
-            showError("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
-        }
     }
 
-    private void addGuest(DefaultTableModel model) {
+    private void addGuest(PagedTableModel<Guest> model) {
         // Check if DAO is initialized
         if (guestDAO == null) {
             JOptionPane.showMessageDialog(this,
@@ -551,7 +667,7 @@ public class BeachResortManagementGUI extends JFrame {
         }
     }
 
-    private void editGuest(JTable table, DefaultTableModel model) {
+    private void editGuest(JTable table, PagedTableModel<Guest> model) {
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) {
             JOptionPane.showMessageDialog(this, "Please select a guest to edit",
@@ -560,6 +676,9 @@ public class BeachResortManagementGUI extends JFrame {
         }
 
         Long guestId = (Long) model.getValueAt(selectedRow, 0);
+        if (guestId == null) {
+            return; // row is still loading
+        }
 
         try {
             Guest guest = guestDAO.getGuestById(guestId);
@@ -627,7 +746,7 @@ public class BeachResortManagementGUI extends JFrame {
         }
     }
 
-    private void deleteGuest(JTable table, DefaultTableModel model) {
+    private void deleteGuest(JTable table, PagedTableModel<Guest> model) {
         int selectedRow = table.getSelectedRow();
         if (selectedRow == -1) {
             JOptionPane.showMessageDialog(this, "Please select a guest to delete",
@@ -636,6 +755,9 @@ public class BeachResortManagementGUI extends JFrame {
         }
 
         Long guestId = (Long) model.getValueAt(selectedRow, 0);
+        if (guestId == null) {
+            return; // row is still loading
+        }
         String guestName = model.getValueAt(selectedRow, 1) + " " + model.getValueAt(selectedRow, 2);
 
         int confirm = JOptionPane.showConfirmDialog(this,
@@ -663,6 +785,9 @@ public class BeachResortManagementGUI extends JFrame {
         }
 
         Long guestId = (Long) table.getModel().getValueAt(selectedRow, 0);
+        if (guestId == null) {
+            return; // row is still loading
+        }
 
         try {
             String prefs = guestDAO.getGuestWithPreferences(guestId);
@@ -687,6 +812,9 @@ public class BeachResortManagementGUI extends JFrame {
         }
 
         Long guestId = (Long) table.getModel().getValueAt(selectedRow, 0);
+        if (guestId == null) {
+            return; // row is still loading
+        }
 
         try {
             String feedback = guestDAO.getGuestWithFeedback(guestId);
@@ -725,6 +853,7 @@ public class BeachResortManagementGUI extends JFrame {
         titlePanel.add(assignLabel);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("room"), BorderLayout.EAST);
         panel.add(headerPanel, BorderLayout.NORTH);
 
         // Table
@@ -760,14 +889,17 @@ public class BeachResortManagementGUI extends JFrame {
         JButton refreshBtn = createActionButton("🔄 Refresh", SECONDARY_COLOR);
         JButton viewServicesBtn = createActionButton("👁️ View Services", new Color(155, 89, 182));
         JButton viewGuestCountBtn = createActionButton("📊 Guest Count", WARNING_COLOR);
+        JButton exportBtn = createActionButton("📤 Export", SECONDARY_COLOR);
 
         // Add button actions
         addBtn.addActionListener(e -> addRoom(model));
         editBtn.addActionListener(e -> editRoom(table, model));
         deleteBtn.addActionListener(e -> deleteRoom(table, model));
         refreshBtn.addActionListener(e -> loadRoomData(model));
+        roomTableModel = model;
         viewServicesBtn.addActionListener(e -> viewRoomServices(table));
         viewGuestCountBtn.addActionListener(e -> viewRoomGuestCount(table));
+        exportBtn.addActionListener(e -> ExportDialog.show(this, ExportJob.rooms(null)));
 
         buttonPanel.add(addBtn);
         buttonPanel.add(editBtn);
@@ -775,6 +907,7 @@ public class BeachResortManagementGUI extends JFrame {
         buttonPanel.add(refreshBtn);
         buttonPanel.add(viewServicesBtn);
         buttonPanel.add(viewGuestCountBtn);
+        buttonPanel.add(exportBtn);
 
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
@@ -782,29 +915,29 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void loadRoomData(DefaultTableModel model) {
-        try {
-            if (roomDAO == null) {
-                JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            model.setRowCount(0);
-            List<Room> rooms = roomDAO.getAllRooms(null);
-            for (Room room : rooms) {
-                model.addRow(new Object[]{
-                        room.getRoomId(),
-                        room.getRoomCode(),
-                        room.getRoomType(),
-                        room.getBedType(),
-                        room.getMaxCapacity(),
-                        String.format("₱%.2f", room.getRatePerNight()),
-                        room.getStatus()
-                });
-            }
-            updateStatus("Loaded " + rooms.size() + " rooms");
-        } catch (SQLException e) {
-            showError("Error loading rooms: " + e.getMessage());
+        if (roomDAO == null) {
+            JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
+            return;
         }
+
+        updateStatus("Loading rooms...");
+        backgroundLoader.loadRows("room", () -> roomDAO.getAllRooms(null),
+                () -> model.setRowCount(0),
+                rooms -> {
+                    for (Room room : rooms) {
+                        model.addRow(new Object[]{
+                                room.getRoomId(),
+                                room.getRoomCode(),
+                                room.getRoomType(),
+                                room.getBedType(),
+                                room.getMaxCapacity(),
+                                String.format("₱%.2f", room.getRatePerNight()),
+                                room.getStatus()
+                        });
+                    }
+                },
+                total -> updateStatus("Loaded " + total + " rooms"),
+                e -> showError("Error loading rooms: " + e.getMessage()));
     }
 
     //helper to generate room code based on the type and the timestamp
@@ -1084,6 +1217,7 @@ public class BeachResortManagementGUI extends JFrame {
         titlePanel.add(assignLabel);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("amenity"), BorderLayout.EAST);
         panel.add(headerPanel, BorderLayout.NORTH);
 
         // Table
@@ -1117,18 +1251,22 @@ public class BeachResortManagementGUI extends JFrame {
         JButton deleteBtn = createActionButton("🗑️ Delete", DANGER_COLOR);
         JButton refreshBtn = createActionButton("🔄 Refresh", SECONDARY_COLOR);
         JButton viewRequestsBtn = createActionButton("📊 View Requests", WARNING_COLOR);
+        JButton exportBtn = createActionButton("📤 Export", SECONDARY_COLOR);
 
         addBtn.addActionListener(e -> addAmenity(model));
         editBtn.addActionListener(e -> editAmenity(table, model));
         deleteBtn.addActionListener(e -> deleteAmenity(table, model));
         refreshBtn.addActionListener(e -> loadAmenityData(model));
+        amenityTableModel = model;
         viewRequestsBtn.addActionListener(e -> viewAmenityRequests(table));
+        exportBtn.addActionListener(e -> ExportDialog.show(this, ExportJob.amenities(null)));
 
         buttonPanel.add(addBtn);
         buttonPanel.add(editBtn);
         buttonPanel.add(deleteBtn);
         buttonPanel.add(refreshBtn);
         buttonPanel.add(viewRequestsBtn);
+        buttonPanel.add(exportBtn);
 
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
@@ -1136,28 +1274,28 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void loadAmenityData(DefaultTableModel model) {
-        try {
-            if (amenityDAO == null) {
-                JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            model.setRowCount(0);
-            List<Amenity> amenities = amenityDAO.getAllAmenities(null);
-            for (Amenity amenity : amenities) {
-                model.addRow(new Object[]{
-                        amenity.getAmenityId(),
-                        amenity.getName(),
-                        amenity.getDescription(),
-                        String.format("₱%.2f", amenity.getRate()),
-                        amenity.getAvailability(),
-                        amenity.getOverallRating() != null ? amenity.getOverallRating() : "N/A"
-                });
-            }
-            updateStatus("Loaded " + amenities.size() + " amenities");
-        } catch (SQLException e) {
-            showError("Error loading amenities: " + e.getMessage());
+        if (amenityDAO == null) {
+            JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
+            return;
         }
+
+        updateStatus("Loading amenities...");
+        backgroundLoader.loadRows("amenity", () -> amenityDAO.getAllAmenities(null),
+                () -> model.setRowCount(0),
+                amenities -> {
+                    for (Amenity amenity : amenities) {
+                        model.addRow(new Object[]{
+                                amenity.getAmenityId(),
+                                amenity.getName(),
+                                amenity.getDescription(),
+                                String.format("₱%.2f", amenity.getRate()),
+                                amenity.getAvailability(),
+                                amenity.getOverallRating() != null ? amenity.getOverallRating() : "N/A"
+                        });
+                    }
+                },
+                total -> updateStatus("Loaded " + total + " amenities"),
+                e -> showError("Error loading amenities: " + e.getMessage()));
     }
 
     private void addAmenity(DefaultTableModel model) {
@@ -1354,6 +1492,7 @@ public class BeachResortManagementGUI extends JFrame {
         titlePanel.add(assignLabel);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("inventory"), BorderLayout.EAST);
         panel.add(headerPanel, BorderLayout.NORTH);
 
         // Table
@@ -1387,18 +1526,22 @@ public class BeachResortManagementGUI extends JFrame {
         JButton deleteBtn = createActionButton("🗑️ Delete", DANGER_COLOR);
         JButton refreshBtn = createActionButton("🔄 Refresh", SECONDARY_COLOR);
         JButton viewStatsBtn = createActionButton("📊 View Stats", WARNING_COLOR);
+        JButton exportBtn = createActionButton("📤 Export", SECONDARY_COLOR);
 
         addBtn.addActionListener(e -> addInventoryItem(model));
         editBtn.addActionListener(e -> editInventoryItem(table, model));
         deleteBtn.addActionListener(e -> deleteInventoryItem(table, model));
         refreshBtn.addActionListener(e -> loadInventoryData(model));
+        inventoryTableModel = model;
         viewStatsBtn.addActionListener(e -> viewInventoryStats(table));
+        exportBtn.addActionListener(e -> ExportDialog.show(this, ExportJob.inventoryItems()));
 
         buttonPanel.add(addBtn);
         buttonPanel.add(editBtn);
         buttonPanel.add(deleteBtn);
         buttonPanel.add(refreshBtn);
         buttonPanel.add(viewStatsBtn);
+        buttonPanel.add(exportBtn);
 
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
@@ -1406,27 +1549,27 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void loadInventoryData(DefaultTableModel model) {
-        try {
-            if (inventoryDAO == null) {
-                JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
-                return;
-            }
-
-            model.setRowCount(0);
-            List<InventoryItem> items = inventoryDAO.getAllInventoryItems();
-            for (InventoryItem item : items) {
-                model.addRow(new Object[]{
-                        item.getItemId(),
-                        item.getName(),
-                        item.getQuantityOnHand(),
-                        item.getSupplier(),
-                        item.getLastRestocked() != null ? item.getLastRestocked().toString() : "Never"
-                });
-            }
-            updateStatus("Loaded " + items.size() + " inventory items");
-        } catch (SQLException e) {
-            showError("Error loading inventory: " + e.getMessage());
+        if (inventoryDAO == null) {
+            JOptionPane.showMessageDialog(this, "Database connection not ready.", "Error", JOptionPane.WARNING_MESSAGE);
+            return;
         }
+
+        updateStatus("Loading inventory...");
+        backgroundLoader.loadRows("inventory", inventoryDAO::getAllInventoryItems,
+                () -> model.setRowCount(0),
+                items -> {
+                    for (InventoryItem item : items) {
+                        model.addRow(new Object[]{
+                                item.getItemId(),
+                                item.getName(),
+                                item.getQuantityOnHand(),
+                                item.getSupplier(),
+                                item.getLastRestocked() != null ? item.getLastRestocked().toString() : "Never"
+                        });
+                    }
+                },
+                total -> updateStatus("Loaded " + total + " inventory items"),
+                e -> showError("Error loading inventory: " + e.getMessage()));
     }
 
     private void addInventoryItem(DefaultTableModel model) {
@@ -1590,28 +1733,41 @@ public class BeachResortManagementGUI extends JFrame {
 
         JScrollPane roomTableScroll = new JScrollPane(roomTable);
 
+        // Search filters (dates come from the form on the right)
+        JComboBox<String> roomTypeCombo = new JComboBox<>(new String[]{"All"});
+        JSpinner minGuestsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 20, 1));
+        JTextField maxRateField = new JTextField(6);
+        JButton searchRoomsBtn = createActionButton("🔍 Find Free Rooms", PRIMARY_COLOR);
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 2));
+        filterPanel.setOpaque(false);
+        filterPanel.add(new JLabel("Type:"));
+        filterPanel.add(roomTypeCombo);
+        filterPanel.add(new JLabel("Guests:"));
+        filterPanel.add(minGuestsSpinner);
+        filterPanel.add(new JLabel("Max Rate:"));
+        filterPanel.add(maxRateField);
+        filterPanel.add(searchRoomsBtn);
+
+        JPanel roomHeaderPanel = new JPanel(new BorderLayout());
+        roomHeaderPanel.setOpaque(false);
+        roomHeaderPanel.add(new JLabel("Available Rooms", SwingConstants.CENTER), BorderLayout.NORTH);
+        roomHeaderPanel.add(filterPanel, BorderLayout.CENTER);
+
+        JButton moreRoomsBtn = createActionButton("Load More Rooms", SECONDARY_COLOR);
+        moreRoomsBtn.setEnabled(false);
+
         JPanel leftPanel = new JPanel(new BorderLayout());
         leftPanel.setOpaque(false);
-        leftPanel.add(new JLabel("Available Rooms", SwingConstants.CENTER), BorderLayout.NORTH);
+        leftPanel.add(roomHeaderPanel, BorderLayout.NORTH);
         leftPanel.add(roomTableScroll, BorderLayout.CENTER);
+        leftPanel.add(moreRoomsBtn, BorderLayout.SOUTH);
 
-        // LOAD ROOMS USING DAO
-        try {
-            RoomDAO roomDAO = new RoomDAO();
-            List<Room> rooms = roomDAO.getAllRooms("All"); // or "available"
-            for (Room room : rooms) {
-                roomTableModel.addRow(new Object[]{
-                        room.getRoomId(),
-                        room.getRoomCode(),
-                        room.getRoomType(),
-                        room.getBedType(),
-                        room.getRatePerNight(),
-                        room.getStatus()
-                });
-            }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(null, "Error loading rooms: " + ex.getMessage());
-        }
+        // LOAD ROOM TYPES USING DAO
+        RoomDAO searchDAO = new RoomDAO();
+        backgroundLoader.runLookup("reservation-types", searchDAO::getRoomTypes,
+                types -> types.forEach(roomTypeCombo::addItem),
+                Exception::printStackTrace);
 
         // ---------------- RIGHT SIDE: FORM PANEL ----------------
         JPanel formPanel = new JPanel(new GridBagLayout());
@@ -1725,6 +1881,42 @@ public class BeachResortManagementGUI extends JFrame {
                 roomIdField, checkInDatePicker, checkOutDatePicker, roomInfoLabel
         ));
 
+        // Room search: every free room matching the filters for the picked dates, cheapest first
+        RoomSearchCriteria[] currentSearch = new RoomSearchCriteria[1];
+        Room[] lastRoomShown = new Room[1];
+        Runnable runRoomSearch = () -> {
+            RoomSearchCriteria criteria = new RoomSearchCriteria(checkInDatePicker.getDate(), checkOutDatePicker.getDate());
+            criteria.setRoomType((String) roomTypeCombo.getSelectedItem());
+            criteria.setMinCapacity((Integer) minGuestsSpinner.getValue());
+
+            String maxRateText = maxRateField.getText().trim();
+            if (!maxRateText.isEmpty()) {
+                try {
+                    criteria.setMaxRate(Double.parseDouble(maxRateText));
+                } catch (NumberFormatException ex) {
+                    showError("Max rate must be a number");
+                    return;
+                }
+            }
+            if (!criteria.getCheckOut().isAfter(criteria.getCheckIn())) {
+                showError("Check-out date must be after check-in date!");
+                return;
+            }
+
+            currentSearch[0] = criteria;
+            searchRoomsForBooking(searchDAO, criteria, roomTableModel, lastRoomShown, moreRoomsBtn, false);
+        };
+        searchRoomsBtn.addActionListener(e -> runRoomSearch.run());
+        moreRoomsBtn.addActionListener(e -> {
+            if (currentSearch[0] != null) {
+                searchRoomsForBooking(searchDAO, currentSearch[0], roomTableModel, lastRoomShown, moreRoomsBtn, true);
+            }
+        });
+        bookingRoomSearch = runRoomSearch;
+
+        // LOAD ROOMS FREE FOR THE DEFAULT DATES
+        runRoomSearch.run();
+
         // ---------------- SPLIT PANE ----------------
         JSplitPane splitPane = new JSplitPane(
                 JSplitPane.HORIZONTAL_SPLIT,
@@ -1767,6 +1959,11 @@ public class BeachResortManagementGUI extends JFrame {
         showReservationsBtn.setFont(new Font("Segoe UI", Font.BOLD, 14));
         actionPanel.add(showReservationsBtn);
 
+        JButton exportReservationsBtn = createActionButton("📤 Export Reservations", SECONDARY_COLOR);
+        exportReservationsBtn.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        exportReservationsBtn.addActionListener(e -> ExportDialog.show(this, ExportJob.reservations("All")));
+        actionPanel.add(exportReservationsBtn);
+
         showReservationsBtn.addActionListener(e -> {
             ReservationDAO reservationDAO = new ReservationDAO();
             try {
@@ -1815,6 +2012,35 @@ public class BeachResortManagementGUI extends JFrame {
 
 
 
+    // Fill the booking panel's room table with free rooms, cheapest first; append loads the next page
+    private void searchRoomsForBooking(RoomDAO dao, RoomSearchCriteria criteria, DefaultTableModel model,
+                                       Room[] lastRoomShown, JButton moreBtn, boolean append) {
+        Room after = append ? lastRoomShown[0] : null;
+        moreBtn.setEnabled(false);
+        backgroundLoader.run("reservation", () -> dao.searchAvailableRooms(criteria, after, ROOM_SEARCH_PAGE_SIZE),
+                rooms -> {
+                    if (!append) {
+                        model.setRowCount(0);
+                    }
+                    for (Room room : rooms) {
+                        model.addRow(new Object[]{
+                                room.getRoomId(),
+                                room.getRoomCode(),
+                                room.getRoomType(),
+                                room.getBedType(),
+                                room.getRatePerNight(),
+                                room.getStatus()
+                        });
+                    }
+                    if (!rooms.isEmpty()) {
+                        lastRoomShown[0] = rooms.get(rooms.size() - 1);
+                    }
+                    moreBtn.setEnabled(rooms.size() == ROOM_SEARCH_PAGE_SIZE);
+                    updateStatus(model.getRowCount() + " free rooms shown");
+                },
+                e -> showError("Error searching rooms: " + e.getMessage()));
+    }
+
     class DatePickerPanel extends JPanel {
         private LocalDate selectedDate;
         private JTextField dateField;
@@ -2574,27 +2800,41 @@ public class BeachResortManagementGUI extends JFrame {
 
         // --- RIGHT: Reservation Table ---
         String[] tableColumns = {"Guest ID", "Guest Name", "Reservation ID", "Room", "Status"};
-        DefaultTableModel tableModel = new DefaultTableModel(tableColumns, 0);
+        ReservationDAO pageDAO = new ReservationDAO();
+        PagedTableModel<Reservation> tableModel = new PagedTableModel<>(tableColumns, new PagedTableModel.PageSource<>() {
+            @Override
+            public List<Reservation> fetchPage(long afterId, int limit) throws SQLException {
+                return pageDAO.getAllReservations("All", afterId, limit);
+            }
+
+            @Override
+            public Long idAtOffset(long offset) throws SQLException {
+                return pageDAO.getReservationIdAtOffset("All", offset);
+            }
+
+            @Override
+            public long estimateRowCount() throws SQLException {
+                return pageDAO.estimateReservationCount("All");
+            }
+
+            @Override
+            public long idOf(Reservation r) {
+                return r.getReservationId();
+            }
+        }, r -> new Object[]{
+                r.getGuestId(),
+                r.getGuestName(),
+                r.getReservationId(),
+                r.getRoomCode(),
+                r.getStatus()
+        });
         JTable reservationTable = new JTable(tableModel);
         reservationTable.setRowHeight(25);
         JScrollPane tableScroll = new JScrollPane(reservationTable);
+        checkInTableModel = tableModel;
 
-        // --- Populate table with all reservations initially ---
-        try {
-            ReservationDAO reservationDAO = new ReservationDAO();
-            List<Reservation> allReservations = reservationDAO.getAllReservations("All");
-            for (Reservation r : allReservations) {
-                tableModel.addRow(new Object[]{
-                        r.getGuestId(),
-                        r.getGuestName(),
-                        r.getReservationId(),
-                        r.getRoomCode(),
-                        r.getStatus()
-                });
-            }
-        } catch (SQLException ex) {
-            JOptionPane.showMessageDialog(null, "Error loading reservations: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        // --- Populate table with all reservations initially (pages load as they scroll into view) ---
+        loadCheckInReservations();
 
         // --- Split Pane ---
         JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, formPanel, tableScroll);
@@ -2615,24 +2855,29 @@ public class BeachResortManagementGUI extends JFrame {
         // --- Button Actions ---
         searchGuestBtn.addActionListener(e -> {
             try {
-                long guestId = Long.parseLong(guestIdField.getText().trim());
-                Guest guest = guestDAO.getGuestById(guestId);
-                reservationCombo.removeAllItems();
-
-                if (guest != null) {
-                    guestInfoLabel.setText("Guest: " + guest.getFirstName() + " " + guest.getLastName());
-                    List<Reservation> reservations = reservationDAO.getActiveReservationsByGuestId(guestId);
-                    if (reservations.isEmpty()) {
-                        reservationInfoLabel.setText("No active reservations found for this guest.");
+                UnitOfWork unit = UnitOfWork.begin();
+                try {
+                    long guestId = Long.parseLong(guestIdField.getText().trim());
+                    Guest guest = guestDAO.getGuestById(guestId);
+                    reservationCombo.removeAllItems();
+
+                    if (guest != null) {
+                        guestInfoLabel.setText("Guest: " + guest.getFirstName() + " " + guest.getLastName());
+                        List<Reservation> reservations = reservationDAO.getActiveReservationsByGuestId(guestId);
+                        if (reservations.isEmpty()) {
+                            reservationInfoLabel.setText("No active reservations found for this guest.");
+                        } else {
+                            for (Reservation res : reservations) reservationCombo.addItem(res);
+                            Reservation selected = (Reservation) reservationCombo.getSelectedItem();
+                            reservationInfoLabel.setText("Selected Reservation: ID " + selected.getReservationId() +
+                                    ", Room " + selected.getRoomId() + ", Status " + selected.getStatus());
+                        }
                     } else {
-                        for (Reservation res : reservations) reservationCombo.addItem(res);
-                        Reservation selected = (Reservation) reservationCombo.getSelectedItem();
-                        reservationInfoLabel.setText("Selected Reservation: ID " + selected.getReservationId() +
-                                ", Room " + selected.getRoomId() + ", Status " + selected.getStatus());
+                        guestInfoLabel.setText("Guest not found.");
+                        reservationInfoLabel.setText("");
                     }
-                } else {
-                    guestInfoLabel.setText("Guest not found.");
-                    reservationInfoLabel.setText("");
+                } finally {
+                    unit.close();
                 }
             } catch (NumberFormatException ex) {
                 guestInfoLabel.setText("Invalid Guest ID.");
@@ -2672,12 +2917,7 @@ public class BeachResortManagementGUI extends JFrame {
                         reservationCombo.repaint();
 
                         // Update table to reflect status change
-                        for (int i = 0; i < tableModel.getRowCount(); i++) {
-                            if (tableModel.getValueAt(i, 2).equals(selected.getReservationId())) {
-                                tableModel.setValueAt("checked-in", i, 4);
-                                break;
-                            }
-                        }
+                        tableModel.updateCachedValue(selected.getReservationId(), 4, "checked-in");
 
                         reservationInfoLabel.setText("Selected Reservation: ID " + selected.getReservationId() +
                                 ", Room " + selected.getRoomId() + ", Status checked-in");
@@ -2692,6 +2932,13 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
 
+    private void loadCheckInReservations() {
+        PagedTableModel<Reservation> model = checkInTableModel;
+        backgroundLoader.run("checkin", () -> model.getSource().estimateRowCount(), model::reset,
+                e -> JOptionPane.showMessageDialog(null, "Error loading reservations: " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE));
+    }
+
     private void updateReservationInfo(Reservation r, JLabel label, JTextField chargeField) {
         if (r == null) return;
         try {
@@ -2844,31 +3091,36 @@ public class BeachResortManagementGUI extends JFrame {
         // Search guest → load checked-in reservations
         searchGuestBtn.addActionListener(e -> {
             try {
-                long guestId = Long.parseLong(guestIdField.getText().trim());
+                UnitOfWork unit = UnitOfWork.begin();
+                try {
+                    long guestId = Long.parseLong(guestIdField.getText().trim());
 
-                Guest guest = guestDAO.getGuestById(guestId);
-                reservationCombo.removeAllItems();
+                    Guest guest = guestDAO.getGuestById(guestId);
+                    reservationCombo.removeAllItems();
 
-                if (guest != null) {
-                    guestInfoLabel.setText("Guest: " + guest.getFirstName() + " " + guest.getLastName());
+                    if (guest != null) {
+                        guestInfoLabel.setText("Guest: " + guest.getFirstName() + " " + guest.getLastName());
 
-                    List<Reservation> reservations =
-                            reservationDAO.getCheckedInReservationsByGuestId(guestId);
+                        List<Reservation> reservations =
+                                reservationDAO.getCheckedInReservationsByGuestId(guestId);
 
-                    if (reservations.isEmpty()) {
-                        reservationInfoLabel.setText("No CHECKED-IN reservations for this guest.");
-                    } else {
-                        for (Reservation r : reservations) reservationCombo.addItem(r);
+                        if (reservations.isEmpty()) {
+                            reservationInfoLabel.setText("No CHECKED-IN reservations for this guest.");
+                        } else {
+                            for (Reservation r : reservations) reservationCombo.addItem(r);
 
-                        Reservation selected = (Reservation) reservationCombo.getSelectedItem();
-                        updateReservationInfo(selected, reservationInfoLabel, totalChargeField);
+                            Reservation selected = (Reservation) reservationCombo.getSelectedItem();
+                            updateReservationInfo(selected, reservationInfoLabel, totalChargeField);
 
+                        }
+                    } else {
+                        guestInfoLabel.setText("Guest not found.");
+                        reservationInfoLabel.setText("");
                     }
-                } else {
-                    guestInfoLabel.setText("Guest not found.");
-                    reservationInfoLabel.setText("");
-                }
 
+                } finally {
+                    unit.close();
+                }
             } catch (Exception ex) {
                 guestInfoLabel.setText("Error: " + ex.getMessage());
             }
@@ -2973,6 +3225,7 @@ public class BeachResortManagementGUI extends JFrame {
         titlePanel.add(assignLabel);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("restock"), BorderLayout.EAST);
         panel.add(headerPanel, BorderLayout.NORTH);
 
 
@@ -2995,15 +3248,11 @@ public class BeachResortManagementGUI extends JFrame {
         formPanel.add(new JLabel("Select Item:"), gbc);
 
         JComboBox<ItemWrapper> itemCombo = new JComboBox<>();
-        try {
-            List<InventoryItem> items = inventoryDAO.getAllInventoryItems();
-
+        backgroundLoader.runLookup("restock-items", () -> inventoryDAO.getAllInventoryItems(), items -> {
             for (InventoryItem itm : items) {
                 itemCombo.addItem(new ItemWrapper(itm.getItemId(), itm.getName()));
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        }, Exception::printStackTrace);
 
         gbc.gridx = 1;
         formPanel.add(itemCombo, gbc);
@@ -3058,15 +3307,47 @@ public class BeachResortManagementGUI extends JFrame {
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
         actionPanel.setOpaque(false);
 
+        JCheckBox skipBadLinesBox = new JCheckBox("Skip bad lines");
+        skipBadLinesBox.setOpaque(false);
+        skipBadLinesBox.setToolTipText("Import the valid lines of a delivery file and list the rest, instead of importing nothing");
+        JButton importBtn = createActionButton("📄 Import Delivery CSV", PRIMARY_COLOR);
+
         JButton processBtn = createActionButton("Process Restock", SUCCESS_COLOR);
         processBtn.setFont(new Font("Segoe UI Emoji", Font.BOLD, 14));
 
+        actionPanel.add(skipBadLinesBox);
+        actionPanel.add(importBtn);
         actionPanel.add(processBtn);
 
         panel.add(formPanel, BorderLayout.CENTER);
         panel.add(actionPanel, BorderLayout.SOUTH);
 
         // ---------- BUTTON ACTION ----------
+        importBtn.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setDialogTitle("Import Supplier Delivery");
+            chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+            if (chooser.showOpenDialog(panel) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            Path file = chooser.getSelectedFile().toPath();
+            boolean lenient = skipBadLinesBox.isSelected();
+            updateStatus("Importing " + file.getFileName() + "...");
+            backgroundLoader.run("restock", () -> new RestockCsvImporter(restockDAO).importFile(file, lenient), result -> {
+                String summary = RestockCsvImporter.summarize(result);
+                updateStatus(summary);
+                if (result.hasErrors()) {
+                    JTextArea errorArea = new JTextArea(String.join("\n", result.getErrors()), 12, 50);
+                    errorArea.setEditable(false);
+                    JOptionPane.showMessageDialog(panel, new Object[]{summary, new JScrollPane(errorArea)},
+                            "Delivery Import", result.getLinesApplied() > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(panel, summary, "Delivery Import", JOptionPane.INFORMATION_MESSAGE);
+                }
+                refreshInventoryTable(inventoryTable, inventoryDAO);
+            }, ex -> showError("Delivery import failed: " + ex.getMessage()));
+        });
+
         processBtn.addActionListener(e -> {
             ItemWrapper wrapper = (ItemWrapper) itemCombo.getSelectedItem();
 
@@ -3096,10 +3377,10 @@ public class BeachResortManagementGUI extends JFrame {
             }
 
             try {
-                Long restockId = restockDAO.processRestock(itemId, supplier, quantity, notes, restockDate);
+                RestockResult result = restockDAO.processRestock(itemId, supplier, quantity, notes, restockDate);
 
                 JOptionPane.showMessageDialog(panel,
-                        "Restock successful! (ID: " + restockId + ")",
+                        "Restock successful! (ID: " + result.getRestockId() + ")\nQuantity on hand: " + result.getQuantityOnHand(),
                         "Success",
                         JOptionPane.INFORMATION_MESSAGE);
 
@@ -3134,9 +3415,7 @@ public class BeachResortManagementGUI extends JFrame {
 
     // Refresh table method
     private void refreshInventoryTable(JTable table, InventoryDAO dao) {
-        try {
-            List<InventoryItem> items = dao.getAllInventoryItems();
-
+        backgroundLoader.run("restock", () -> dao.getAllInventoryItems(), items -> {
             items.sort(Comparator.comparingLong(InventoryItem::getItemId)); // sort items before populating table
 
             String[] cols = {"ID", "Item Name", "Quantity"};
@@ -3157,9 +3436,7 @@ public class BeachResortManagementGUI extends JFrame {
 
             table.setModel(model);
             table.getTableHeader().setReorderingAllowed(false); // make table uneditable
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        }, Exception::printStackTrace);
     }
 
     // AMENITY RENTAL - Assigned to Daniel Pamintuan
@@ -3313,9 +3590,10 @@ public class BeachResortManagementGUI extends JFrame {
         // Button Actions
 
         // Search Guest
+        CompletableFuture<?>[] pendingSearch = {null};
         searchGuestBtn.addActionListener(e -> {
             try {
-                if (guestDAO == null || reservationDAO == null) {
+                if (asyncGuestDAO == null) {
                     showError("Database not connected");
                     return;
                 }
@@ -3327,44 +3605,49 @@ public class BeachResortManagementGUI extends JFrame {
                 }
 
                 Long guestId = Long.parseLong(guestIdText);
-                Guest guest = guestDAO.getGuestById(guestId);
                 reservationCombo.removeAllItems();
                 activeRentalsArea.setText("");
+                guestInfoLabel.setText("Searching...");
+                guestInfoLabel.setForeground(TEXT_COLOR);
+                reservationInfoLabel.setText("");
 
-                if (guest != null) {
-                    guestInfoLabel.setText("✓ Guest: " + guest.getFirstName() + " " + guest.getLastName() + " (" + guest.getEmail() + ")");
-                    guestInfoLabel.setForeground(SUCCESS_COLOR);
-
-                    // Load checked-in reservations
-                    List<Reservation> reservations = reservationDAO.getCheckedInReservationsByGuestId(guestId);
-                    if (reservations.isEmpty()) {
-                        reservationInfoLabel.setText("⚠ No checked-in reservations found. Guest must be checked-in to rent amenities.");
-                        reservationInfoLabel.setForeground(WARNING_COLOR);
-                    } else {
-                        for (Reservation res : reservations) {
-                            reservationCombo.addItem(res);
-                        }
-                        Reservation selected = (Reservation) reservationCombo.getSelectedItem();
-                        if (selected != null) {
-                            reservationInfoLabel.setText("✓ Reservation ID: " + selected.getReservationId() +
-                                    " | Room: " + selected.getRoomId() + " | Status: " + selected.getStatus());
-                            reservationInfoLabel.setForeground(SUCCESS_COLOR);
-                        }
+                // Guest, reservations and rentals don't depend on each other: run all three at once.
+                // A newer search cancels this one, queries included.
+                if (pendingSearch[0] != null) {
+                    pendingSearch[0].cancel(true);
+                }
+                CompletableFuture<Guest> guestLookup = asyncGuestDAO.getGuestById(guestId);
+                CompletableFuture<List<Reservation>> reservationLookup =
+                        asyncReservationDAO.getCheckedInReservationsByGuestId(guestId);
+                CompletableFuture<List<String>> rentalLookup = asyncAmenityRentalDAO.getActiveRentals(guestId);
+                CompletableFuture<Void> search = CompletableFuture.allOf(guestLookup, reservationLookup, rentalLookup);
+                search.whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        guestLookup.cancel(true);
+                        reservationLookup.cancel(true);
+                        rentalLookup.cancel(true);
                     }
+                });
+                pendingSearch[0] = search;
 
-                    // Load active rentals
-                    loadActiveRentals(guestId, activeRentalsArea);
-
-                } else {
-                    guestInfoLabel.setText("✗ Guest not found");
-                    guestInfoLabel.setForeground(DANGER_COLOR);
-                    reservationInfoLabel.setText("");
-                }
+                search.whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                    if (pendingSearch[0] != search) {
+                        return; // superseded by a newer search
+                    }
+                    pendingSearch[0] = null;
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        guestInfoLabel.setText("");
+                        showError("Error searching guest: " + cause.getMessage());
+                        return;
+                    }
+                    showRentalSearchResult(guestLookup.join(), reservationLookup.join(), rentalLookup.join(),
+                            guestInfoLabel, reservationInfoLabel, reservationCombo, activeRentalsArea);
+                }));
 
             } catch (NumberFormatException ex) {
                 showError("Invalid Guest ID format. Please enter a number.");
-            } catch (Exception ex) {
-                showError("Error searching guest: " + ex.getMessage());
             }
         });
 
@@ -3467,6 +3750,36 @@ public class BeachResortManagementGUI extends JFrame {
         return panel;
     }
 
+    // Fill the amenity rental form from the guest search (runs on the EDT)
+    private void showRentalSearchResult(Guest guest, List<Reservation> reservations, List<String> rentals,
+                                        JLabel guestInfoLabel, JLabel reservationInfoLabel,
+                                        JComboBox<Reservation> reservationCombo, JTextArea activeRentalsArea) {
+        if (guest == null) {
+            guestInfoLabel.setText("✗ Guest not found");
+            guestInfoLabel.setForeground(DANGER_COLOR);
+            reservationInfoLabel.setText("");
+            return;
+        }
+        guestInfoLabel.setText("✓ Guest: " + guest.getFirstName() + " " + guest.getLastName() + " (" + guest.getEmail() + ")");
+        guestInfoLabel.setForeground(SUCCESS_COLOR);
+
+        if (reservations.isEmpty()) {
+            reservationInfoLabel.setText("⚠ No checked-in reservations found. Guest must be checked-in to rent amenities.");
+            reservationInfoLabel.setForeground(WARNING_COLOR);
+        } else {
+            for (Reservation res : reservations) {
+                reservationCombo.addItem(res);
+            }
+            Reservation selected = (Reservation) reservationCombo.getSelectedItem();
+            if (selected != null) {
+                reservationInfoLabel.setText("✓ Reservation ID: " + selected.getReservationId() +
+                        " | Room: " + selected.getRoomId() + " | Status: " + selected.getStatus());
+                reservationInfoLabel.setForeground(SUCCESS_COLOR);
+            }
+        }
+        showActiveRentals(rentals, activeRentalsArea);
+    }
+
     // Helper method to load active rentals
     private void loadActiveRentals(Long guestId, JTextArea activeRentalsArea) {
         try {
@@ -3475,26 +3788,28 @@ public class BeachResortManagementGUI extends JFrame {
                 return;
             }
 
-            List<String> rentals = amenityRentalDAO.getActiveRentals(guestId);
-
-            if (rentals.isEmpty()) {
-                activeRentalsArea.setText("No active rentals for this guest.");
-            } else {
-                StringBuilder sb = new StringBuilder();
-                sb.append("=== ACTIVE RENTALS ===\n\n");
-                for (String rental : rentals) {
-                    sb.append(rental).append("\n");
-                }
-                activeRentalsArea.setText(sb.toString());
-            }
-
-            updateStatus("Loaded " + rentals.size() + " active rentals");
+            showActiveRentals(amenityRentalDAO.getActiveRentals(guestId), activeRentalsArea);
 
         } catch (SQLException e) {
             activeRentalsArea.setText("Error loading active rentals: " + e.getMessage());
         }
     }
 
+    private void showActiveRentals(List<String> rentals, JTextArea activeRentalsArea) {
+        if (rentals.isEmpty()) {
+            activeRentalsArea.setText("No active rentals for this guest.");
+        } else {
+            StringBuilder sb = new StringBuilder();
+            sb.append("=== ACTIVE RENTALS ===\n\n");
+            for (String rental : rentals) {
+                sb.append(rental).append("\n");
+            }
+            activeRentalsArea.setText(sb.toString());
+        }
+
+        updateStatus("Loaded " + rentals.size() + " active rentals");
+    }
+
     // Main method to process amenity rental
     private void processAmenityRental(JTextField guestIdField, JComboBox<Reservation> reservationCombo,
                                       JComboBox<Amenity> amenityCombo, JSpinner quantitySpinner,
@@ -3624,7 +3939,37 @@ public class BeachResortManagementGUI extends JFrame {
 
         JLabel titleLabel = new JLabel("Reports Generation");
         titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
-        panel.add(titleLabel, BorderLayout.NORTH);
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.add(titleLabel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("reports"), BorderLayout.EAST);
+
+        // Month-end close: all four reports for one month at once
+        JPanel packPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        packPanel.setOpaque(false);
+        LocalDate lastMonth = LocalDate.now().minusMonths(1);
+        JComboBox<Integer> packYearCombo = new JComboBox<>(recentYears(lastMonth.getYear()));
+        packYearCombo.setSelectedItem(lastMonth.getYear());
+        JComboBox<Integer> packMonthCombo = new JComboBox<>(new Integer[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        packMonthCombo.setSelectedItem(lastMonth.getMonthValue());
+        JButton packBtn = createActionButton("📦 Month-End Pack", PRIMARY_COLOR);
+        packBtn.addActionListener(e -> showMonthEndPack((Integer) packYearCombo.getSelectedItem(),
+                (Integer) packMonthCombo.getSelectedItem()));
+        packPanel.add(new JLabel("Year:"));
+        packPanel.add(packYearCombo);
+        packPanel.add(new JLabel("Month:"));
+        packPanel.add(packMonthCombo);
+        packPanel.add(packBtn);
+        JButton exportBtn = createActionButton("📤 Export Range", SECONDARY_COLOR);
+        exportBtn.addActionListener(e -> showReportExportDialog((Integer) packYearCombo.getSelectedItem(),
+                (Integer) packMonthCombo.getSelectedItem()));
+        packPanel.add(exportBtn);
+        JButton trendsBtn = createActionButton("📈 Trends", SUCCESS_COLOR);
+        trendsBtn.addActionListener(e -> showTrendReport((Integer) packYearCombo.getSelectedItem(),
+                (Integer) packMonthCombo.getSelectedItem()));
+        packPanel.add(trendsBtn);
+        headerPanel.add(packPanel, BorderLayout.CENTER);
+        panel.add(headerPanel, BorderLayout.NORTH);
 
         JPanel reportsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
         reportsPanel.setOpaque(false);
@@ -3721,78 +4066,332 @@ public class BeachResortManagementGUI extends JFrame {
     }
 
     private void generateReport(String reportType, int year, int month) {
-        try {
-            List<String[]> reportData = null;
-            String[] columns = null;
-            String reportTitle = "";
-
-            switch(reportType) {
-                case "occupancy":
-                    reportData = reportsDAO.getRoomOccupancyReport(year, month);
-                    columns = new String[]{"Room Code", "Room Type", "Days Reserved"};
-                    reportTitle = "Room Occupancy Report";
-                    break;
-                case "revenue":
-                    reportData = reportsDAO.getRevenueReport(year, month);
-                    columns = new String[]{"Room Code", "Room Type", "Rate/Night", "Total Revenue"};
-                    reportTitle = "Revenue Report";
-                    break;
-                case "inventory":
-                    reportData = reportsDAO.getInventoryReport(year, month);
-                    columns = new String[]{"Item Name", "Supplier", "Total Restocked", "Current Quantity"};
-                    reportTitle = "Inventory Report";
-                    break;
-                case "amenities":
-                    reportData = reportsDAO.getAmenitiesReport(year, month);
-                    columns = new String[]{"Amenity Name", "Rate", "Times Rented", "Total Quantity", "Total Revenue"};
-                    reportTitle = "Amenities Report";
-                    break;
-            }
-
-            if (reportData != null && columns != null) {
-                showReportDialog(reportTitle, year, month, columns, reportData);
-            }
-
-        } catch (SQLException e) {
-            showError("Error generating report: " + e.getMessage());
+        String[] columns;
+        String reportTitle;
+        Callable<ReportResult<?>> query;
+        ReportCache.ReportType type;
+
+        switch(reportType) {
+            case "occupancy":
+                type = ReportCache.ReportType.OCCUPANCY;
+                query = () -> reportsDAO.getRoomOccupancyReport(year, month);
+                columns = new String[]{"Room Code", "Room Type", "Days Reserved"};
+                reportTitle = "Room Occupancy Report";
+                break;
+            case "revenue":
+                type = ReportCache.ReportType.REVENUE;
+                query = () -> reportsDAO.getRevenueReport(year, month);
+                columns = new String[]{"Room Code", "Room Type", "Rate/Night", "Total Revenue"};
+                reportTitle = "Revenue Report";
+                break;
+            case "inventory":
+                type = ReportCache.ReportType.INVENTORY;
+                query = () -> reportsDAO.getInventoryReport(year, month);
+                columns = new String[]{"Item Name", "Supplier", "Total Restocked", "Current Quantity"};
+                reportTitle = "Inventory Report";
+                break;
+            case "amenities":
+                type = ReportCache.ReportType.AMENITIES;
+                query = () -> reportsDAO.getAmenitiesReport(year, month);
+                columns = new String[]{"Amenity Name", "Rate", "Times Rented", "Total Quantity", "Total Revenue"};
+                reportTitle = "Amenities Report";
+                break;
+            default:
+                return;
         }
+
+        updateStatus("Generating " + reportTitle + "...");
+        backgroundLoader.run("reports", query, reportData -> {
+            updateStatus(String.format("%s ready (report cache hit ratio %.0f%%)",
+                    reportTitle, reportsDAO.getCacheStats().getHitRatio() * 100));
+            showReportDialog(reportTitle, type, year, month, columns, reportData);
+        }, e -> showError("Error generating report: " + e.getMessage()));
     }
 
-    private void showReportDialog(String title, int year, int month, String[] columns, List<String[]> data) {
-        JDialog dialog = new JDialog(this, title + " - " + getMonthName(month) + " " + year, true);
-        dialog.setSize(800, 600);
+    // All four reports for the month, run concurrently; each tab fills in as its report finishes
+    private void showMonthEndPack(int year, int month) {
+        String title = "Month-End Pack - " + getMonthName(month) + " " + year;
+        JDialog dialog = new JDialog(this, title, false);
+        dialog.setSize(900, 650);
         dialog.setLocationRelativeTo(this);
 
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBorder(new EmptyBorder(20, 20, 20, 20));
 
-        JLabel headerLabel = new JLabel(title + " - " + getMonthName(month) + " " + year);
+        JLabel headerLabel = new JLabel(title);
         headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
         panel.add(headerLabel, BorderLayout.NORTH);
 
-        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        panel.add(tabs, BorderLayout.CENTER);
+
+        JLabel summaryLabel = new JLabel("Running 4 reports...");
+        summaryLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        JButton cancelAllBtn = createActionButton("Cancel All", DANGER_COLOR);
+        JButton closeBtn = createActionButton("Close", SECONDARY_COLOR);
+        JPanel footerPanel = new JPanel(new BorderLayout());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(cancelAllBtn);
+        buttonPanel.add(closeBtn);
+        footerPanel.add(summaryLabel, BorderLayout.WEST);
+        footerPanel.add(buttonPanel, BorderLayout.EAST);
+        panel.add(footerPanel, BorderLayout.SOUTH);
+
+        MonthEndReportRunner.Batch[] batch = new MonthEndReportRunner.Batch[1];
+        for (ReportCache.ReportType type : ReportCache.ReportType.values()) {
+            JPanel pending = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 40));
+            JProgressBar progress = new JProgressBar();
+            progress.setIndeterminate(true);
+            JButton cancelBtn = createActionButton("Cancel", DANGER_COLOR);
+            cancelBtn.addActionListener(e -> batch[0].cancel(type));
+            pending.add(new JLabel("Running..."));
+            pending.add(progress);
+            pending.add(cancelBtn);
+            tabs.addTab(MonthEndReportRunner.titleOf(type), pending);
+        }
+
+        batch[0] = monthEndRunner.start(year, month, MONTH_END_DEADLINE_MS, section -> SwingUtilities.invokeLater(() -> {
+            int index = tabs.indexOfTab(section.getTitle());
+            tabs.setComponentAt(index, createPackSection(section));
+            if (batch[0].isDone()) {
+                cancelAllBtn.setEnabled(false);
+                try {
+                    MonthEndReportPack pack = batch[0].await();
+                    summaryLabel.setText(String.format("Finished in %.1f s (one after another: %.1f s)%s",
+                            pack.getWallClockMillis() / 1000.0, pack.getSequentialMillis() / 1000.0,
+                            pack.isComplete() ? "" : " - some reports did not complete"));
+                    updateStatus("Month-end pack ready");
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+
+        cancelAllBtn.addActionListener(e -> batch[0].cancelAll());
+        closeBtn.addActionListener(e -> dialog.dispose());
+        dialog.addWindowListener(new WindowAdapter() {
             @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // all cells are non-editable
+            public void windowClosed(WindowEvent e) {
+                batch[0].cancelAll();
             }
-        };
+        });
 
-        for (String[] row : data) {
-            model.addRow(row);
+        updateStatus("Generating month-end pack for " + getMonthName(month) + " " + year + "...");
+        dialog.add(panel);
+        dialog.setVisible(true);
+    }
+
+    private JComponent createPackSection(MonthEndReportPack.Section section) {
+        if (section.getStatus() != MonthEndReportPack.Status.COMPLETED) {
+            JLabel label = new JLabel(section.getStatus() + ": " + section.getMessage(), SwingConstants.CENTER);
+            label.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+            label.setForeground(DANGER_COLOR);
+            return label;
         }
+        return createReportView(section.getColumns(), section.getResult());
+    }
 
-        JTable table = new JTable(model);
+    // Sortable report rows, with the subtotal and total rows pinned in a second table underneath
+    private JComponent createReportView(String[] columns, ReportResult<?> result) {
+        ReportTableModel.CellRenderer renderer = new ReportTableModel.CellRenderer();
+
+        JTable table = new JTable(new ReportTableModel(columns, result.getRows()));
         table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
         table.setRowHeight(25);
         table.getTableHeader().setFont(new Font("Segoe UI Emoji", Font.BOLD, 13));
+        table.setAutoCreateRowSorter(true);
+        // Per column rather than per class, since JTable has its own renderer for Number columns
+        for (int i = 0; i < table.getColumnCount(); i++) {
+            table.getColumnModel().getColumn(i).setCellRenderer(renderer);
+        }
 
-        JScrollPane scrollPane = new JScrollPane(table);
-        panel.add(scrollPane, BorderLayout.CENTER);
+        List<ReportRow> totalRows = new ArrayList<>(result.getSubtotals());
+        totalRows.add(result.getTotal());
+        JTable totalsTable = new JTable(new ReportTableModel(columns, totalRows));
+        totalsTable.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        totalsTable.setRowHeight(25);
+        totalsTable.setTableHeader(null);
+        // Keep the totals lined up when the user resizes or reorders the report's columns
+        totalsTable.setColumnModel(table.getColumnModel());
+        totalsTable.setPreferredScrollableViewportSize(
+                new Dimension(0, totalsTable.getRowHeight() * Math.min(totalRows.size(), 6)));
+
+        JPanel view = new JPanel(new BorderLayout(0, 5));
+        view.add(new JScrollPane(table), BorderLayout.CENTER);
+        view.add(new JScrollPane(totalsTable), BorderLayout.SOUTH);
+        return view;
+    }
+
+    // One report over a range of months, streamed to a file (e.g. a year of revenue by room)
+    private void showReportExportDialog(int year, int month) {
+        JComboBox<ReportCache.ReportType> typeCombo = new JComboBox<>(ReportCache.ReportType.values());
+        typeCombo.setSelectedItem(ReportCache.ReportType.REVENUE);
+        YearMonth[] range = chooseMonthRange("Export Report", "Report:", typeCombo,
+                YearMonth.of(year, 1), YearMonth.of(year, month));
+        if (range != null) {
+            ExportDialog.show(this, ExportJob.report((ReportCache.ReportType) typeCombo.getSelectedItem(), range[0], range[1]));
+        }
+    }
+
+    // The current year back to the three before it (or to earliestYear if that is older), newest first
+    private static Integer[] recentYears(int earliestYear) {
+        int thisYear = LocalDate.now().getYear();
+        Integer[] years = new Integer[thisYear - Math.min(earliestYear, thisYear - 3) + 1];
+        for (int i = 0; i < years.length; i++) {
+            years[i] = thisYear - i;
+        }
+        return years;
+    }
+
+    // Ask for a [from, to] range of months, with an optional extra field on the first row; null if cancelled
+    private YearMonth[] chooseMonthRange(String title, String extraLabel, JComponent extraField,
+                                         YearMonth defaultFrom, YearMonth defaultTo) {
+        Integer[] years = recentYears(defaultFrom.getYear()); // a trend's default range can reach back past the list
+        Integer[] months = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12};
+        JComboBox<Integer> fromYearCombo = new JComboBox<>(years);
+        JComboBox<Integer> fromMonthCombo = new JComboBox<>(months);
+        JComboBox<Integer> toYearCombo = new JComboBox<>(years);
+        JComboBox<Integer> toMonthCombo = new JComboBox<>(months);
+        fromYearCombo.setSelectedItem(defaultFrom.getYear());
+        fromMonthCombo.setSelectedItem(defaultFrom.getMonthValue());
+        toYearCombo.setSelectedItem(defaultTo.getYear());
+        toMonthCombo.setSelectedItem(defaultTo.getMonthValue());
+
+        JPanel form = new JPanel(new GridLayout(extraField == null ? 2 : 3, 3, 8, 8));
+        if (extraField != null) {
+            form.add(new JLabel(extraLabel));
+            form.add(extraField);
+            form.add(new JLabel());
+        }
+        form.add(new JLabel("From (year, month):"));
+        form.add(fromYearCombo);
+        form.add(fromMonthCombo);
+        form.add(new JLabel("To (year, month):"));
+        form.add(toYearCombo);
+        form.add(toMonthCombo);
+
+        if (JOptionPane.showConfirmDialog(this, form, title, JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        YearMonth from = YearMonth.of((Integer) fromYearCombo.getSelectedItem(), (Integer) fromMonthCombo.getSelectedItem());
+        YearMonth to = YearMonth.of((Integer) toYearCombo.getSelectedItem(), (Integer) toMonthCombo.getSelectedItem());
+        if (to.isBefore(from)) {
+            showError("The end month is before the start month.");
+            return null;
+        }
+        return new YearMonth[]{from, to};
+    }
 
+    // Occupancy, ADR and RevPAR by month with last year alongside, by room type and by room
+    private void showTrendReport(int year, int month) {
+        YearMonth to = YearMonth.of(year, month);
+        YearMonth[] range = chooseMonthRange("Trend Report", null, null, to.minusMonths(11), to);
+        if (range == null) {
+            return;
+        }
+        updateStatus("Generating trend report...");
+        backgroundLoader.run("reports", () -> trendReportDAO.getTrendReport(range[0], range[1]), report -> {
+            updateStatus("Trend report ready");
+            String title = "Trends - " + report.getFrom() + " to " + report.getTo();
+            JDialog dialog = new JDialog(this, title, false);
+            dialog.setSize(1100, 700);
+            dialog.setLocationRelativeTo(this);
+
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+            TrendSeries all = report.getAllRooms();
+            JLabel headerLabel = new JLabel(String.format("%s:  occupancy %s, ADR %s, RevPAR %s (last year %s, %s)",
+                    title, percent(all.getTotal().getOccupancyRate(), false),
+                    ReportFormat.money(all.getTotal().getAdr()), ReportFormat.money(all.getTotal().getRevPar()),
+                    ReportFormat.money(all.getPriorYearTotal().getRevPar()),
+                    ReportFormat.cell(revParChange(all.getTotal(), all.getPriorYearTotal()))));
+            headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
+            panel.add(headerLabel, BorderLayout.NORTH);
+
+            JTabbedPane tabs = new JTabbedPane();
+            tabs.addTab("By Room Type", createTrendView("Room Type", report.getByRoomType(), all));
+            tabs.addTab("By Room", createTrendView("Room", report.getByRoom(), all));
+            panel.add(tabs, BorderLayout.CENTER);
+
+            JButton closeBtn = createActionButton("Close", SECONDARY_COLOR);
+            closeBtn.addActionListener(e -> dialog.dispose());
+            JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+            buttonPanel.add(closeBtn);
+            panel.add(buttonPanel, BorderLayout.SOUTH);
+
+            dialog.add(panel);
+            dialog.setVisible(true);
+        }, e -> showError("Error generating trend report: " + e.getMessage()));
+    }
+
+    // One row per series per month; the totals table has each series over the whole range, then the resort
+    private JComponent createTrendView(String seriesColumn, List<TrendSeries> series, TrendSeries all) {
+        String[] columns = {seriesColumn, "Month", "Occupancy", "ADR", "RevPAR",
+                "Occupancy LY", "ADR LY", "RevPAR LY", "RevPAR YoY"};
+        List<ReportRow> rows = new ArrayList<>();
+        List<ReportRow> seriesTotals = new ArrayList<>();
+        for (TrendSeries s : series) {
+            for (int i = 0; i < s.getPoints().size(); i++) {
+                rows.add(trendRow(s.getName(), s.getPoints().get(i), s.getPriorYear().get(i)));
+            }
+            seriesTotals.add(trendRow(s.getName(), s.getTotal(), s.getPriorYearTotal()));
+        }
+        ReportRow total = trendRow(all.getName(), all.getTotal(), all.getPriorYearTotal());
+        return createReportView(columns, new ReportResult<>(rows, seriesTotals, total));
+    }
+
+    private static ReportRow trendRow(String name, TrendPoint point, TrendPoint priorYear) {
+        return () -> new Object[]{
+                name,
+                point.getMonth() == null ? "Total" : point.getMonth().toString(),
+                percent(point.getOccupancyRate(), false),
+                point.getAdr(),
+                point.getRevPar(),
+                percent(priorYear.getOccupancyRate(), false),
+                priorYear.getAdr(),
+                priorYear.getRevPar(),
+                revParChange(point, priorYear)
+        };
+    }
+
+    private static ReportFormat.Percent percent(double ratio, boolean signed) {
+        return new ReportFormat.Percent(ratio, signed);
+    }
+
+    private static ReportFormat.Percent revParChange(TrendPoint point, TrendPoint priorYear) {
+        Double change = point.revParChangeFrom(priorYear);
+        return change == null ? null : percent(change, true);
+    }
+
+    private void showReportDialog(String title, ReportCache.ReportType type, int year, int month, String[] columns,
+                                  ReportResult<?> data) {
+        JDialog dialog = new JDialog(this, title + " - " + getMonthName(month) + " " + year, true);
+        dialog.setSize(800, 600);
+        dialog.setLocationRelativeTo(this);
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JLabel headerLabel = new JLabel(title + " - " + getMonthName(month) + " " + year);
+        headerLabel.setFont(new Font("Segoe UI", Font.BOLD, 18));
+        panel.add(headerLabel, BorderLayout.NORTH);
+
+        panel.add(createReportView(columns, data), BorderLayout.CENTER);
+
+        // The report dialog is modal, so close it first or it would block the export's progress dialog
+        JButton exportBtn = createActionButton("📤 Export", PRIMARY_COLOR);
+        exportBtn.addActionListener(e -> {
+            dialog.dispose();
+            YearMonth reportMonth = YearMonth.of(year, month);
+            ExportDialog.show(this, ExportJob.report(type, reportMonth, reportMonth));
+        });
         JButton closeBtn = createActionButton("Close", SECONDARY_COLOR);
         closeBtn.addActionListener(e -> dialog.dispose());
 
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        buttonPanel.add(exportBtn);
         buttonPanel.add(closeBtn);
         panel.add(buttonPanel, BorderLayout.SOUTH);
 
@@ -3808,6 +4407,140 @@ public class BeachResortManagementGUI extends JFrame {
         return (month >= 1 && month <= 12) ? months[month - 1] : "Invalid";
     }
 
+    // Per-statement timings from QueryMetrics, plus pool and statement cache counters
+    private JPanel createDiagnosticsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(BG_COLOR);
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JLabel titleLabel = new JLabel("DB Diagnostics");
+        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        JLabel subtitleLabel = new JLabel("Statements by total database time since start-up (or the last reset)");
+        subtitleLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        subtitleLabel.setForeground(new Color(127, 140, 141));
+
+        JPanel titlePanel = new JPanel(new GridLayout(2, 1));
+        titlePanel.setOpaque(false);
+        titlePanel.add(titleLabel);
+        titlePanel.add(subtitleLabel);
+
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+        headerPanel.add(titlePanel, BorderLayout.WEST);
+        headerPanel.add(createLoadingIndicator("diagnostics"), BorderLayout.EAST);
+        panel.add(headerPanel, BorderLayout.NORTH);
+
+        String[] columns = {"Statement", "Count", "Errors", "Rows", "Avg ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"};
+        DefaultTableModel model = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                return column == 0 ? String.class : column <= 3 ? Long.class : Double.class;
+            }
+        };
+        diagnosticsTableModel = model;
+
+        JTable table = new JTable(model) {
+            @Override
+            public String getToolTipText(MouseEvent e) {
+                int row = rowAtPoint(e.getPoint());
+                return row < 0 ? null : (String) getValueAt(row, 0);
+            }
+        };
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        table.setRowHeight(30);
+        table.setSelectionBackground(SECONDARY_COLOR);
+        table.setSelectionForeground(Color.WHITE);
+        table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 13));
+        table.getTableHeader().setBackground(PRIMARY_COLOR);
+        table.getTableHeader().setForeground(Color.BLACK);
+        table.getTableHeader().setReorderingAllowed(false);
+        table.setAutoCreateRowSorter(true);
+        DefaultTableCellRenderer millisRenderer = new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value == null ? "" : String.format("%.2f", (Double) value));
+            }
+        };
+        millisRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        for (int i = 4; i < columns.length; i++) {
+            table.getColumnModel().getColumn(i).setCellRenderer(millisRenderer);
+        }
+        table.getColumnModel().getColumn(0).setPreferredWidth(600);
+
+        poolStatsArea = new JTextArea(6, 80);
+        poolStatsArea.setEditable(false);
+        poolStatsArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(table), new JScrollPane(poolStatsArea));
+        split.setResizeWeight(0.75);
+        panel.add(split, BorderLayout.CENTER);
+
+        JCheckBox enabledBox = new JCheckBox("Record query timings", QueryMetrics.isEnabled());
+        enabledBox.setOpaque(false);
+        enabledBox.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        enabledBox.addActionListener(e -> {
+            QueryMetrics.setEnabled(enabledBox.isSelected());
+            updateStatus("Query timings " + (enabledBox.isSelected() ? "on" : "off"));
+        });
+
+        // Statements at least this slow go to the slow query log, with bind values and an EXPLAIN plan
+        JLabel slowLabel = new JLabel("Log queries slower than (ms):");
+        slowLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        JSpinner slowSpinner = new JSpinner(new SpinnerNumberModel((int) SlowQueryLog.getThresholdMillis(), 0, 600_000, 50));
+        slowSpinner.setToolTipText("Slow query log: " + (SlowQueryLog.getLogFile() != null
+                ? SlowQueryLog.getLogFile().replace("%g", "0") : "logs/slow-queries.0.log"));
+        slowSpinner.addChangeListener(e -> SlowQueryLog.setThresholdMillis((Integer) slowSpinner.getValue()));
+
+        JButton refreshBtn = createActionButton("🔄 Refresh", SECONDARY_COLOR);
+        JButton resetBtn = createActionButton("♻️ Reset Counters", WARNING_COLOR);
+        JButton copyBtn = createActionButton("📋 Copy Text Dump", PRIMARY_COLOR);
+        refreshBtn.addActionListener(e -> loadDiagnostics());
+        resetBtn.addActionListener(e -> {
+            QueryMetrics.reset();
+            StatementCache.resetCounters();
+            loadDiagnostics();
+        });
+        copyBtn.addActionListener(e -> {
+            String dump = QueryMetrics.dump() + "\n" + poolStatsArea.getText();
+            Toolkit.getDefaultToolkit().getSystemClipboard().setContents(new StringSelection(dump), null);
+            updateStatus("Query metrics copied to the clipboard");
+        });
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(slowLabel);
+        buttonPanel.add(slowSpinner);
+        buttonPanel.add(enabledBox);
+        buttonPanel.add(refreshBtn);
+        buttonPanel.add(resetBtn);
+        buttonPanel.add(copyBtn);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return panel;
+    }
+
+    private void loadDiagnostics() {
+        backgroundLoader.run("diagnostics",
+                () -> Map.entry(QueryMetrics.snapshot(), DatabaseConnection.getPoolStats() + "\n" + StatementCache.getStatsSummary()
+                        + "\n\n" + TransactionRetry.getStatsSummary()),
+                result -> {
+                    diagnosticsTableModel.setRowCount(0);
+                    for (QueryStats s : result.getKey()) {
+                        diagnosticsTableModel.addRow(new Object[]{s.getFingerprint(), s.getExecutions(), s.getErrors(),
+                                s.getRows(), s.getAverageMillis(), s.getP50Millis(), s.getP95Millis(),
+                                s.getP99Millis(), s.getMaxMillis()});
+                    }
+                    poolStatsArea.setText(result.getValue());
+                    poolStatsArea.setCaretPosition(0);
+                    updateStatus("DB diagnostics: " + result.getKey().size() + " statements");
+                }, e -> showError("Error loading DB diagnostics: " + e.getMessage()));
+    }
+
     // Helper methods
     private JButton createActionButton(String text, Color color) {
         JButton button = new JButton(text);
@@ -3847,9 +4580,27 @@ public class BeachResortManagementGUI extends JFrame {
             e.printStackTrace();
         }
 
+        // Bring the schema (tables, indexes) up to date before anything queries it. This runs on the
+        // main thread, not the EDT: building an index on a large table can take a while.
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            System.err.println("Schema migration failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+
         // Create GUI on Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             try {
+                // Report any event that keeps the EDT busy for too long
+                edtMonitor = EdtMonitor.install();
+                Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                        System.err.println(edtMonitor.getSummary()), "edt-monitor-summary"));
+                Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                        System.err.println(ReportCache.getInstance().getStats()), "report-cache-summary"));
+                Runtime.getRuntime().addShutdownHook(new Thread(() ->
+                        System.err.print(QueryMetrics.dump()), "query-metrics-summary"));
+
                 new BeachResortManagementGUI();
             } catch (Exception e) {
                 System.err.println("Error starting application: " + e.getMessage());
@@ -0,0 +1,107 @@
+package gui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.InvocationEvent;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long each event keeps the Event Dispatch Thread busy and logs any
+ * event that blocks it for longer than the threshold. An event that opens a modal dialog
+ * runs the dialog's event loop inside its own dispatch, so its clock is paused while that
+ * loop waits for input and while it dispatches the dialog's events (which are timed on
+ * their own).
+ */
+class EdtMonitor extends EventQueue {
+    private static final long BLOCKED_THRESHOLD_MS = 100;
+
+    // Written only by the EDT; read by the shutdown hook
+    private volatile long eventsDispatched;
+    private volatile long blockedEvents;
+    private volatile long totalBlockedMs;
+    private volatile long longestBlockMs;
+
+    // Events being dispatched, innermost first; only the EDT touches it
+    private final Deque<Timing> dispatching = new ArrayDeque<>();
+    private volatile Thread dispatchThread;
+
+    static EdtMonitor install() {
+        EdtMonitor monitor = new EdtMonitor();
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        return monitor;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        long start = System.nanoTime();
+        dispatchThread = Thread.currentThread();
+        Timing outer = dispatching.peek();
+        if (outer != null) {
+            outer.pause(start);
+        }
+        Timing timing = new Timing(start);
+        dispatching.push(timing);
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            dispatching.pop();
+            if (outer != null) {
+                outer.resumedAt = end;
+            }
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(timing.busyNanos + end - timing.resumedAt);
+            eventsDispatched++;
+            if (elapsedMs >= BLOCKED_THRESHOLD_MS) {
+                blockedEvents++;
+                totalBlockedMs += elapsedMs;
+                longestBlockMs = Math.max(longestBlockMs, elapsedMs);
+                System.err.println("EDT blocked for " + elapsedMs + " ms by " + describe(event));
+            }
+        }
+    }
+
+    String getSummary() {
+        return String.format("EDT: %d events, %d blocked >= %d ms (total %d ms, longest %d ms)",
+                eventsDispatched, blockedEvents, BLOCKED_THRESHOLD_MS, totalBlockedMs, longestBlockMs);
+    }
+
+    // A modal loop inside an event waits here for the next event; that wait isn't the event's work
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        Timing current = Thread.currentThread() == dispatchThread ? dispatching.peek() : null;
+        if (current == null) {
+            return super.getNextEvent();
+        }
+        current.pause(System.nanoTime());
+        try {
+            return super.getNextEvent();
+        } finally {
+            current.resumedAt = System.nanoTime();
+        }
+    }
+
+    // Time an event has kept the EDT busy, excluding the stretches it was paused
+    private static final class Timing {
+        long busyNanos;
+        long resumedAt;
+
+        Timing(long start) {
+            resumedAt = start;
+        }
+
+        void pause(long now) {
+            busyNanos += now - resumedAt;
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        if (event instanceof InvocationEvent) {
+            return "invokeLater task";
+        }
+        String source = event.getSource() != null ? event.getSource().getClass().getSimpleName() : "?";
+        return event.getClass().getSimpleName() + " (id " + event.getID() + ") on " + source;
+    }
+}
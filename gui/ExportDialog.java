@@ -0,0 +1,125 @@
+package gui;
+
+import export.ExportCancelledException;
+import export.ExportFormat;
+import export.ExportJob;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.util.List;
+
+/**
+ * Asks where to save an export, then runs it on its own background thread with a progress dialog.
+ * Not tied to BackgroundLoader, so an export keeps going when the user switches panels; closing
+ * the progress dialog or pressing Cancel stops it and removes the partial file.
+ */
+final class ExportDialog {
+
+    private ExportDialog() {}
+
+    static void show(JFrame owner, ExportJob job) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + job.getTitle());
+        chooser.setAcceptAllFileFilterUsed(false);
+        FileNameExtensionFilter xlsxFilter = new FileNameExtensionFilter(
+                ExportFormat.XLSX.getDescription() + " (*.xlsx)", ExportFormat.XLSX.getExtension());
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter(
+                ExportFormat.CSV.getDescription() + " (*.csv)", ExportFormat.CSV.getExtension());
+        chooser.addChoosableFileFilter(xlsxFilter);
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.setFileFilter(xlsxFilter);
+        chooser.setSelectedFile(new File(job.getTitle().replaceAll("[^A-Za-z0-9-]+", "_") + ".xlsx"));
+        if (chooser.showSaveDialog(owner) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = chooser.getSelectedFile();
+        ExportFormat format = ExportFormat.forFileName(file.getName());
+        if (format == null) {
+            format = chooser.getFileFilter() == csvFilter ? ExportFormat.CSV : ExportFormat.XLSX;
+            file = new File(file.getPath() + "." + format.getExtension());
+        }
+        if (file.exists() && JOptionPane.showConfirmDialog(owner, file.getName() + " already exists. Replace it?",
+                "Confirm Export", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+        run(owner, job, file, format);
+    }
+
+    private static void run(JFrame owner, ExportJob job, File file, ExportFormat format) {
+        JDialog dialog = new JDialog(owner, "Exporting " + job.getTitle(), false);
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(new EmptyBorder(20, 20, 20, 20));
+
+        JLabel fileLabel = new JLabel("Writing " + file.getName());
+        fileLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        JProgressBar progress = new JProgressBar();
+        progress.setIndeterminate(true);
+        progress.setStringPainted(true);
+        progress.setString("Starting...");
+        JButton cancelBtn = new JButton("Cancel");
+        cancelBtn.addActionListener(e -> job.cancel());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(cancelBtn);
+        panel.add(fileLabel, BorderLayout.NORTH);
+        panel.add(progress, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        dialog.add(panel);
+        dialog.setSize(420, 160);
+        dialog.setLocationRelativeTo(owner);
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+
+        SwingWorker<Long, long[]> worker = new SwingWorker<>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return job.writeTo(file, format, (rows, estimatedTotal) -> publish(new long[]{rows, estimatedTotal}));
+            }
+
+            @Override
+            protected void process(List<long[]> updates) {
+                long[] latest = updates.get(updates.size() - 1);
+                long rows = latest[0];
+                long estimatedTotal = latest[1];
+                if (estimatedTotal > 0) {
+                    progress.setIndeterminate(false);
+                    progress.setValue((int) Math.min(100, rows * 100 / estimatedTotal));
+                }
+                progress.setString(String.format("%,d rows", rows));
+            }
+
+            @Override
+            protected void done() {
+                dialog.dispose();
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(owner, String.format("Exported %,d rows to%n%s", rows, file.getPath()),
+                            "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof ExportCancelledException)) {
+                        cause.printStackTrace();
+                        JOptionPane.showMessageDialog(owner, "Export failed: " + cause.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }
+        };
+
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                job.cancel();
+            }
+        });
+        worker.execute();
+        dialog.setVisible(true);
+    }
+}
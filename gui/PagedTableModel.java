@@ -0,0 +1,260 @@
+package gui;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Read-only table model that fetches rows a page at a time as the table asks for them.
+ * Pages are read with keyset pagination (id greater than the last id of the previous page),
+ * kept in a bounded LRU cache, and loaded on background threads; rows that are not loaded yet
+ * show as blank until their page arrives. The row count starts from an estimate so the
+ * scrollbar is sized right away, and is corrected once the end of the data is reached.
+ * A page that fails to load is tried again once it is repainted after a backoff that doubles
+ * with each failure, so a passing error doesn't leave its rows blank.
+ * All methods must be called on the EDT.
+ */
+class PagedTableModel<T> extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int DEFAULT_MAX_CACHED_PAGES = 30;
+    private static final int RETRY_BASE_DELAY_MS = 500;
+    private static final int RETRY_MAX_DELAY_MS = 30_000;
+
+    // Where the rows come from; called off the EDT
+    interface PageSource<T> {
+        // Up to limit rows with id > afterId, in id order
+        List<T> fetchPage(long afterId, int limit) throws SQLException;
+
+        // Id of the row at the given position in id order, or null past the end
+        Long idAtOffset(long offset) throws SQLException;
+
+        long estimateRowCount() throws SQLException;
+
+        long idOf(T row);
+    }
+
+    private static final class Page {
+        final long[] ids;
+        final Object[][] rows;
+
+        Page(long[] ids, Object[][] rows) {
+            this.ids = ids;
+            this.rows = rows;
+        }
+    }
+
+    private final String[] columns;
+    private final PageSource<T> source;
+    private final Function<T, Object[]> rowMapper;
+    private final int pageSize;
+    private final Map<Integer, Page> pages;
+    // Id the page starts after; survives eviction of the page itself so re-reading it is a keyset seek
+    private final Map<Integer, Long> pageStartsAfter = new HashMap<>();
+    private final Set<Integer> pending = new HashSet<>();
+    // Consecutive load failures per page, for the retry backoff
+    private final Map<Integer, Integer> failures = new HashMap<>();
+
+    private int rowCount;
+    private boolean exactCount;
+    // Bumped on reset so pages requested before it are dropped when they arrive
+    private int generation;
+
+    PagedTableModel(String[] columns, PageSource<T> source, Function<T, Object[]> rowMapper) {
+        this(columns, source, rowMapper, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    PagedTableModel(String[] columns, PageSource<T> source, Function<T, Object[]> rowMapper,
+                    int pageSize, int maxCachedPages) {
+        this.columns = columns;
+        this.source = source;
+        this.rowMapper = rowMapper;
+        this.pageSize = pageSize;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    // Drop everything cached and start over with a fresh row-count estimate
+    void reset(long estimatedRows) {
+        generation++;
+        pages.clear();
+        pageStartsAfter.clear();
+        pending.clear();
+        failures.clear();
+        pageStartsAfter.put(0, 0L);
+        rowCount = (int) Math.min(Integer.MAX_VALUE, Math.max(0, estimatedRows));
+        exactCount = false;
+        fireTableDataChanged();
+        // Always read the first page, even when the estimate says the table is empty
+        requestPage(0);
+    }
+
+    PageSource<T> getSource() {
+        return source;
+    }
+
+    boolean isRowCountExact() {
+        return exactCount;
+    }
+
+    // Patch a cached row in place (e.g. after an update) without reloading its page
+    void updateCachedValue(long id, int column, Object value) {
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            Page page = entry.getValue();
+            for (int i = 0; i < page.ids.length; i++) {
+                if (page.ids[i] == id) {
+                    page.rows[i][column] = value;
+                    int row = entry.getKey() * pageSize + i;
+                    fireTableCellUpdated(row, column);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int pageIndex = rowIndex / pageSize;
+        Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = rowIndex - pageIndex * pageSize;
+        return offset < page.rows.length ? page.rows[offset][columnIndex] : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (!pending.add(pageIndex)) {
+            return;
+        }
+        int requestGeneration = generation;
+        Long knownStart = startOf(pageIndex);
+
+        new SwingWorker<Page, Void>() {
+            private long startsAfter;
+
+            @Override
+            protected Page doInBackground() throws SQLException {
+                if (knownStart != null) {
+                    startsAfter = knownStart;
+                } else {
+                    // Jumped past pages we never read: find the boundary on the primary key
+                    Long boundary = source.idAtOffset((long) pageIndex * pageSize - 1);
+                    if (boundary == null) {
+                        return new Page(new long[0], new Object[0][]);
+                    }
+                    startsAfter = boundary;
+                }
+
+                List<T> rows = source.fetchPage(startsAfter, pageSize);
+                long[] ids = new long[rows.size()];
+                Object[][] values = new Object[rows.size()][];
+                for (int i = 0; i < rows.size(); i++) {
+                    ids[i] = source.idOf(rows.get(i));
+                    values[i] = rowMapper.apply(rows.get(i));
+                }
+                return new Page(ids, values);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                try {
+                    Page page = get();
+                    pending.remove(pageIndex);
+                    failures.remove(pageIndex);
+                    pageLoaded(pageIndex, startsAfter, page);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    System.err.println("Error loading page " + pageIndex + ": " + e.getCause().getMessage());
+                    scheduleRetry(pageIndex, requestGeneration);
+                }
+            }
+        }.execute();
+    }
+
+    // Keep the page pending through the backoff so repaints don't retry it in a loop, then repaint
+    // its rows: if they are still on screen, getValueAt() requests the page again
+    private void scheduleRetry(int pageIndex, int requestGeneration) {
+        int failed = failures.merge(pageIndex, 1, Integer::sum);
+        int delay = (int) Math.min(RETRY_MAX_DELAY_MS, (long) RETRY_BASE_DELAY_MS << Math.min(failed - 1, 16));
+        javax.swing.Timer timer = new javax.swing.Timer(delay, e -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            pending.remove(pageIndex);
+            int firstRow = pageIndex * pageSize;
+            if (firstRow < rowCount) {
+                fireTableRowsUpdated(firstRow, Math.min(rowCount, firstRow + pageSize) - 1);
+            }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+
+    private Long startOf(int pageIndex) {
+        Long start = pageStartsAfter.get(pageIndex);
+        if (start == null) {
+            Page previous = pages.get(pageIndex - 1);
+            if (previous != null && previous.ids.length == pageSize) {
+                start = previous.ids[pageSize - 1];
+            }
+        }
+        return start;
+    }
+
+    private void pageLoaded(int pageIndex, long startsAfter, Page page) {
+        pages.put(pageIndex, page);
+        pageStartsAfter.put(pageIndex, startsAfter);
+        if (page.ids.length == pageSize) {
+            pageStartsAfter.put(pageIndex + 1, page.ids[pageSize - 1]);
+        }
+
+        int firstRow = pageIndex * pageSize;
+        int oldCount = rowCount;
+        if (page.ids.length < pageSize) {
+            // Short page: this is the end of the data, so the count is now exact
+            rowCount = firstRow + page.ids.length;
+            exactCount = true;
+        } else if (!exactCount && firstRow + pageSize >= rowCount) {
+            // The estimate was low; grow by a page and keep going
+            rowCount = firstRow + 2 * pageSize;
+        }
+
+        if (rowCount > oldCount) {
+            fireTableRowsInserted(oldCount, rowCount - 1);
+        } else if (rowCount < oldCount) {
+            fireTableRowsDeleted(rowCount, oldCount - 1);
+        }
+        if (page.ids.length > 0) {
+            fireTableRowsUpdated(firstRow, firstRow + page.ids.length - 1);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package gui;
+
+import models.ReportFormat;
+import models.ReportRow;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.util.List;
+
+/**
+ * Read-only table model over typed report rows. Cells stay as their typed values (so the table
+ * sorts numbers as numbers) and are only turned into text by CellRenderer when they are drawn.
+ */
+class ReportTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    private final String[] columns;
+    private final Object[][] cells;
+    private final Class<?>[] columnClasses;
+
+    ReportTableModel(String[] columns, List<? extends ReportRow> rows) {
+        this.columns = columns;
+        this.cells = new Object[rows.size()][];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = rows.get(i).toCells();
+        }
+        this.columnClasses = new Class<?>[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            columnClasses[c] = Object.class;
+            for (Object[] row : cells) {
+                if (row[c] != null) {
+                    columnClasses[c] = row[c].getClass();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return cells.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return columnClasses[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return cells[row][column];
+    }
+
+    // Formats cells through the shared ReportFormat; numbers are right-aligned
+    static class CellRenderer extends DefaultTableCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void setValue(Object value) {
+            boolean numeric = value instanceof Number || value instanceof ReportFormat.Percent;
+            setHorizontalAlignment(numeric ? SwingConstants.RIGHT : SwingConstants.LEFT);
+            super.setValue(ReportFormat.cell(value));
+        }
+    }
+}
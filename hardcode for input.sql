@@ -187,10 +187,77 @@ CREATE TABLE checkin_checkout_log (
   FOREIGN KEY (reservation_id) REFERENCES reservation(reservation_id) ON DELETE CASCADE
 ) ENGINE=InnoDB;
 
+-- Dashboard summary counters, maintained by the DAO write paths.
+-- Each counter is spread over several slots to avoid a single hot row; read with SUM(counter_value).
+CREATE TABLE dashboard_counter (
+  counter_name   VARCHAR(50) NOT NULL,
+  slot           TINYINT NOT NULL,
+  counter_value  BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (counter_name, slot)
+) ENGINE=InnoDB;
+
+-- Monthly report rollups for closed months, rebuilt by dao/ReportFactRefresher.
+-- fact_month_status says which months are built; writers to a closed month mark it dirty.
+CREATE TABLE fact_month_status (
+  month_start    DATE NOT NULL PRIMARY KEY,
+  dirty          TINYINT(1) NOT NULL DEFAULT 1,
+  refreshed_at   DATETIME DEFAULT NULL
+) ENGINE=InnoDB;
+
+CREATE TABLE fact_room_month (
+  month_start    DATE NOT NULL,
+  room_id        BIGINT NOT NULL,
+  days_reserved  INT NOT NULL DEFAULT 0,
+  days_billed    INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (month_start, room_id),
+  CONSTRAINT fk_frm_room FOREIGN KEY (room_id) REFERENCES room(room_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE fact_item_month (
+  month_start    DATE NOT NULL,
+  item_id        BIGINT NOT NULL,
+  total_restocked BIGINT NOT NULL DEFAULT 0,
+  PRIMARY KEY (month_start, item_id),
+  CONSTRAINT fk_fim_item FOREIGN KEY (item_id) REFERENCES inventory_item(item_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE fact_amenity_month (
+  month_start    DATE NOT NULL,
+  amenity_id     BIGINT NOT NULL,
+  times_rented   INT NOT NULL DEFAULT 0,
+  total_quantity BIGINT NOT NULL DEFAULT 0,
+  total_revenue  DECIMAL(14,2) NOT NULL DEFAULT 0.00,
+  PRIMARY KEY (month_start, amenity_id),
+  CONSTRAINT fk_fam_amenity FOREIGN KEY (amenity_id) REFERENCES amenity(amenity_id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- Useful indexes
 CREATE INDEX idx_reservation_guest ON reservation(guest_id);
 CREATE INDEX idx_reservation_dates ON reservation(check_in, check_out);
 CREATE INDEX idx_amenity_name ON amenity(name);
+CREATE INDEX idx_reservation_room_status_dates ON reservation(room_id, status, check_in, check_out);
+CREATE INDEX idx_room_status ON room(status);
+CREATE INDEX idx_amenity_rental_status ON amenity_rental(status);
+CREATE INDEX idx_amenity_rental_guest_status ON amenity_rental(guest_id, status);
+CREATE INDEX idx_payment_status_time ON payment(status, payment_time);
+CREATE INDEX idx_restock_item_date ON restock(item_id, restock_date);
+CREATE INDEX idx_amenity_rental_amenity_start ON amenity_rental(amenity_id, rent_start);
+CREATE INDEX idx_reservation_checkout ON reservation(check_out, check_in);
+-- charge_item(reservation_id) is already indexed by its foreign key
+
+-- Schema version applied by database/SchemaMigrator at startup; this script already includes 1-5
+CREATE TABLE schema_version (
+  version        INT NOT NULL PRIMARY KEY,
+  description    VARCHAR(255) NOT NULL,
+  applied_at     DATETIME DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+INSERT INTO schema_version (version, description) VALUES
+(1, 'Dashboard summary counters'),
+(2, 'Indexes for hot predicates'),
+(3, 'Index for monthly amenity report range'),
+(4, 'Monthly report rollups'),
+(5, 'Index for stays ending after a date (trend reports)');
 
 -- ============================================================================
 -- SAMPLE DATA INSERTION
@@ -300,6 +367,16 @@ INSERT INTO restock (item_id, supplier, quantity, restock_date, notes) VALUES
 (5, 'Linen Suppliers Inc.', 40, '2025-11-01 09:00:00', 'Monthly restock'),
 (8, 'Fresh Foods Distributor', 200, '2025-11-15 08:00:00', 'Weekly food supplies');
 
+-- Seed dashboard counters from the base tables
+INSERT INTO dashboard_counter (counter_name, slot, counter_value)
+SELECT 'total_guests', 0, COUNT(*) FROM guest
+UNION ALL SELECT 'reserved_rooms', 0, COUNT(*) FROM room WHERE status = 'reserved'
+UNION ALL SELECT 'available_rooms', 0, COUNT(*) FROM room WHERE status = 'available'
+UNION ALL SELECT 'occupied_rooms', 0, COUNT(*) FROM room WHERE status = 'occupied'
+UNION ALL SELECT 'active_rentals', 0, COUNT(*) FROM amenity_rental WHERE status = 'active'
+UNION ALL SELECT 'inventory_items', 0, COUNT(*) FROM inventory_item
+UNION ALL SELECT 'checked_in_reservations', 0, COUNT(*) FROM reservation WHERE status = 'checked-in';
+
 -- ============================================================================
 -- VERIFICATION QUERIES
 -- ============================================================================
@@ -0,0 +1,32 @@
+package models;
+
+import java.math.BigDecimal;
+
+// Amenities Report row: rentals started in the month and what they brought in
+public final class AmenityReportRow implements ReportRow {
+    private final String name;
+    // Null on the total row
+    private final BigDecimal rate;
+    private final long timesRented;
+    private final long totalQuantity;
+    private final BigDecimal totalRevenue;
+
+    public AmenityReportRow(String name, BigDecimal rate, long timesRented, long totalQuantity, BigDecimal totalRevenue) {
+        this.name = name;
+        this.rate = rate;
+        this.timesRented = timesRented;
+        this.totalQuantity = totalQuantity;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public String getName() { return name; }
+    public BigDecimal getRate() { return rate; }
+    public long getTimesRented() { return timesRented; }
+    public long getTotalQuantity() { return totalQuantity; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+
+    @Override
+    public Object[] toCells() {
+        return new Object[]{name, rate, timesRented, totalQuantity, totalRevenue};
+    }
+}
@@ -0,0 +1,40 @@
+package models;
+
+import java.time.LocalDateTime;
+
+// Immutable set of dashboard metrics, all read at the same moment
+public final class DashboardSnapshot {
+    private final int totalGuests;
+    private final int activeReservations;
+    private final int availableRooms;
+    private final double revenueToday;
+    private final int occupiedRooms;
+    private final int amenitiesRented;
+    private final int inventoryItems;
+    private final int pendingCheckouts;
+    private final LocalDateTime takenAt;
+
+    public DashboardSnapshot(int totalGuests, int activeReservations, int availableRooms, double revenueToday,
+                             int occupiedRooms, int amenitiesRented, int inventoryItems, int pendingCheckouts,
+                             LocalDateTime takenAt) {
+        this.totalGuests = totalGuests;
+        this.activeReservations = activeReservations;
+        this.availableRooms = availableRooms;
+        this.revenueToday = revenueToday;
+        this.occupiedRooms = occupiedRooms;
+        this.amenitiesRented = amenitiesRented;
+        this.inventoryItems = inventoryItems;
+        this.pendingCheckouts = pendingCheckouts;
+        this.takenAt = takenAt;
+    }
+
+    public int getTotalGuests() { return totalGuests; }
+    public int getActiveReservations() { return activeReservations; }
+    public int getAvailableRooms() { return availableRooms; }
+    public double getRevenueToday() { return revenueToday; }
+    public int getOccupiedRooms() { return occupiedRooms; }
+    public int getAmenitiesRented() { return amenitiesRented; }
+    public int getInventoryItems() { return inventoryItems; }
+    public int getPendingCheckouts() { return pendingCheckouts; }
+    public LocalDateTime getTakenAt() { return takenAt; }
+}
@@ -0,0 +1,26 @@
+package models;
+
+// Inventory Report row: units restocked in the month and the stock on hand now
+public final class InventoryReportRow implements ReportRow {
+    private final String name;
+    private final String supplier;
+    private final long totalRestocked;
+    private final long currentQuantity;
+
+    public InventoryReportRow(String name, String supplier, long totalRestocked, long currentQuantity) {
+        this.name = name;
+        this.supplier = supplier;
+        this.totalRestocked = totalRestocked;
+        this.currentQuantity = currentQuantity;
+    }
+
+    public String getName() { return name; }
+    public String getSupplier() { return supplier; }
+    public long getTotalRestocked() { return totalRestocked; }
+    public long getCurrentQuantity() { return currentQuantity; }
+
+    @Override
+    public Object[] toCells() {
+        return new Object[]{name, supplier, totalRestocked, currentQuantity};
+    }
+}
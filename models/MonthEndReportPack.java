@@ -0,0 +1,76 @@
+package models;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// The four monthly reports for one month, generated together for month-end close
+public final class MonthEndReportPack {
+
+    public enum Status { COMPLETED, FAILED, CANCELLED, TIMED_OUT }
+
+    // One report in the pack; the result is null unless the report completed
+    public static final class Section {
+        private final String title;
+        private final String[] columns;
+        private final ReportResult<?> result;
+        private final Status status;
+        private final String message;
+        private final long elapsedMillis;
+
+        public Section(String title, String[] columns, ReportResult<?> result, Status status, String message, long elapsedMillis) {
+            this.title = title;
+            this.columns = columns.clone();
+            this.result = result;
+            this.status = status;
+            this.message = message;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public String getTitle() { return title; }
+        public String[] getColumns() { return columns.clone(); }
+        public ReportResult<?> getResult() { return result; }
+        public Status getStatus() { return status; }
+        public String getMessage() { return message; }
+        public long getElapsedMillis() { return elapsedMillis; }
+    }
+
+    private final int year;
+    private final int month;
+    private final List<Section> sections;
+    private final long wallClockMillis;
+    private final LocalDateTime generatedAt;
+
+    public MonthEndReportPack(int year, int month, List<Section> sections, long wallClockMillis, LocalDateTime generatedAt) {
+        this.year = year;
+        this.month = month;
+        this.sections = Collections.unmodifiableList(new ArrayList<>(sections));
+        this.wallClockMillis = wallClockMillis;
+        this.generatedAt = generatedAt;
+    }
+
+    public int getYear() { return year; }
+    public int getMonth() { return month; }
+    public List<Section> getSections() { return sections; }
+    public long getWallClockMillis() { return wallClockMillis; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+
+    public boolean isComplete() {
+        for (Section section : sections) {
+            if (section.getStatus() != Status.COMPLETED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // What the reports would have taken one after another, for comparison with getWallClockMillis()
+    public long getSequentialMillis() {
+        long total = 0;
+        for (Section section : sections) {
+            total += section.getElapsedMillis();
+        }
+        return total;
+    }
+}
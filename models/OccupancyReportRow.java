@@ -0,0 +1,23 @@
+package models;
+
+// Room Occupancy Report row: nights a room was reserved in the month
+public final class OccupancyReportRow implements ReportRow {
+    private final String roomCode;
+    private final String roomType;
+    private final long daysReserved;
+
+    public OccupancyReportRow(String roomCode, String roomType, long daysReserved) {
+        this.roomCode = roomCode;
+        this.roomType = roomType;
+        this.daysReserved = daysReserved;
+    }
+
+    public String getRoomCode() { return roomCode; }
+    public String getRoomType() { return roomType; }
+    public long getDaysReserved() { return daysReserved; }
+
+    @Override
+    public Object[] toCells() {
+        return new Object[]{roomCode, roomType, daysReserved};
+    }
+}
@@ -0,0 +1,51 @@
+package models;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+
+// Turns report cell values into display text. Reports keep numbers typed and are only formatted
+// when a cell is drawn; DecimalFormat is not thread-safe, so each thread keeps its own instance
+// instead of building a new formatter (as String.format does) for every cell.
+public final class ReportFormat {
+    private static final ThreadLocal<DecimalFormat> MONEY = ThreadLocal.withInitial(() -> new DecimalFormat("₱#,##0.00"));
+
+    private ReportFormat() {}
+
+    public static String money(BigDecimal amount) {
+        return amount == null ? "" : MONEY.get().format(amount);
+    }
+
+    public static String cell(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof BigDecimal) {
+            return money((BigDecimal) value);
+        }
+        return value.toString();
+    }
+
+    // A ratio shown as a percentage (0.723 -> "72.3%"); signed ones are changes ("+4.2%").
+    // Comparable so report tables sort it by value rather than by text.
+    public static final class Percent implements Comparable<Percent> {
+        private final double ratio;
+        private final boolean signed;
+
+        public Percent(double ratio, boolean signed) {
+            this.ratio = ratio;
+            this.signed = signed;
+        }
+
+        public double getRatio() { return ratio; }
+
+        @Override
+        public int compareTo(Percent other) {
+            return Double.compare(ratio, other.ratio);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(signed ? "%+.1f%%" : "%.1f%%", ratio * 100);
+        }
+    }
+}
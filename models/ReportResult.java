@@ -0,0 +1,22 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// A report's rows plus the subtotal and grand total rows worked out while the rows were read
+public final class ReportResult<T extends ReportRow> {
+    private final List<T> rows;
+    private final List<T> subtotals;
+    private final T total;
+
+    public ReportResult(List<T> rows, List<T> subtotals, T total) {
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+        this.subtotals = Collections.unmodifiableList(new ArrayList<>(subtotals));
+        this.total = total;
+    }
+
+    public List<T> getRows() { return rows; }
+    public List<T> getSubtotals() { return subtotals; }
+    public T getTotal() { return total; }
+}
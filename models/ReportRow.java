@@ -0,0 +1,8 @@
+package models;
+
+// One row of a monthly report, kept as typed values; ReportFormat turns the cells into text when shown
+public interface ReportRow {
+
+    // Cell values in column order: String, Long or BigDecimal (money); null for a blank cell
+    Object[] toCells();
+}
@@ -0,0 +1,29 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of a bulk restock: what was applied, and why each rejected line was rejected
+public final class RestockImportResult {
+    private final int linesRead;
+    private final int linesApplied;
+    private final int itemsUpdated;
+    private final long unitsAdded;
+    private final List<String> errors;
+
+    public RestockImportResult(int linesRead, int linesApplied, int itemsUpdated, long unitsAdded, List<String> errors) {
+        this.linesRead = linesRead;
+        this.linesApplied = linesApplied;
+        this.itemsUpdated = itemsUpdated;
+        this.unitsAdded = unitsAdded;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public int getLinesRead() { return linesRead; }
+    public int getLinesApplied() { return linesApplied; }
+    public int getItemsUpdated() { return itemsUpdated; }
+    public long getUnitsAdded() { return unitsAdded; }
+    public List<String> getErrors() { return errors; }
+    public boolean hasErrors() { return !errors.isEmpty(); }
+}
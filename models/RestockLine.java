@@ -0,0 +1,51 @@
+package models;
+
+import java.time.LocalDate;
+
+// One line of a supplier delivery: the item (by id or by name), who delivered it, how many and when.
+// A line that couldn't be read carries the reason in getProblem() and is reported, never applied.
+public final class RestockLine {
+    private final int lineNumber;
+    private final Long itemId;
+    private final String itemName;
+    private final String supplier;
+    private final int quantity;
+    private final LocalDate restockDate;
+    private final String notes;
+    private final String problem;
+
+    public RestockLine(int lineNumber, Long itemId, String itemName, String supplier, int quantity,
+                       LocalDate restockDate, String notes) {
+        this(lineNumber, itemId, itemName, supplier, quantity, restockDate, notes, null);
+    }
+
+    private RestockLine(int lineNumber, Long itemId, String itemName, String supplier, int quantity,
+                        LocalDate restockDate, String notes, String problem) {
+        this.lineNumber = lineNumber;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.supplier = supplier;
+        this.quantity = quantity;
+        this.restockDate = restockDate;
+        this.notes = notes;
+        this.problem = problem;
+    }
+
+    public static RestockLine unreadable(int lineNumber, String problem) {
+        return new RestockLine(lineNumber, null, null, null, 0, null, null, problem);
+    }
+
+    // The same line with its item resolved to an id
+    public RestockLine withItemId(long resolvedItemId) {
+        return new RestockLine(lineNumber, resolvedItemId, itemName, supplier, quantity, restockDate, notes, problem);
+    }
+
+    public int getLineNumber() { return lineNumber; }
+    public Long getItemId() { return itemId; }
+    public String getItemName() { return itemName; }
+    public String getSupplier() { return supplier; }
+    public int getQuantity() { return quantity; }
+    public LocalDate getRestockDate() { return restockDate; }
+    public String getNotes() { return notes; }
+    public String getProblem() { return problem; }
+}
@@ -0,0 +1,21 @@
+package models;
+
+// A recorded delivery and the item's quantity on hand right after it was applied
+public final class RestockResult {
+    private final long restockId;
+    private final long itemId;
+    private final int quantity;
+    private final int quantityOnHand;
+
+    public RestockResult(long restockId, long itemId, int quantity, int quantityOnHand) {
+        this.restockId = restockId;
+        this.itemId = itemId;
+        this.quantity = quantity;
+        this.quantityOnHand = quantityOnHand;
+    }
+
+    public long getRestockId() { return restockId; }
+    public long getItemId() { return itemId; }
+    public int getQuantity() { return quantity; }
+    public int getQuantityOnHand() { return quantityOnHand; }
+}
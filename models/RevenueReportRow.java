@@ -0,0 +1,29 @@
+package models;
+
+import java.math.BigDecimal;
+
+// Revenue Report row: billed nights in the month priced at the room's rate
+public final class RevenueReportRow implements ReportRow {
+    private final String roomCode;
+    private final String roomType;
+    // Null on subtotal and total rows
+    private final BigDecimal ratePerNight;
+    private final BigDecimal totalRevenue;
+
+    public RevenueReportRow(String roomCode, String roomType, BigDecimal ratePerNight, BigDecimal totalRevenue) {
+        this.roomCode = roomCode;
+        this.roomType = roomType;
+        this.ratePerNight = ratePerNight;
+        this.totalRevenue = totalRevenue;
+    }
+
+    public String getRoomCode() { return roomCode; }
+    public String getRoomType() { return roomType; }
+    public BigDecimal getRatePerNight() { return ratePerNight; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+
+    @Override
+    public Object[] toCells() {
+        return new Object[]{roomCode, roomType, ratePerNight, totalRevenue};
+    }
+}
@@ -0,0 +1,36 @@
+package models;
+
+import java.time.LocalDate;
+
+// Filters for RoomDAO.searchAvailableRooms; null (or 0 capacity) means "any"
+public class RoomSearchCriteria {
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private String roomType;
+    private int minCapacity;
+    private Double maxRate;
+
+    // Constructors
+    public RoomSearchCriteria() {}
+
+    public RoomSearchCriteria(LocalDate checkIn, LocalDate checkOut) {
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    // Getters and Setters
+    public LocalDate getCheckIn() { return checkIn; }
+    public void setCheckIn(LocalDate checkIn) { this.checkIn = checkIn; }
+
+    public LocalDate getCheckOut() { return checkOut; }
+    public void setCheckOut(LocalDate checkOut) { this.checkOut = checkOut; }
+
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
+
+    public int getMinCapacity() { return minCapacity; }
+    public void setMinCapacity(int minCapacity) { this.minCapacity = minCapacity; }
+
+    public Double getMaxRate() { return maxRate; }
+    public void setMaxRate(Double maxRate) { this.maxRate = maxRate; }
+}
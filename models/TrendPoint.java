@@ -0,0 +1,58 @@
+package models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+
+// Room-nights and revenue for one series over one month (or over a whole range, when month is null)
+public final class TrendPoint {
+    private final YearMonth month;
+    private final long availableNights;
+    private final long reservedNights;
+    private final long billedNights;
+    private final BigDecimal revenue;
+
+    public TrendPoint(YearMonth month, long availableNights, long reservedNights, long billedNights, BigDecimal revenue) {
+        this.month = month;
+        this.availableNights = availableNights;
+        this.reservedNights = reservedNights;
+        this.billedNights = billedNights;
+        this.revenue = revenue;
+    }
+
+    public YearMonth getMonth() { return month; }
+    public long getAvailableNights() { return availableNights; }
+    public long getReservedNights() { return reservedNights; }
+    public long getBilledNights() { return billedNights; }
+    public BigDecimal getRevenue() { return revenue; }
+
+    // Share of available room-nights that were reserved, 0..1
+    public double getOccupancyRate() {
+        return availableNights == 0 ? 0 : reservedNights / (double) availableNights;
+    }
+
+    // Average daily rate: revenue per billed night, null when nothing was billed
+    public BigDecimal getAdr() {
+        return billedNights == 0 ? null : revenue.divide(BigDecimal.valueOf(billedNights), 2, RoundingMode.HALF_UP);
+    }
+
+    // Revenue per available room-night
+    public BigDecimal getRevPar() {
+        return availableNights == 0 ? BigDecimal.ZERO.setScale(2)
+                : revenue.divide(BigDecimal.valueOf(availableNights), 2, RoundingMode.HALF_UP);
+    }
+
+    // Change in occupancy against an earlier point, in percentage points
+    public double occupancyChangeFrom(TrendPoint before) {
+        return (getOccupancyRate() - before.getOccupancyRate()) * 100;
+    }
+
+    // Relative change in RevPAR against an earlier point (0.1 = up 10%), null when the earlier RevPAR was 0
+    public Double revParChangeFrom(TrendPoint before) {
+        BigDecimal previous = before.getRevPar();
+        if (previous.signum() == 0) {
+            return null;
+        }
+        return getRevPar().subtract(previous).doubleValue() / previous.doubleValue();
+    }
+}
@@ -0,0 +1,30 @@
+package models;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Occupancy, ADR and RevPAR by month over a range, per room, per room type and for the whole resort
+public final class TrendReport {
+    private final YearMonth from;
+    private final YearMonth to;
+    private final List<TrendSeries> byRoom;
+    private final List<TrendSeries> byRoomType;
+    private final TrendSeries allRooms;
+
+    public TrendReport(YearMonth from, YearMonth to, List<TrendSeries> byRoom, List<TrendSeries> byRoomType,
+                       TrendSeries allRooms) {
+        this.from = from;
+        this.to = to;
+        this.byRoom = Collections.unmodifiableList(new ArrayList<>(byRoom));
+        this.byRoomType = Collections.unmodifiableList(new ArrayList<>(byRoomType));
+        this.allRooms = allRooms;
+    }
+
+    public YearMonth getFrom() { return from; }
+    public YearMonth getTo() { return to; }
+    public List<TrendSeries> getByRoom() { return byRoom; }
+    public List<TrendSeries> getByRoomType() { return byRoomType; }
+    public TrendSeries getAllRooms() { return allRooms; }
+}
@@ -0,0 +1,31 @@
+package models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Monthly trend for one room, one room type or the whole resort, with the same months a year earlier
+public final class TrendSeries {
+    private final String name;
+    private final List<TrendPoint> points;
+    private final List<TrendPoint> priorYear;
+    private final TrendPoint total;
+    private final TrendPoint priorYearTotal;
+
+    public TrendSeries(String name, List<TrendPoint> points, List<TrendPoint> priorYear,
+                       TrendPoint total, TrendPoint priorYearTotal) {
+        this.name = name;
+        this.points = Collections.unmodifiableList(new ArrayList<>(points));
+        this.priorYear = Collections.unmodifiableList(new ArrayList<>(priorYear));
+        this.total = total;
+        this.priorYearTotal = priorYearTotal;
+    }
+
+    public String getName() { return name; }
+    // One point per month of the range, in order
+    public List<TrendPoint> getPoints() { return points; }
+    // Same length as getPoints(); element i is the month twelve months before points.get(i)
+    public List<TrendPoint> getPriorYear() { return priorYear; }
+    public TrendPoint getTotal() { return total; }
+    public TrendPoint getPriorYearTotal() { return priorYearTotal; }
+}